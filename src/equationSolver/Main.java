@@ -1,10 +1,16 @@
 package equationSolver;
 
 import javax.swing.*;
+import java.util.Arrays;
+import equationSolver.batch.BatchCommand;
 import equationSolver.ui.PolynomialSolverUI;
 
 public class Main {
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--batch")) {
+            BatchCommand.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         SwingUtilities.invokeLater(PolynomialSolverUI::new);
     }
 }
\ No newline at end of file
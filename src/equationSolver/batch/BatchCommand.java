@@ -0,0 +1,251 @@
+package equationSolver.batch;
+
+import equationSolver.core.expression.LinearExpression;
+import equationSolver.core.expression.PolynomialExpression;
+import equationSolver.core.function.Polynomial;
+import equationSolver.core.system.SystemOfEquations;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Solves polynomials or linear systems read line by line from a file or standard input, without the
+ * Swing user interface.
+ * <p>
+ * Every input line goes through a {@link Pipeline} with a parse, a solve and a format stage, and the
+ * results are written in input order as {@code input<TAB>result} lines. In system mode, the equations
+ * of one system are separated by semicolons on a single line. Memory use is bounded by the queue
+ * capacity, so inputs of any size can be streamed. The throughput is reported on standard error.
+ */
+public class BatchCommand {
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: --batch [options]",
+            "  --mode polynomial|system  what each input line holds (default polynomial)",
+            "  --input FILE              input file, - for standard input (default -)",
+            "  --output FILE             output file, - for standard output (default -)",
+            "  --threads N               number of solver threads (default: number of processors)",
+            "  --queue N                 capacity of the queues between stages (default 1024)");
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private boolean systemMode = false;
+    private String input = "-";
+    private String output = "-";
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int queueCapacity = 1024;
+
+    /**
+     * Runs the batch command with the specified arguments, not including {@code --batch}.
+     *
+     * @param args The command line arguments.
+     */
+    public static void main(String[] args) {
+        BatchCommand command = new BatchCommand();
+        try {
+            command.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        try {
+            command.run();
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("I/O error: " + e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.exit(1);
+        }
+    }
+
+    private void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--mode" -> {
+                    if (!value.equals("polynomial") && !value.equals("system")) {
+                        throw new IllegalArgumentException("Unknown mode " + value);
+                    }
+                    systemMode = value.equals("system");
+                }
+                case "--input" -> input = value;
+                case "--output" -> output = value;
+                case "--threads" -> threads = parsePositive(option, value);
+                case "--queue" -> queueCapacity = parsePositive(option, value);
+                default -> throw new IllegalArgumentException("Unknown option " + option);
+            }
+        }
+    }
+
+    private static int parsePositive(String option, String value) {
+        try {
+            int result = Integer.parseInt(value);
+            if (result > 0) {
+                return result;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below.
+        }
+        throw new IllegalArgumentException(option + " needs a positive integer but got " + value);
+    }
+
+    /**
+     * Streams the input through the pipeline and writes the results.
+     *
+     * @throws IOException          If the input or the output fails.
+     * @throws InterruptedException If interrupted while waiting for the pipeline.
+     */
+    private void run() throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        long count;
+        try (BufferedReader reader = openInput(); Writer writer = openOutput()) {
+            Pipeline<String, String> pipeline = new Pipeline<String, String>(queueCapacity)
+                    .stage("parse", 1, line -> systemMode ? parseSystem(line) : parsePolynomial(line))
+                    .stage("solve", threads, BatchCommand::solve)
+                    .stage("format", 1, BatchCommand::format);
+            pipeline.sink(line -> {
+                try {
+                    writer.write(line);
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.strip();
+                    if (!line.isEmpty()) {
+                        pipeline.submit(line);
+                    }
+                }
+                count = pipeline.finish();
+            } catch (IllegalStateException e) {
+                if (e.getCause() instanceof UncheckedIOException) {
+                    throw (UncheckedIOException) e.getCause();
+                }
+                throw e;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf("Processed %d lines in %.3f s (%.1f lines/s)%n", count, seconds, count / seconds);
+    }
+
+    private BufferedReader openInput() throws IOException {
+        if (input.equals("-")) {
+            return new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), BUFFER_SIZE);
+        }
+        return Files.newBufferedReader(Path.of(input), StandardCharsets.UTF_8);
+    }
+
+    private Writer openOutput() throws IOException {
+        if (output.equals("-")) {
+            return new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        }
+        return Files.newBufferedWriter(Path.of(output), StandardCharsets.UTF_8);
+    }
+
+    private static Object parsePolynomial(String line) {
+        try {
+            String expression = line.replace(" ", "");
+            if (!PolynomialExpression.isValid(expression)) {
+                return new Result(line, "error: invalid polynomial expression");
+            }
+            return new Task(line, new Polynomial(new PolynomialExpression(expression)));
+        } catch (RuntimeException e) {
+            return new Result(line, "error: " + e);
+        }
+    }
+
+    private static Object parseSystem(String line) {
+        try {
+            String[] parts = line.replace(" ", "").split(";");
+            LinearExpression[] equations = new LinearExpression[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                if (!LinearExpression.isValid(parts[i])) {
+                    return new Result(line, "error: invalid equation " + parts[i]);
+                }
+                equations[i] = new LinearExpression(parts[i]);
+            }
+            return new Task(line, new SystemOfEquations(equations));
+        } catch (RuntimeException e) {
+            return new Result(line, "error: " + e);
+        }
+    }
+
+    private static Result solve(Object parsed) {
+        if (parsed instanceof Result result) {
+            return result;
+        }
+        Task task = (Task) parsed;
+        try {
+            if (task.problem instanceof Polynomial polynomial) {
+                return new Result(task.input, polynomial.getSolutions());
+            }
+            return new Result(task.input, ((SystemOfEquations) task.problem).getSolutions());
+        } catch (RuntimeException e) {
+            return new Result(task.input, "error: " + e);
+        }
+    }
+
+    private static String format(Result result) {
+        StringBuilder stringBuilder = new StringBuilder(result.input).append('\t');
+        if (result.solution instanceof String error) {
+            stringBuilder.append(error);
+        } else if (result.solution instanceof double[] roots) {
+            if (roots.length == 0) {
+                stringBuilder.append("no real roots");
+            }
+            for (int i = 0; i < roots.length; i++) {
+                stringBuilder.append(i == 0 ? "" : " ").append(roots[i]);
+            }
+        } else {
+            String[] solutions = (String[]) result.solution;
+            if (solutions.length > 0 && solutions[0] == null) {
+                stringBuilder.append("inconsistent");
+            }
+            for (int i = 0; i < solutions.length && solutions[i] != null; i++) {
+                stringBuilder.append(i == 0 ? "" : "; ").append(solutions[i]);
+            }
+        }
+        return stringBuilder.toString();
+    }
+
+    /**
+     * A parsed input line waiting to be solved.
+     */
+    private static class Task {
+        private final String input;
+        private final Object problem;
+
+        Task(String input, Object problem) {
+            this.input = input;
+            this.problem = problem;
+        }
+    }
+
+    /**
+     * The solution of an input line: roots, solution strings, or an error message.
+     */
+    private static class Result {
+        private final String input;
+        private final Object solution;
+
+        Result(String input, Object solution) {
+            this.input = input;
+            this.solution = solution;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package equationSolver.batch;
+
+import java.nio.ByteOrder;
+
+/**
+ * Describes the binary batch format for polynomials, linear systems and their solutions.
+ * <p>
+ * All values are little-endian. A file starts with a {@value #HEADER_BYTES}-byte header:
+ * <pre>
+ *   int   magic          "EQSB"
+ *   short version        {@value #VERSION}
+ *   short reserved
+ *   long  record count
+ * </pre>
+ * followed by the records. Every record starts with a {@value #RECORD_HEADER_BYTES}-byte header:
+ * <pre>
+ *   int   type           one of the record types below
+ *   int   status         {@link #STATUS_SOLVED} or {@link #STATUS_UNSOLVED} for solutions, 0 otherwise
+ *   long  payload bytes  always a multiple of 8
+ * </pre>
+ * The payloads are:
+ * <ul>
+ *     <li>{@link #POLYNOMIAL}: {@code int n, int 0, double[n]} coefficients, lowest degree first.</li>
+ *     <li>{@link #DENSE_SYSTEM}: {@code int rows, int columns, double[rows * columns]} augmented matrix,
+ *     row by row.</li>
+ *     <li>{@link #SPARSE_SYSTEM}: {@code int rows, int columns, int nonZeros, int 0, int[rows + 1]} row
+ *     pointers, {@code int[nonZeros]} column indices, {@code double[nonZeros]} values of the augmented
+ *     matrix in compressed sparse row form. Both int arrays are padded to a multiple of 8 bytes.</li>
+ *     <li>{@link #SOLUTION}: {@code int n, int 0, double[n]} roots of a polynomial or values of the
+ *     variables of a system.</li>
+ * </ul>
+ * Since every block of doubles starts at a multiple of 8 bytes, records can be read as buffer views
+ * of a memory-mapped file without copying.
+ */
+public final class BatchFormat {
+    public static final int MAGIC = 0x42535145;
+    public static final short VERSION = 1;
+    public static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+    public static final int HEADER_BYTES = 16;
+    public static final int RECORD_HEADER_BYTES = 16;
+
+    public static final int POLYNOMIAL = 1;
+    public static final int DENSE_SYSTEM = 2;
+    public static final int SPARSE_SYSTEM = 3;
+    public static final int SOLUTION = 4;
+
+    public static final int STATUS_SOLVED = 0;
+    public static final int STATUS_UNSOLVED = 1;
+
+    private BatchFormat() {
+    }
+
+    /**
+     * Rounds a number of bytes up to a multiple of 8.
+     *
+     * @param bytes The number of bytes.
+     * @return The padded number of bytes.
+     */
+    static long pad(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
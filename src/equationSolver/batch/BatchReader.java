@@ -0,0 +1,157 @@
+package equationSolver.batch;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the records of a file in the {@link BatchFormat} as views of memory-mapped windows.
+ * <p>
+ * Files larger than one window are mapped piece by piece, so multi-gigabyte files can be read
+ * without loading them onto the heap. A record is never split between two windows.
+ */
+public class BatchReader implements Closeable, Iterable<BatchRecord> {
+    private static final long WINDOW_BYTES = 256L << 20;
+    private final FileChannel channel;
+    private final long size;
+    private final long recordCount;
+    private MappedByteBuffer window;
+    private long windowStart;
+
+    /**
+     * Opens the specified file and checks its header.
+     *
+     * @param file The file to read.
+     * @throws IOException If the file cannot be read or is not a batch file of a supported version.
+     */
+    public BatchReader(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        size = channel.size();
+        if (size < BatchFormat.HEADER_BYTES) {
+            channel.close();
+            throw new IOException(file + " is too short to be a batch file");
+        }
+        mapWindow(0);
+        int magic = window.getInt();
+        short version = window.getShort();
+        window.getShort();
+        recordCount = window.getLong();
+        if (magic != BatchFormat.MAGIC || version != BatchFormat.VERSION) {
+            channel.close();
+            throw new IOException(file + " is not a batch file of version " + BatchFormat.VERSION);
+        }
+    }
+
+    /**
+     * Gets the number of records stored in the header.
+     *
+     * @return The number of records.
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return The next record, or {@code null} at the end of the file.
+     * @throws IOException If the file cannot be mapped or the record is truncated.
+     */
+    public BatchRecord next() throws IOException {
+        long position = windowStart + window.position();
+        if (position + BatchFormat.RECORD_HEADER_BYTES > size) {
+            return null;
+        }
+        if (window.remaining() < BatchFormat.RECORD_HEADER_BYTES) {
+            mapWindow(position);
+        }
+        int type = window.getInt(window.position());
+        int status = window.getInt(window.position() + 4);
+        long payloadBytes = window.getLong(window.position() + 8);
+        long recordBytes = BatchFormat.RECORD_HEADER_BYTES + payloadBytes;
+        if (payloadBytes < 0 || position + recordBytes > size) {
+            throw new IOException("Truncated record at byte " + position);
+        }
+        if (window.remaining() < recordBytes) {
+            mapWindow(position);
+        }
+        int start = window.position() + BatchFormat.RECORD_HEADER_BYTES;
+        ByteBuffer payload = window.duplicate();
+        payload.position(start).limit((int) (start + payloadBytes));
+        window.position((int) (start + payloadBytes));
+        return new BatchRecord(type, status, payload);
+    }
+
+    /**
+     * Iterates over the remaining records.
+     *
+     * @return An iterator over the remaining records.
+     */
+    @Override
+    public Iterator<BatchRecord> iterator() {
+        return new Iterator<>() {
+            private BatchRecord next = advance();
+
+            private BatchRecord advance() {
+                try {
+                    return BatchReader.this.next();
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public BatchRecord next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                BatchRecord current = next;
+                next = advance();
+                return current;
+            }
+        };
+    }
+
+    /**
+     * Closes the file. Records read before remain valid until their mapping is garbage collected.
+     *
+     * @throws IOException If the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Maps a window starting at the specified file position, large enough for the record starting there.
+     *
+     * @param start The file position.
+     * @throws IOException If the file cannot be mapped.
+     */
+    private void mapWindow(long start) throws IOException {
+        long length = Math.min(size - start, WINDOW_BYTES);
+        if (length >= BatchFormat.RECORD_HEADER_BYTES && start > 0) {
+            ByteBuffer header = ByteBuffer.allocate(BatchFormat.RECORD_HEADER_BYTES).order(BatchFormat.BYTE_ORDER);
+            channel.read(header, start);
+            long recordBytes = BatchFormat.RECORD_HEADER_BYTES + header.getLong(8);
+            if (recordBytes > Integer.MAX_VALUE) {
+                throw new IOException("Record at byte " + start + " is too large");
+            }
+            length = Math.min(size - start, Math.max(length, recordBytes));
+        }
+        windowStart = start;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        window.order(BatchFormat.BYTE_ORDER);
+    }
+}
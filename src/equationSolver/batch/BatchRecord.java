@@ -0,0 +1,190 @@
+package equationSolver.batch;
+
+import equationSolver.core.function.Polynomial;
+import equationSolver.core.system.Matrix;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * A record of a batch file, read as a view of the mapped file without copying its values.
+ * <p>
+ * The buffers returned by the accessors share their content with the file, so they are only valid
+ * as long as the {@link BatchReader} that produced the record has not been closed.
+ */
+public class BatchRecord {
+    private final int type;
+    private final int status;
+    private final ByteBuffer payload;
+
+    /**
+     * Constructs a BatchRecord over the specified payload.
+     *
+     * @param type    The record type.
+     * @param status  The record status.
+     * @param payload The payload, positioned at its start and limited to its end.
+     */
+    BatchRecord(int type, int status, ByteBuffer payload) {
+        this.type = type;
+        this.status = status;
+        this.payload = payload.slice().order(BatchFormat.BYTE_ORDER);
+    }
+
+    /**
+     * Gets the record type, one of the types defined in {@link BatchFormat}.
+     *
+     * @return The record type.
+     */
+    public int getType() {
+        return type;
+    }
+
+    /**
+     * Gets the status of a solution record.
+     *
+     * @return {@link BatchFormat#STATUS_SOLVED} or {@link BatchFormat#STATUS_UNSOLVED}.
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets the number of rows of a system record.
+     *
+     * @return The number of rows.
+     */
+    public int getNumberOfRows() {
+        requireSystem();
+        return payload.getInt(0);
+    }
+
+    /**
+     * Gets the number of columns of a system record, including the constant terms.
+     *
+     * @return The number of columns.
+     */
+    public int getNumberOfColumns() {
+        requireSystem();
+        return payload.getInt(4);
+    }
+
+    /**
+     * Gets the values of the record: the coefficients of a polynomial, the solution values, the
+     * augmented matrix of a dense system row by row, or the nonzero values of a sparse system.
+     *
+     * @return A read-only view of the values.
+     */
+    public DoubleBuffer getValues() {
+        if (type == BatchFormat.SPARSE_SYSTEM) {
+            return view(sparseValuesOffset(), getNonZeros() * (long) Double.BYTES).asDoubleBuffer();
+        }
+        int count = type == BatchFormat.DENSE_SYSTEM ? getNumberOfRows() * getNumberOfColumns() : payload.getInt(0);
+        return view(8, count * (long) Double.BYTES).asDoubleBuffer();
+    }
+
+    /**
+     * Gets the row pointers of a sparse system: the values of row {@code i} are at the indices
+     * from {@code rowPointers[i]} up to {@code rowPointers[i + 1]}.
+     *
+     * @return A read-only view of the row pointers.
+     */
+    public IntBuffer getRowPointers() {
+        requireType(BatchFormat.SPARSE_SYSTEM);
+        return view(16, (getNumberOfRows() + 1L) * Integer.BYTES).asIntBuffer();
+    }
+
+    /**
+     * Gets the column indices of the nonzero values of a sparse system.
+     *
+     * @return A read-only view of the column indices.
+     */
+    public IntBuffer getColumnIndices() {
+        requireType(BatchFormat.SPARSE_SYSTEM);
+        return view(16 + BatchFormat.pad((getNumberOfRows() + 1L) * Integer.BYTES), getNonZeros() * (long) Integer.BYTES).asIntBuffer();
+    }
+
+    /**
+     * Copies a polynomial record into a Polynomial.
+     *
+     * @return The polynomial.
+     */
+    public Polynomial toPolynomial() {
+        requireType(BatchFormat.POLYNOMIAL);
+        double[] coefficients = new double[payload.getInt(0)];
+        getValues().get(coefficients);
+        return Polynomial.generateFromCoefficients(coefficients);
+    }
+
+    /**
+     * Copies a solution or polynomial record into an array.
+     *
+     * @return The values.
+     */
+    public double[] toArray() {
+        if (type != BatchFormat.SOLUTION) {
+            requireType(BatchFormat.POLYNOMIAL);
+        }
+        double[] values = new double[payload.getInt(0)];
+        getValues().get(values);
+        return values;
+    }
+
+    /**
+     * Copies a dense or sparse system record into a Matrix.
+     *
+     * @return The augmented matrix of the system.
+     */
+    public Matrix toMatrix() {
+        double[][] coefficients = new double[getNumberOfRows()][getNumberOfColumns()];
+        DoubleBuffer values = getValues();
+        if (type == BatchFormat.DENSE_SYSTEM) {
+            for (double[] row : coefficients) {
+                values.get(row);
+            }
+        } else {
+            IntBuffer rowPointers = getRowPointers();
+            IntBuffer columnIndices = getColumnIndices();
+            for (int i = 0; i < coefficients.length; i++) {
+                for (int k = rowPointers.get(i); k < rowPointers.get(i + 1); k++) {
+                    coefficients[i][columnIndices.get(k)] = values.get(k);
+                }
+            }
+        }
+        return new Matrix(coefficients);
+    }
+
+    private int getNonZeros() {
+        return payload.getInt(8);
+    }
+
+    private long sparseValuesOffset() {
+        return 16 + BatchFormat.pad((getNumberOfRows() + 1L) * Integer.BYTES) + BatchFormat.pad(getNonZeros() * (long) Integer.BYTES);
+    }
+
+    /**
+     * Creates a read-only view of a part of the payload.
+     *
+     * @param offset The offset of the part in the payload.
+     * @param length The length of the part in bytes.
+     * @return The view.
+     */
+    private ByteBuffer view(long offset, long length) {
+        if (offset + length > payload.capacity()) {
+            throw new IllegalStateException("Corrupt " + type + " record: " + (offset + length) + " bytes needed, " + payload.capacity() + " available");
+        }
+        return payload.asReadOnlyBuffer().position((int) offset).limit((int) (offset + length)).slice().order(BatchFormat.BYTE_ORDER);
+    }
+
+    private void requireSystem() {
+        if (type != BatchFormat.DENSE_SYSTEM && type != BatchFormat.SPARSE_SYSTEM) {
+            throw new IllegalStateException("Record of type " + type + " is not a system");
+        }
+    }
+
+    private void requireType(int expected) {
+        if (type != expected) {
+            throw new IllegalStateException("Record of type " + type + " is not of type " + expected);
+        }
+    }
+}
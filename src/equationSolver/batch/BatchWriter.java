@@ -0,0 +1,190 @@
+package equationSolver.batch;
+
+import equationSolver.core.function.Polynomial;
+import equationSolver.core.system.Matrix;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes records in the {@link BatchFormat} to a file through memory-mapped windows.
+ * <p>
+ * The file is mapped one window at a time; when a record does not fit in the current window, a new
+ * window is mapped at the end of the data. Closing the writer trims the file to the written data
+ * and stores the record count in the header.
+ */
+public class BatchWriter implements Closeable {
+    private static final long WINDOW_BYTES = 64L << 20;
+    private final FileChannel channel;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long recordCount;
+
+    /**
+     * Creates or truncates the specified file and writes the header.
+     *
+     * @param file The file to write.
+     * @throws IOException If the file cannot be opened.
+     */
+    public BatchWriter(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        mapWindow(0, BatchFormat.HEADER_BYTES);
+        window.putInt(BatchFormat.MAGIC).putShort(BatchFormat.VERSION).putShort((short) 0).putLong(0);
+    }
+
+    /**
+     * Writes a polynomial record.
+     *
+     * @param coefficients The coefficients, lowest degree first.
+     * @throws IOException If the file cannot be extended.
+     */
+    public void writePolynomial(double[] coefficients) throws IOException {
+        writeValues(BatchFormat.POLYNOMIAL, 0, coefficients);
+    }
+
+    /**
+     * Writes a polynomial record.
+     *
+     * @param polynomial The polynomial.
+     * @throws IOException If the file cannot be extended.
+     */
+    public void writePolynomial(Polynomial polynomial) throws IOException {
+        writePolynomial(polynomial.getCoefficients());
+    }
+
+    /**
+     * Writes a solution record.
+     *
+     * @param values The roots of a polynomial or the values of the variables of a system.
+     * @param solved Whether the solve succeeded; the values of an unsolved record are usually empty.
+     * @throws IOException If the file cannot be extended.
+     */
+    public void writeSolution(double[] values, boolean solved) throws IOException {
+        writeValues(BatchFormat.SOLUTION, solved ? BatchFormat.STATUS_SOLVED : BatchFormat.STATUS_UNSOLVED, values);
+    }
+
+    /**
+     * Writes a dense system record.
+     *
+     * @param matrix The augmented matrix of the system.
+     * @throws IOException If the file cannot be extended.
+     */
+    public void writeDenseSystem(Matrix matrix) throws IOException {
+        int rows = matrix.getNumberOfRows();
+        int columns = matrix.getNumberOfColumns();
+        ByteBuffer buffer = beginRecord(BatchFormat.DENSE_SYSTEM, 0, 8 + (long) rows * columns * Double.BYTES);
+        buffer.putInt(rows).putInt(columns);
+        for (int i = 0; i < rows; i++) {
+            buffer.asDoubleBuffer().put(matrix.getRow(i));
+            buffer.position(buffer.position() + columns * Double.BYTES);
+        }
+    }
+
+    /**
+     * Writes a sparse system record in compressed sparse row form.
+     *
+     * @param rows          The number of rows.
+     * @param columns       The number of columns, including the constant terms.
+     * @param rowPointers   The start of every row in the other arrays, followed by the number of nonzero values.
+     * @param columnIndices The column index of every nonzero value.
+     * @param values        The nonzero values.
+     * @throws IOException If the file cannot be extended.
+     */
+    public void writeSparseSystem(int rows, int columns, int[] rowPointers, int[] columnIndices, double[] values) throws IOException {
+        if (rowPointers.length != rows + 1 || columnIndices.length != values.length || rowPointers[rows] != values.length) {
+            throw new IllegalArgumentException("Inconsistent compressed sparse row arrays");
+        }
+        long pointerBytes = BatchFormat.pad((long) rowPointers.length * Integer.BYTES);
+        long indexBytes = BatchFormat.pad((long) columnIndices.length * Integer.BYTES);
+        ByteBuffer buffer = beginRecord(BatchFormat.SPARSE_SYSTEM, 0, 16 + pointerBytes + indexBytes + (long) values.length * Double.BYTES);
+        int start = buffer.position();
+        buffer.putInt(rows).putInt(columns).putInt(values.length).putInt(0);
+        buffer.asIntBuffer().put(rowPointers);
+        buffer.position((int) (start + 16 + pointerBytes));
+        buffer.asIntBuffer().put(columnIndices);
+        buffer.position((int) (start + 16 + pointerBytes + indexBytes));
+        buffer.asDoubleBuffer().put(values);
+        buffer.position(buffer.position() + values.length * Double.BYTES);
+    }
+
+    /**
+     * Gets the number of records written so far.
+     *
+     * @return The number of records.
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Trims the file, writes the record count into the header and closes the file.
+     *
+     * @throws IOException If the file cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        long size = windowStart + window.position();
+        window.force();
+        window = null;
+        ByteBuffer count = ByteBuffer.allocate(Long.BYTES).order(BatchFormat.BYTE_ORDER).putLong(0, recordCount);
+        channel.write(count, 8);
+        channel.truncate(size);
+        channel.close();
+    }
+
+    private void writeValues(int type, int status, double[] values) throws IOException {
+        ByteBuffer buffer = beginRecord(type, status, 8 + (long) values.length * Double.BYTES);
+        buffer.putInt(values.length).putInt(0);
+        buffer.asDoubleBuffer().put(values);
+        buffer.position(buffer.position() + values.length * Double.BYTES);
+    }
+
+    /**
+     * Writes a record header and makes sure the whole record fits in the current window.
+     *
+     * @param type         The record type.
+     * @param status       The record status.
+     * @param payloadBytes The size of the payload before padding.
+     * @return The window, positioned at the start of the payload.
+     * @throws IOException If the file cannot be extended.
+     */
+    private ByteBuffer beginRecord(int type, int status, long payloadBytes) throws IOException {
+        long paddedBytes = BatchFormat.pad(payloadBytes);
+        long recordBytes = BatchFormat.RECORD_HEADER_BYTES + paddedBytes;
+        if (recordBytes > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Record of " + recordBytes + " bytes is too large");
+        }
+        if (window.remaining() < recordBytes) {
+            mapWindow(windowStart + window.position(), recordBytes);
+        }
+        int end = (int) (window.position() + recordBytes);
+        window.putInt(type).putInt(status).putLong(paddedBytes);
+        recordCount++;
+        ByteBuffer payload = window.duplicate().order(BatchFormat.BYTE_ORDER);
+        payload.limit(end);
+        window.position(end);
+        return payload.slice().order(BatchFormat.BYTE_ORDER);
+    }
+
+    /**
+     * Maps a new window starting at the specified file position.
+     *
+     * @param start   The file position.
+     * @param minimum The minimum size of the window.
+     * @throws IOException If the file cannot be mapped.
+     */
+    private void mapWindow(long start, long minimum) throws IOException {
+        if (window != null) {
+            window.force();
+        }
+        windowStart = start;
+        window = channel.map(FileChannel.MapMode.READ_WRITE, start, Math.max(WINDOW_BYTES, minimum));
+        window.order(BatchFormat.BYTE_ORDER);
+    }
+}
@@ -0,0 +1,217 @@
+package equationSolver.batch;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A bounded pipeline of stages connected by blocking queues, each stage running on its own threads.
+ * <p>
+ * Items are numbered when they are submitted and handed to the sink in that order, even though the
+ * stages may finish them out of order. The number of items between submission and the sink is
+ * bounded, so memory use does not depend on the number of items, even when one slow item holds
+ * back the ones behind it.
+ * <p>
+ * If a stage or the sink throws, the first exception is kept and every stage from then on drops the
+ * items it takes instead of processing them, so the queues keep draining and neither the stages nor
+ * the submitting thread wait forever; {@link #submit} and {@link #finish} then throw.
+ *
+ * @param <I> The type of the submitted items.
+ * @param <O> The type of the items handed to the sink.
+ */
+public class Pipeline<I, O> {
+    private static final Object END = new Object();
+    private static final long POLL_MILLIS = 100;
+    /**
+     * The threads of the stages and the sink, added by the owning thread while a failing thread may be
+     * interrupting them.
+     */
+    private final List<Thread> threads = new CopyOnWriteArrayList<>();
+    private final BlockingQueue<Object> input;
+    private BlockingQueue<Object> last;
+    private final int capacity;
+    private final Semaphore inFlight;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private long submitted;
+
+    /**
+     * Constructs an empty pipeline. Until the first stage is added, the output type must be the input type.
+     *
+     * @param capacity The capacity of every queue between two stages, and the number of items
+     *                 that may be in flight per stage.
+     */
+    public Pipeline(int capacity) {
+        this.capacity = capacity;
+        inFlight = new Semaphore(capacity);
+        input = new ArrayBlockingQueue<>(capacity);
+        last = input;
+    }
+
+    /**
+     * Appends a stage to the pipeline.
+     *
+     * @param name     The name of the stage, used for its threads.
+     * @param threads  The number of threads of the stage.
+     * @param function The function applied to every item.
+     * @param <T>      The type of the items produced by the stage.
+     * @return This pipeline, with the new output type.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Pipeline<I, T> stage(String name, int threads, Function<? super O, T> function) {
+        BlockingQueue<Object> from = last;
+        BlockingQueue<Object> to = new ArrayBlockingQueue<>(capacity);
+        inFlight.release(capacity + threads);
+        AtomicInteger running = new AtomicInteger(threads);
+        Function<Object, Object> step = (Function<Object, Object>) function;
+        for (int t = 0; t < threads; t++) {
+            start(name + "-" + t, () -> {
+                while (true) {
+                    Object item = from.take();
+                    if (item == END) {
+                        from.put(END);
+                        if (running.decrementAndGet() == 0) {
+                            to.put(END);
+                        }
+                        return;
+                    }
+                    if (failure.get() != null) {
+                        continue;
+                    }
+                    Numbered numbered = (Numbered) item;
+                    Object result;
+                    try {
+                        result = step.apply(numbered.value);
+                    } catch (RuntimeException | Error e) {
+                        failure.compareAndSet(null, e);
+                        continue;
+                    }
+                    to.put(new Numbered(numbered.index, result));
+                }
+            });
+        }
+        last = to;
+        return (Pipeline<I, T>) this;
+    }
+
+    /**
+     * Starts the sink thread, which hands the results to the consumer in submission order.
+     *
+     * @param consumer The consumer of the results.
+     */
+    @SuppressWarnings("unchecked")
+    public void sink(Consumer<O> consumer) {
+        BlockingQueue<Object> from = last;
+        start("sink", () -> {
+            HashMap<Long, Object> pending = new HashMap<>();
+            long next = 0;
+            while (true) {
+                Object item = from.take();
+                if (item == END) {
+                    return;
+                }
+                if (failure.get() != null) {
+                    continue;
+                }
+                Numbered numbered = (Numbered) item;
+                pending.put(numbered.index, numbered.value);
+                try {
+                    while (pending.containsKey(next)) {
+                        consumer.accept((O) pending.remove(next++));
+                        inFlight.release();
+                    }
+                } catch (RuntimeException | Error e) {
+                    failure.compareAndSet(null, e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Submits an item, blocking while too many items are in flight.
+     *
+     * @param item The item.
+     * @throws InterruptedException If interrupted while waiting.
+     * @throws IllegalStateException If a stage failed.
+     */
+    public void submit(I item) throws InterruptedException {
+        checkFailure();
+        while (!inFlight.tryAcquire(POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+            checkFailure();
+        }
+        offer(new Numbered(submitted++, item));
+    }
+
+    /**
+     * Signals that no more items will be submitted and waits until all of them reach the sink.
+     *
+     * @return The number of items processed.
+     * @throws InterruptedException If interrupted while waiting.
+     * @throws IllegalStateException If a stage failed.
+     */
+    public long finish() throws InterruptedException {
+        offer(END);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        checkFailure();
+        return submitted;
+    }
+
+    /**
+     * Puts an item in the first queue, waiting for space only as long as no stage has failed.
+     *
+     * @param item The item.
+     * @throws InterruptedException If interrupted while waiting.
+     * @throws IllegalStateException If a stage failed.
+     */
+    private void offer(Object item) throws InterruptedException {
+        while (!input.offer(item, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+            checkFailure();
+        }
+    }
+
+    private void checkFailure() {
+        Throwable cause = failure.get();
+        if (cause != null) {
+            throw new IllegalStateException("Pipeline stage failed", cause);
+        }
+    }
+
+    private void start(String name, Task task) {
+        Thread thread = new Thread(() -> {
+            try {
+                task.run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException | Error e) {
+                failure.compareAndSet(null, e);
+                threads.forEach(Thread::interrupt);
+            }
+        }, "pipeline-" + name);
+        thread.setDaemon(true);
+        threads.add(thread);
+        thread.start();
+    }
+
+    private interface Task {
+        void run() throws InterruptedException;
+    }
+
+    private static class Numbered {
+        private final long index;
+        private final Object value;
+
+        Numbered(long index, Object value) {
+            this.index = index;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package equationSolver.benchmark;
+
+import equationSolver.core.kernel.ArrayKernel;
+
+import java.util.Random;
+
+/**
+ * Compares the kernel selected at startup with the scalar kernel on the operations used by
+ * {@code Matrix} and {@code Polynomial}.
+ * <p>
+ * Run with the classes of the {@code vector} source root and {@code --add-modules jdk.incubator.vector}
+ * to benchmark the vector kernel. On an AVX-512 host, {@code -XX:UseAVX=2} limits the JIT to AVX2
+ * (4 lanes) for a comparison of the two. The optional argument is the array length, 1024 by default.
+ */
+public class KernelBenchmark {
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+    private static final long NANOS_PER_ROUND = 200_000_000L;
+
+    public static void main(String[] args) {
+        int length = args.length > 0 ? Integer.parseInt(args[0]) : 1024;
+        ArrayKernel selected = ArrayKernel.getInstance();
+        ArrayKernel scalar = ArrayKernel.getScalarInstance();
+        System.out.println("Selected kernel: " + selected.getClass().getSimpleName()
+                + " (" + selected.getLaneCount() + " lanes), length " + length);
+        Random random = new Random(42);
+        double[] x = random.doubles(length, -1, 1).toArray();
+        double[] y = random.doubles(length, -1, 1).toArray();
+        double[] small = random.doubles(Math.max(1, length / 16), -1, 1).toArray();
+
+        System.out.printf("%-12s %14s %14s %9s%n", "operation", "scalar ns/op", "selected ns/op", "speedup");
+        report("addMultiple",
+                measure(() -> scalar.addMultiple(1e-9, x, 0, y, 0, length)),
+                measure(() -> selected.addMultiple(1e-9, x, 0, y, 0, length)));
+        report("scale",
+                measure(() -> scalar.scale(y, 1.0000001)),
+                measure(() -> selected.scale(y, 1.0000001)));
+        report("evaluate",
+                measure(() -> sink += scalar.evaluate(x, 0.999)),
+                measure(() -> sink += selected.evaluate(x, 0.999)));
+        double[] values = new double[small.length];
+        report("evaluateAll",
+                measure(() -> scalar.evaluate(x, small, values)),
+                measure(() -> selected.evaluate(x, small, values)));
+        double[] z = random.doubles(length, -1, 1).toArray();
+        double[] smaller = new double[length];
+        double[] larger = new double[length];
+        int[] counts = new int[length];
+        report("quadratics",
+                measure(() -> scalar.solveQuadratics(x, y, z, 0, length, smaller, larger, counts)),
+                measure(() -> selected.solveQuadratics(x, y, z, 0, length, smaller, larger, counts)));
+        report("multiply",
+                measure(() -> sink += scalar.multiply(x, small)[0]),
+                measure(() -> sink += selected.multiply(x, small)[0]));
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+
+    private static double sink;
+
+    /**
+     * Measures the average time of an operation after warming it up.
+     *
+     * @param operation The operation.
+     * @return The average time of one call in nanoseconds.
+     */
+    private static double measure(Runnable operation) {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            runRound(operation);
+        }
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            best = Math.min(best, runRound(operation));
+        }
+        return best;
+    }
+
+    /**
+     * Runs an operation repeatedly for a fixed time.
+     *
+     * @param operation The operation.
+     * @return The average time of one call in nanoseconds.
+     */
+    private static double runRound(Runnable operation) {
+        long calls = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (int i = 0; i < 100; i++) {
+                operation.run();
+            }
+            calls += 100;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < NANOS_PER_ROUND);
+        return (double) elapsed / calls;
+    }
+
+    private static void report(String operation, double scalarTime, double selectedTime) {
+        System.out.printf("%-12s %14.1f %14.1f %8.2fx%n", operation, scalarTime, selectedTime, scalarTime / selectedTime);
+    }
+}
@@ -0,0 +1,90 @@
+package equationSolver.benchmark;
+
+import equationSolver.core.kernel.ArrayKernel;
+import equationSolver.core.system.Matrix;
+
+import java.util.Random;
+
+/**
+ * Measures the throughput of {@link Matrix#multiply(Matrix)} on square matrices, in floating-point
+ * operations per second, next to a plain triple loop.
+ * <p>
+ * Run with the classes of the {@code vector} source root and {@code --add-modules jdk.incubator.vector}
+ * to benchmark the vector kernel. The optional arguments are the orders of the matrices, 256, 512
+ * and 1024 by default.
+ */
+public class MatrixBenchmark {
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int[] orders = args.length > 0 ? new int[args.length] : new int[] {256, 512, 1024};
+        for (int i = 0; i < args.length; i++) {
+            orders[i] = Integer.parseInt(args[i]);
+        }
+        ArrayKernel kernel = ArrayKernel.getInstance();
+        System.out.println("Selected kernel: " + kernel.getClass().getSimpleName()
+                + " (" + kernel.getLaneCount() + " lanes), " + Runtime.getRuntime().availableProcessors() + " processors");
+        System.out.printf("%-8s %14s %16s %9s%n", "order", "loop GFLOP/s", "blocked GFLOP/s", "speedup");
+        Random random = new Random(42);
+        for (int n : orders) {
+            double[][] a = randomRows(random, n);
+            double[][] b = randomRows(random, n);
+            Matrix first = new Matrix(a);
+            Matrix second = new Matrix(b);
+            double loop = gigaflops(n, measure(() -> multiplyByLoops(a, b)));
+            double blocked = gigaflops(n, measure(() -> first.multiply(second)));
+            System.out.printf("%-8d %14.2f %16.2f %8.2fx%n", n, loop, blocked, blocked / loop);
+        }
+    }
+
+    private static double[][] randomRows(Random random, int n) {
+        double[][] rows = new double[n][];
+        for (int i = 0; i < n; i++) {
+            rows[i] = random.doubles(n, -1, 1).toArray();
+        }
+        return rows;
+    }
+
+    /**
+     * Multiplies with the loop order {@code i, k, j}, whose inner loop the JIT compiler vectorizes.
+     */
+    private static double[][] multiplyByLoops(double[][] a, double[][] b) {
+        int n = a.length;
+        double[][] c = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            double[] row = c[i];
+            for (int k = 0; k < n; k++) {
+                double factor = a[i][k];
+                double[] other = b[k];
+                for (int j = 0; j < n; j++) {
+                    row[j] += factor * other[j];
+                }
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Measures the best time of an operation after warming it up.
+     *
+     * @param operation The operation.
+     * @return The best time of one call in nanoseconds.
+     */
+    private static double measure(Runnable operation) {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            operation.run();
+        }
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            operation.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private static double gigaflops(int n, double nanos) {
+        return 2.0 * n * n * n / nanos;
+    }
+}
@@ -0,0 +1,455 @@
+package equationSolver.core.expression;
+
+/**
+ * A node of the tree of a general expression in the variable {@code x}, as parsed by
+ * {@link FunctionExpression#parse()}.
+ * <p>
+ * Nodes are immutable. The factory methods fold constant operands and drop neutral ones, so that the
+ * trees built by {@link #derivative()} stay small.
+ */
+public abstract class ExpressionNode {
+
+    /**
+     * The functions of one argument, each computed by the {@link Math} method of the same name.
+     */
+    public enum UnaryOperator {
+        NEGATE("-"), SIN("sin"), COS("cos"), TAN("tan"), EXP("exp"), LOG("log"), SQRT("sqrt"), ABS("abs");
+
+        private final String symbol;
+
+        UnaryOperator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        /**
+         * Gets the name of the function in expressions, which is also the name of the {@link Math} method.
+         *
+         * @return The name of the function, {@code -} for the negation.
+         */
+        public String getSymbol() {
+            return symbol;
+        }
+
+        /**
+         * Applies the function to a number.
+         *
+         * @param x The argument.
+         * @return The value of the function.
+         */
+        public double apply(double x) {
+            switch (this) {
+                case NEGATE: return -x;
+                case SIN: return Math.sin(x);
+                case COS: return Math.cos(x);
+                case TAN: return Math.tan(x);
+                case EXP: return Math.exp(x);
+                case LOG: return Math.log(x);
+                case SQRT: return Math.sqrt(x);
+                default: return Math.abs(x);
+            }
+        }
+
+        /**
+         * Finds a function from its name.
+         *
+         * @param name The name of the function.
+         * @return The function, or {@code null} if there is none of that name.
+         */
+        public static UnaryOperator fromName(String name) {
+            for (UnaryOperator operator : values()) {
+                if (operator != NEGATE && operator.symbol.equals(name)) {
+                    return operator;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * The arithmetic operators.
+     */
+    public enum BinaryOperator {
+        ADD('+'), SUBTRACT('-'), MULTIPLY('*'), DIVIDE('/'), POWER('^');
+
+        private final char symbol;
+
+        BinaryOperator(char symbol) {
+            this.symbol = symbol;
+        }
+
+        /**
+         * Gets the symbol of the operator in expressions.
+         *
+         * @return The symbol of the operator.
+         */
+        public char getSymbol() {
+            return symbol;
+        }
+
+        /**
+         * Applies the operator to two numbers.
+         *
+         * @param left  The left operand.
+         * @param right The right operand.
+         * @return The result of the operation, {@link Math#pow} for the power.
+         */
+        public double apply(double left, double right) {
+            switch (this) {
+                case ADD: return left + right;
+                case SUBTRACT: return left - right;
+                case MULTIPLY: return left * right;
+                case DIVIDE: return left / right;
+                default: return Math.pow(left, right);
+            }
+        }
+    }
+
+    /**
+     * The variable {@code x}.
+     */
+    public static final ExpressionNode X = new Variable();
+
+    ExpressionNode() {
+    }
+
+    /**
+     * Evaluates the expression by walking the tree.
+     *
+     * @param x The value of the variable.
+     * @return The value of the expression.
+     */
+    public abstract double evaluate(double x);
+
+    /**
+     * Computes the derivative of the expression with respect to {@code x}, symbolically.
+     *
+     * @return The tree of the derivative.
+     */
+    public abstract ExpressionNode derivative();
+
+    /**
+     * Counts the nodes of the tree.
+     *
+     * @return The number of nodes, 1 for a leaf.
+     */
+    public abstract int size();
+
+    /**
+     * Creates a constant.
+     *
+     * @param value The value of the constant.
+     * @return The constant node.
+     */
+    public static ExpressionNode constant(double value) {
+        return new Constant(value);
+    }
+
+    /**
+     * Applies a function to an expression, folding constants.
+     *
+     * @param operator The function.
+     * @param operand  The argument.
+     * @return The node of the application.
+     */
+    public static ExpressionNode unary(UnaryOperator operator, ExpressionNode operand) {
+        if (operand instanceof Constant) {
+            return constant(operator.apply(((Constant) operand).value));
+        }
+        if (operator == UnaryOperator.NEGATE && operand instanceof Unary
+                && ((Unary) operand).operator == UnaryOperator.NEGATE) {
+            return ((Unary) operand).operand;
+        }
+        return new Unary(operator, operand);
+    }
+
+    /**
+     * Combines two expressions with an operator, folding constants and dropping neutral operands.
+     *
+     * @param operator The operator.
+     * @param left     The left operand.
+     * @param right    The right operand.
+     * @return The node of the operation.
+     */
+    public static ExpressionNode binary(BinaryOperator operator, ExpressionNode left, ExpressionNode right) {
+        boolean leftConstant = left instanceof Constant;
+        boolean rightConstant = right instanceof Constant;
+        if (leftConstant && rightConstant) {
+            return constant(operator.apply(((Constant) left).value, ((Constant) right).value));
+        }
+        double leftValue = leftConstant ? ((Constant) left).value : Double.NaN;
+        double rightValue = rightConstant ? ((Constant) right).value : Double.NaN;
+        switch (operator) {
+            case ADD:
+                if (leftValue == 0) {
+                    return right;
+                }
+                if (rightValue == 0) {
+                    return left;
+                }
+                break;
+            case SUBTRACT:
+                if (rightValue == 0) {
+                    return left;
+                }
+                if (leftValue == 0) {
+                    return unary(UnaryOperator.NEGATE, right);
+                }
+                break;
+            case MULTIPLY:
+                if (leftValue == 0 || rightValue == 0) {
+                    return constant(0);
+                }
+                if (leftValue == 1) {
+                    return right;
+                }
+                if (rightValue == 1) {
+                    return left;
+                }
+                break;
+            case DIVIDE:
+                if (rightValue == 1) {
+                    return left;
+                }
+                break;
+            default:
+                if (rightValue == 1) {
+                    return left;
+                }
+                if (rightValue == 0) {
+                    return constant(1);
+                }
+                break;
+        }
+        return new Binary(operator, left, right);
+    }
+
+    /**
+     * A constant.
+     */
+    public static final class Constant extends ExpressionNode {
+        private final double value;
+
+        private Constant(double value) {
+            this.value = value;
+        }
+
+        /**
+         * Gets the value of the constant.
+         *
+         * @return The value.
+         */
+        public double getValue() {
+            return value;
+        }
+
+        public double evaluate(double x) {
+            return value;
+        }
+
+        public ExpressionNode derivative() {
+            return constant(0);
+        }
+
+        public int size() {
+            return 1;
+        }
+
+        public String toString() {
+            if (value == Math.PI) {
+                return "pi";
+            }
+            if (value == Math.E) {
+                return "e";
+            }
+            return value < 0 ? "(" + value + ")" : Double.toString(value);
+        }
+    }
+
+    /**
+     * The variable {@code x}.
+     */
+    public static final class Variable extends ExpressionNode {
+        private Variable() {
+        }
+
+        public double evaluate(double x) {
+            return x;
+        }
+
+        public ExpressionNode derivative() {
+            return constant(1);
+        }
+
+        public int size() {
+            return 1;
+        }
+
+        public String toString() {
+            return "x";
+        }
+    }
+
+    /**
+     * A function applied to an expression.
+     */
+    public static final class Unary extends ExpressionNode {
+        private final UnaryOperator operator;
+        private final ExpressionNode operand;
+
+        private Unary(UnaryOperator operator, ExpressionNode operand) {
+            this.operator = operator;
+            this.operand = operand;
+        }
+
+        /**
+         * Gets the function.
+         *
+         * @return The function.
+         */
+        public UnaryOperator getOperator() {
+            return operator;
+        }
+
+        /**
+         * Gets the argument of the function.
+         *
+         * @return The argument.
+         */
+        public ExpressionNode getOperand() {
+            return operand;
+        }
+
+        public double evaluate(double x) {
+            return operator.apply(operand.evaluate(x));
+        }
+
+        /**
+         * Applies the chain rule.
+         */
+        public ExpressionNode derivative() {
+            ExpressionNode inner = operand.derivative();
+            ExpressionNode outer;
+            switch (operator) {
+                case NEGATE:
+                    return unary(UnaryOperator.NEGATE, inner);
+                case SIN:
+                    outer = unary(UnaryOperator.COS, operand);
+                    break;
+                case COS:
+                    outer = unary(UnaryOperator.NEGATE, unary(UnaryOperator.SIN, operand));
+                    break;
+                case TAN:
+                    outer = binary(BinaryOperator.ADD, constant(1), binary(BinaryOperator.MULTIPLY, this, this));
+                    break;
+                case EXP:
+                    outer = this;
+                    break;
+                case LOG:
+                    return binary(BinaryOperator.DIVIDE, inner, operand);
+                case SQRT:
+                    return binary(BinaryOperator.DIVIDE, inner, binary(BinaryOperator.MULTIPLY, constant(2), this));
+                default:
+                    outer = binary(BinaryOperator.DIVIDE, operand, this);
+                    break;
+            }
+            return binary(BinaryOperator.MULTIPLY, outer, inner);
+        }
+
+        public int size() {
+            return 1 + operand.size();
+        }
+
+        public String toString() {
+            if (operator == UnaryOperator.NEGATE) {
+                return "(-" + operand + ")";
+            }
+            return operator.symbol + "(" + operand + ")";
+        }
+    }
+
+    /**
+     * An arithmetic operation on two expressions.
+     */
+    public static final class Binary extends ExpressionNode {
+        private final BinaryOperator operator;
+        private final ExpressionNode left;
+        private final ExpressionNode right;
+
+        private Binary(BinaryOperator operator, ExpressionNode left, ExpressionNode right) {
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        /**
+         * Gets the operator.
+         *
+         * @return The operator.
+         */
+        public BinaryOperator getOperator() {
+            return operator;
+        }
+
+        /**
+         * Gets the left operand.
+         *
+         * @return The left operand.
+         */
+        public ExpressionNode getLeft() {
+            return left;
+        }
+
+        /**
+         * Gets the right operand.
+         *
+         * @return The right operand.
+         */
+        public ExpressionNode getRight() {
+            return right;
+        }
+
+        public double evaluate(double x) {
+            return operator.apply(left.evaluate(x), right.evaluate(x));
+        }
+
+        /**
+         * Applies the sum, product and quotient rules. A power with a constant exponent is differentiated
+         * as {@code n u^(n-1) u'}, and any other power as {@code u^v (v' log(u) + v u' / u)}.
+         */
+        public ExpressionNode derivative() {
+            ExpressionNode dl = left.derivative();
+            ExpressionNode dr = right.derivative();
+            switch (operator) {
+                case ADD:
+                case SUBTRACT:
+                    return binary(operator, dl, dr);
+                case MULTIPLY:
+                    return binary(BinaryOperator.ADD, binary(BinaryOperator.MULTIPLY, dl, right),
+                            binary(BinaryOperator.MULTIPLY, left, dr));
+                case DIVIDE:
+                    return binary(BinaryOperator.DIVIDE,
+                            binary(BinaryOperator.SUBTRACT, binary(BinaryOperator.MULTIPLY, dl, right),
+                                    binary(BinaryOperator.MULTIPLY, left, dr)),
+                            binary(BinaryOperator.MULTIPLY, right, right));
+                default:
+                    if (right instanceof Constant) {
+                        double n = ((Constant) right).value;
+                        return binary(BinaryOperator.MULTIPLY,
+                                binary(BinaryOperator.MULTIPLY, constant(n), binary(BinaryOperator.POWER, left, constant(n - 1))),
+                                dl);
+                    }
+                    return binary(BinaryOperator.MULTIPLY, this,
+                            binary(BinaryOperator.ADD, binary(BinaryOperator.MULTIPLY, dr, unary(UnaryOperator.LOG, left)),
+                                    binary(BinaryOperator.DIVIDE, binary(BinaryOperator.MULTIPLY, right, dl), left)));
+            }
+        }
+
+        public int size() {
+            return 1 + left.size() + right.size();
+        }
+
+        public String toString() {
+            return "(" + left + operator.symbol + right + ")";
+        }
+    }
+}
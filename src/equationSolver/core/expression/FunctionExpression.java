@@ -0,0 +1,231 @@
+package equationSolver.core.expression;
+
+import equationSolver.core.exceptions.InvalidExpressionExceptions;
+import equationSolver.core.metrics.ParseEvent;
+import equationSolver.core.metrics.SolverEvent;
+
+/**
+ * Represents a general expression in the variable {@code x}, such as {@code sin(x)*exp(-x/2)=0.1}.
+ * <p>
+ * The expression may use numbers, {@code x}, the constants {@code pi} and {@code e}, the operators
+ * {@code + - * / ^}, parentheses and the functions {@code sin cos tan exp log sqrt abs}. A number,
+ * variable, function or parenthesis directly after another operand is multiplied by it, as in
+ * {@code 2x} or {@code 3sin(x)}. The power is right-associative and binds tighter than the unary
+ * minus, so {@code -x^2} is {@code -(x^2)}. An equation {@code f=g} is the expression {@code f-g}.
+ */
+public class FunctionExpression extends Expression {
+    /**
+     * Constructs a new FunctionExpression object with the specified expression.
+     *
+     * @param expression The expression.
+     */
+    public FunctionExpression(String expression) {
+        super(expression);
+    }
+
+    /**
+     * Parses the expression into a tree.
+     *
+     * @return The root of the tree.
+     * @throws InvalidExpressionExceptions If the expression is malformed, with the position of the error.
+     */
+    public ExpressionNode parse() throws InvalidExpressionExceptions {
+        ParseEvent event = new ParseEvent();
+        event.begin();
+        try {
+            ExpressionNode root = new Parser(getExpression()).parseEquation();
+            event.coefficients = root.size();
+            event.outcome = SolverEvent.COMPLETED;
+            return root;
+        }
+        finally {
+            event.kind = "function";
+            event.length = getExpression().length();
+            event.commit();
+        }
+    }
+
+    /**
+     * A recursive descent parser over the expression text.
+     */
+    private static class Parser {
+        private final String text;
+        private int position;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        ExpressionNode parseEquation() throws InvalidExpressionExceptions {
+            ExpressionNode left = parseSum();
+            if (peek() == '=') {
+                position++;
+                left = ExpressionNode.binary(ExpressionNode.BinaryOperator.SUBTRACT, left, parseSum());
+            }
+            if (peek() != 0) {
+                throw error("Unexpected '" + text.charAt(position) + "'");
+            }
+            return left;
+        }
+
+        private ExpressionNode parseSum() throws InvalidExpressionExceptions {
+            ExpressionNode node = parseProduct();
+            while (peek() == '+' || peek() == '-') {
+                ExpressionNode.BinaryOperator operator = text.charAt(position++) == '+'
+                        ? ExpressionNode.BinaryOperator.ADD : ExpressionNode.BinaryOperator.SUBTRACT;
+                node = ExpressionNode.binary(operator, node, parseProduct());
+            }
+            return node;
+        }
+
+        private ExpressionNode parseProduct() throws InvalidExpressionExceptions {
+            ExpressionNode node = parseUnary();
+            while (true) {
+                char c = peek();
+                if (c == '*' || c == '/') {
+                    position++;
+                    ExpressionNode.BinaryOperator operator = c == '*'
+                            ? ExpressionNode.BinaryOperator.MULTIPLY : ExpressionNode.BinaryOperator.DIVIDE;
+                    node = ExpressionNode.binary(operator, node, parseUnary());
+                }
+                else if (c == '(' || c == '.' || Character.isLetterOrDigit(c)) {
+                    node = ExpressionNode.binary(ExpressionNode.BinaryOperator.MULTIPLY, node, parsePower());
+                }
+                else {
+                    return node;
+                }
+            }
+        }
+
+        private ExpressionNode parseUnary() throws InvalidExpressionExceptions {
+            if (peek() == '-') {
+                position++;
+                return ExpressionNode.unary(ExpressionNode.UnaryOperator.NEGATE, parseUnary());
+            }
+            if (peek() == '+') {
+                position++;
+                return parseUnary();
+            }
+            return parsePower();
+        }
+
+        private ExpressionNode parsePower() throws InvalidExpressionExceptions {
+            ExpressionNode base = parsePrimary();
+            if (peek() == '^') {
+                position++;
+                return ExpressionNode.binary(ExpressionNode.BinaryOperator.POWER, base, parseUnary());
+            }
+            return base;
+        }
+
+        private ExpressionNode parsePrimary() throws InvalidExpressionExceptions {
+            char c = peek();
+            if (c == '(') {
+                position++;
+                ExpressionNode node = parseSum();
+                expect(')');
+                return node;
+            }
+            if (Character.isDigit(c) || c == '.') {
+                return parseNumber();
+            }
+            if (Character.isLetter(c)) {
+                String name = matchName();
+                if (name == null) {
+                    int end = position;
+                    while (end < text.length() && Character.isLetter(text.charAt(end))) {
+                        end++;
+                    }
+                    throw error("Unknown name '" + text.substring(position, end) + "'");
+                }
+                position += name.length();
+                if (name.equals("x")) {
+                    return ExpressionNode.X;
+                }
+                if (name.equals("pi")) {
+                    return ExpressionNode.constant(Math.PI);
+                }
+                if (name.equals("e")) {
+                    return ExpressionNode.constant(Math.E);
+                }
+                expect('(');
+                ExpressionNode argument = parseSum();
+                expect(')');
+                return ExpressionNode.unary(ExpressionNode.UnaryOperator.fromName(name), argument);
+            }
+            throw error(c == 0 ? "Unexpected end of expression" : "Unexpected '" + c + "'");
+        }
+
+        /**
+         * Matches a function, {@code x} or a constant at the current position, so that names can follow
+         * each other without a separator, as in {@code xsin(x)} or {@code 2pix}.
+         *
+         * @return The name, or {@code null} if no name starts at the current position.
+         */
+        private String matchName() {
+            for (ExpressionNode.UnaryOperator function : ExpressionNode.UnaryOperator.values()) {
+                if (function != ExpressionNode.UnaryOperator.NEGATE && text.startsWith(function.getSymbol(), position)) {
+                    return function.getSymbol();
+                }
+            }
+            for (String name : new String[] {"pi", "x", "e"}) {
+                if (text.startsWith(name, position)) {
+                    return name;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Parses a decimal number, with an optional exponent after an upper case {@code E}; a lower case
+         * {@code e} is the constant.
+         */
+        private ExpressionNode parseNumber() throws InvalidExpressionExceptions {
+            int start = position;
+            while (position < text.length() && (Character.isDigit(text.charAt(position)) || text.charAt(position) == '.')) {
+                position++;
+            }
+            if (position < text.length() && text.charAt(position) == 'E') {
+                int exponent = position + 1;
+                if (exponent < text.length() && (text.charAt(exponent) == '+' || text.charAt(exponent) == '-')) {
+                    exponent++;
+                }
+                if (exponent < text.length() && Character.isDigit(text.charAt(exponent))) {
+                    position = exponent;
+                    while (position < text.length() && Character.isDigit(text.charAt(position))) {
+                        position++;
+                    }
+                }
+            }
+            try {
+                return ExpressionNode.constant(Double.parseDouble(text.substring(start, position)));
+            } catch (NumberFormatException e) {
+                position = start;
+                throw error("Invalid number");
+            }
+        }
+
+        private void expect(char expected) throws InvalidExpressionExceptions {
+            if (peek() != expected) {
+                throw error("Expected '" + expected + "'");
+            }
+            position++;
+        }
+
+        /**
+         * Skips the whitespace and returns the next character without consuming it.
+         *
+         * @return The next character, or 0 at the end of the text.
+         */
+        private char peek() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+            return position < text.length() ? text.charAt(position) : 0;
+        }
+
+        private InvalidExpressionExceptions error(String message) {
+            return new InvalidExpressionExceptions(message + " at position " + position + " in \"" + text + "\"");
+        }
+    }
+}
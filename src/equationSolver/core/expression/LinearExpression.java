@@ -1,5 +1,8 @@
 package equationSolver.core.expression;
 
+import equationSolver.core.metrics.ParseEvent;
+import equationSolver.core.metrics.SolverEvent;
+
 import java.util.HashMap;
 import java.util.Set;
 import java.util.regex.Pattern;
@@ -9,6 +12,21 @@ public class LinearExpression extends Expression {
         super(expression);
     }
     public HashMap<Character, Double> coefficientsOfLinearExpression(){
+        ParseEvent event = new ParseEvent();
+        event.begin();
+        try {
+            HashMap<Character, Double> coefficients = parseCoefficients();
+            event.coefficients = coefficients.size();
+            event.outcome = SolverEvent.COMPLETED;
+            return coefficients;
+        }
+        finally {
+            event.kind = "linear";
+            event.length = getExpression().length();
+            event.commit();
+        }
+    }
+    private HashMap<Character, Double> parseCoefficients(){
         HashMap<Character, Double> map = new HashMap<>();
         boolean otherSide = false;
         if (getExpression().isEmpty()){
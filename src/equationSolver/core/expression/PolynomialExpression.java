@@ -1,6 +1,8 @@
 package equationSolver.core.expression;
 
 import equationSolver.core.function.Polynomial;
+import equationSolver.core.metrics.ParseEvent;
+import equationSolver.core.metrics.SolverEvent;
 
 import java.util.regex.Pattern;
 
@@ -43,6 +45,26 @@ public class PolynomialExpression extends Expression{
      * @return An array containing the coefficients of the polynomial expression.
      */
     public double[] coefficientsOfPolynomialExpression(){
+        ParseEvent event = new ParseEvent();
+        event.begin();
+        try {
+            double[] coefficients = parseCoefficients();
+            event.coefficients = coefficients.length;
+            event.outcome = SolverEvent.COMPLETED;
+            return coefficients;
+        }
+        finally {
+            event.kind = "polynomial";
+            event.length = getExpression().length();
+            event.commit();
+        }
+    }
+    /**
+     * Parses the coefficients of the polynomial expression, as described in {@link #coefficientsOfPolynomialExpression()}.
+     *
+     * @return An array containing the coefficients of the polynomial expression.
+     */
+    private double[] parseCoefficients(){
         if (getExpression().isEmpty()){
             return new double[0];
         }
@@ -0,0 +1,279 @@
+package equationSolver.core.function;
+
+import java.util.Arrays;
+
+/**
+ * Solves polynomial equations of degree 1 to 4 with closed forms, written to avoid the cancellations of
+ * the textbook formulas.
+ * <p>
+ * The quadratic formula takes the root of larger magnitude from {@code -(b + sign(b) sqrt(D)) / 2} and the
+ * other from the product of the roots, and computes the discriminant with fused multiply-adds so that
+ * nearly equal roots keep their accuracy. The cubic is depressed and solved with the trigonometric form
+ * when it has three real roots, and with Cardano's formula otherwise. The quartic is depressed and
+ * split into two quadratics by Ferrari's method, using the largest root of its resolvent cubic. Every
+ * root is then polished by Newton's method on the original polynomial, with steps kept only while they
+ * decrease the residual; one step is usually all it takes.
+ * <p>
+ * Near a multiple root, a discriminant is the difference of nearly equal terms, and its sign decides
+ * whether a pair of roots is real: rounding can turn a double root into two complex roots or into two
+ * spurious close ones. When a discriminant is within {@link #AMBIGUITY} of its terms, the closed forms
+ * give up and the caller solves the polynomial with the general algorithm, which handles multiple roots
+ * through the square-free part.
+ */
+final class ClosedFormSolver {
+    /**
+     * The highest degree solved in closed form.
+     */
+    static final int MAX_DEGREE = 4;
+    /**
+     * The relative distance under which two roots are taken as one multiple root, as the solvers based
+     * on the square-free part report them.
+     */
+    private static final double MULTIPLE_ROOT_TOLERANCE = Function.PRECISION;
+    /**
+     * The size of a discriminant, relative to its terms, under which its sign is not trusted.
+     */
+    static final double AMBIGUITY = 1e-10;
+    /**
+     * The count returned by the solvers when a discriminant is ambiguous.
+     */
+    private static final int AMBIGUOUS = -1;
+    /**
+     * The largest number of Newton steps polishing a root. One step is enough unless the closed form
+     * lost accuracy to roots of very different magnitudes.
+     */
+    private static final int MAX_POLISHING_STEPS = 4;
+
+    private ClosedFormSolver() {
+    }
+
+    /**
+     * Finds the distinct real roots of a polynomial of degree 1 to {@value #MAX_DEGREE}.
+     *
+     * @param coefficients The coefficients, lowest degree first, the last of which is not zero.
+     * @return The distinct real roots in increasing order, or {@code null} if the polynomial has a
+     * multiple root, or nearly one, that the closed forms cannot resolve.
+     * @throws IllegalArgumentException If the degree is not between 1 and {@value #MAX_DEGREE}.
+     */
+    static double[] solve(double[] coefficients) {
+        double[] roots = new double[MAX_DEGREE];
+        int count;
+        switch (coefficients.length - 1) {
+            case 1:
+                roots[0] = -coefficients[0] / coefficients[1];
+                return roots[0] == roots[0] ? new double[] {roots[0]} : new double[0];
+            case 2:
+                double discriminant = discriminant(coefficients[2], coefficients[1], coefficients[0]);
+                if (isAmbiguous(discriminant, coefficients[1] * coefficients[1] + Math.abs(4 * coefficients[2] * coefficients[0]))) {
+                    return null;
+                }
+                count = quadratic(coefficients[2], coefficients[1], coefficients[0], roots, 0);
+                break;
+            case 3:
+                count = cubic(coefficients[2] / coefficients[3], coefficients[1] / coefficients[3],
+                        coefficients[0] / coefficients[3], roots, true);
+                break;
+            case 4:
+                double a = coefficients[4];
+                count = quartic(coefficients[3] / a, coefficients[2] / a, coefficients[1] / a, coefficients[0] / a, roots);
+                break;
+            default:
+                throw new IllegalArgumentException("Expected a degree between 1 and " + MAX_DEGREE
+                        + " but got " + (coefficients.length - 1));
+        }
+        if (count == AMBIGUOUS) {
+            return null;
+        }
+        for (int i = 0; i < count; i++) {
+            roots[i] = polish(coefficients, roots[i]);
+        }
+        Arrays.sort(roots, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || roots[i] - roots[distinct - 1]
+                    > MULTIPLE_ROOT_TOLERANCE * Math.max(1, Math.abs(roots[i]))) {
+                roots[distinct++] = roots[i];
+            }
+        }
+        return Arrays.copyOf(roots, distinct);
+    }
+
+    /**
+     * Solves {@code ax^2 + bx + c = 0}.
+     *
+     * @param roots  The array receiving the real roots, a double root once.
+     * @param offset The index of the first root in the array.
+     * @return The number of roots written.
+     */
+    static int quadratic(double a, double b, double c, double[] roots, int offset) {
+        if (a == 0) {
+            if (b == 0) {
+                return 0;
+            }
+            roots[offset] = -c / b;
+            return 1;
+        }
+        double discriminant = discriminant(a, b, c);
+        if (discriminant < 0 || Double.isNaN(discriminant)) {
+            return 0;
+        }
+        if (discriminant == 0) {
+            roots[offset] = -b / (2 * a);
+            return 1;
+        }
+        double q = -0.5 * (b + Math.copySign(Math.sqrt(discriminant), b));
+        roots[offset] = q / a;
+        roots[offset + 1] = c / q;
+        return 2;
+    }
+
+    /**
+     * Computes {@code b^2 - 4ac} with the rounding errors of both products recovered by fused
+     * multiply-adds, so that the discriminant is accurate even when the two products nearly cancel.
+     */
+    static double discriminant(double a, double b, double c) {
+        double square = b * b;
+        double product = 4 * a * c;
+        double squareError = Math.fma(b, b, -square);
+        double productError = Math.fma(4 * a, c, -product);
+        return (square - product) + (squareError - productError);
+    }
+
+    /**
+     * Checks whether a discriminant is too small, relative to its terms, for its sign to be trusted.
+     *
+     * @param discriminant The discriminant.
+     * @param scale        The sum of the magnitudes of its terms.
+     * @return {@code true} if the sign of the discriminant may be wrong.
+     */
+    private static boolean isAmbiguous(double discriminant, double scale) {
+        return scale != 0 && Math.abs(discriminant) <= AMBIGUITY * scale;
+    }
+
+    /**
+     * Solves the monic cubic {@code x^3 + ax^2 + bx + c = 0}.
+     *
+     * @param roots  The array receiving the real roots.
+     * @param strict Whether an ambiguous discriminant gives up; otherwise it is taken as 0, which finds
+     *               every root up to the error of a double root.
+     * @return The number of roots written, 1 to 3, or {@link #AMBIGUOUS}.
+     */
+    private static int cubic(double a, double b, double c, double[] roots, boolean strict) {
+        double shift = a / 3;
+        double p = b - a * shift;
+        double q = c - b * shift + 2 * shift * shift * shift;
+        double halfQ = q / 2;
+        double thirdP = p / 3;
+        double discriminant = halfQ * halfQ + thirdP * thirdP * thirdP;
+        if (isAmbiguous(discriminant, halfQ * halfQ + Math.abs(thirdP * thirdP * thirdP))) {
+            if (strict) {
+                return AMBIGUOUS;
+            }
+            discriminant = 0;
+        }
+        if (discriminant < 0) {
+            double r = Math.sqrt(-thirdP);
+            double angle = Math.acos(Math.max(-1, Math.min(1, -halfQ / (r * r * r)))) / 3;
+            roots[0] = 2 * r * Math.cos(angle) - shift;
+            roots[1] = 2 * r * Math.cos(angle - 2 * Math.PI / 3) - shift;
+            roots[2] = 2 * r * Math.cos(angle + 2 * Math.PI / 3) - shift;
+            return 3;
+        }
+        double u = Math.cbrt(-halfQ - Math.copySign(Math.sqrt(discriminant), halfQ));
+        double t = u == 0 ? 0 : u - thirdP / u;
+        roots[0] = t - shift;
+        if (discriminant == 0 && t != 0) {
+            roots[1] = -t / 2 - shift;
+            return 2;
+        }
+        return 1;
+    }
+
+    /**
+     * Solves the monic quartic {@code x^4 + ax^3 + bx^2 + cx + d = 0}.
+     *
+     * @param roots The array receiving the real roots.
+     * @return The number of roots written, 0 to 4, or {@link #AMBIGUOUS}.
+     */
+    private static int quartic(double a, double b, double c, double d, double[] roots) {
+        double shift = a / 4;
+        double shift2 = shift * shift;
+        double p = b - 6 * shift2;
+        double q = c - 2 * b * shift + 8 * shift2 * shift;
+        double r = d - c * shift + b * shift2 - 3 * shift2 * shift2;
+        // y^4 + py^2 + qy + r = (y^2 + p/2 + m)^2 - (sy - q/(2s))^2 with s = sqrt(2m), where m is a
+        // positive root of the resolvent 8m^3 + 8pm^2 + (2p^2 - 8r)m - q^2.
+        double m = Double.NaN;
+        if (q != 0) {
+            int n = cubic(p, p * p / 4 - r, -q * q / 8, roots, false);
+            m = roots[0];
+            for (int i = 1; i < n; i++) {
+                m = Math.max(m, roots[i]);
+            }
+        }
+        if (!(m > 0)) {
+            // Biquadratic: y^4 + py^2 + r, solved as a quadratic in y^2.
+            if (isAmbiguous(p * p - 4 * r, p * p + Math.abs(4 * r))) {
+                return AMBIGUOUS;
+            }
+            int n = quadratic(1, p, r, roots, 2);
+            double larger = roots[2];
+            double smaller = roots[3];
+            int count = 0;
+            for (int i = 0; i < n; i++) {
+                double square = i == 0 ? larger : smaller;
+                if (r != 0 && isAmbiguous(square, Math.abs(p))) {
+                    return AMBIGUOUS;
+                }
+                if (square >= 0) {
+                    double y = Math.sqrt(square);
+                    roots[count++] = y - shift;
+                    roots[count++] = -y - shift;
+                }
+            }
+            return count;
+        }
+        double s = Math.sqrt(2 * m);
+        double base = p / 2 + m;
+        double cross = q / (2 * s);
+        if (isAmbiguous(2 * m - 4 * (base + cross), 2 * m + Math.abs(4 * (base + cross)))
+                || isAmbiguous(2 * m - 4 * (base - cross), 2 * m + Math.abs(4 * (base - cross)))) {
+            return AMBIGUOUS;
+        }
+        int count = quadratic(1, -s, base + cross, roots, 0);
+        count += quadratic(1, s, base - cross, roots, count);
+        for (int i = 0; i < count; i++) {
+            roots[i] -= shift;
+        }
+        return count;
+    }
+
+    /**
+     * Polishes a root with Newton's method on a polynomial, for as long as the steps decrease the
+     * residual, up to {@value #MAX_POLISHING_STEPS} steps.
+     */
+    private static double polish(double[] coefficients, double x) {
+        double value = 0;
+        double derivative = 0;
+        for (int i = coefficients.length - 1; i >= 0; i--) {
+            derivative = derivative * x + value;
+            value = value * x + coefficients[i];
+        }
+        for (int step = 0; step < MAX_POLISHING_STEPS && value != 0 && derivative != 0; step++) {
+            double polished = x - value / derivative;
+            double polishedValue = 0;
+            double polishedDerivative = 0;
+            for (int i = coefficients.length - 1; i >= 0; i--) {
+                polishedDerivative = polishedDerivative * polished + polishedValue;
+                polishedValue = polishedValue * polished + coefficients[i];
+            }
+            if (!(Math.abs(polishedValue) < Math.abs(value))) {
+                break;
+            }
+            x = polished;
+            value = polishedValue;
+            derivative = polishedDerivative;
+        }
+        return x;
+    }
+}
@@ -0,0 +1,276 @@
+package equationSolver.core.function;
+
+import equationSolver.core.solver.SolveBudget;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+
+/**
+ * Isolates the real roots of a square-free polynomial with Descartes' rule of signs and the
+ * bisection algorithm of Vincent, Collins and Akritas.
+ * <p>
+ * The positive roots are searched in {@code (0, 2^e)}, where {@code 2^e} exceeds the {@link RootBounds root bound},
+ * and the negative roots likewise on the reflected polynomial. An interval is mapped to
+ * {@code (0, 1)}, and the number of sign changes in the coefficients of
+ * {@code (x+1)^n q(1/(x+1))} bounds the number of roots in it: with no change the interval is
+ * dropped, with one change it holds exactly one root, and otherwise it is halved. Every coefficient
+ * of a double is a dyadic rational, so all the arithmetic, including the Taylor shifts, is done
+ * exactly on integers and the sign checks are never fooled by rounding.
+ */
+final class DescartesIsolator {
+    /**
+     * The depth, below the size of the search interval, at which an interval is narrower than the
+     * spacing of doubles and is reported as a single point.
+     */
+    private static final int MAX_DEPTH = 1100;
+
+    private DescartesIsolator() {
+    }
+
+    /**
+     * Isolates the real roots of a square-free polynomial.
+     *
+     * @param coefficients The coefficients of the polynomial, lowest degree first.
+     * @param budget       The budget charged for every interval examined. When it is exhausted,
+     *                     the intervals found so far are returned.
+     * @return Disjoint intervals in increasing order, each holding exactly one root; an interval
+     * whose bounds are equal is a root.
+     */
+    static ArrayList<double[]> isolate(double[] coefficients, SolveBudget budget) {
+        ArrayList<double[]> intervals = new ArrayList<>();
+        int length = coefficients.length;
+        while (length > 0 && coefficients[length - 1] == 0) {
+            length--;
+        }
+        if (length < 2) {
+            return intervals;
+        }
+        BigInteger[] integers = toIntegers(coefficients, length);
+        boolean zeroRoot = integers[0].signum() == 0;
+        if (zeroRoot) {
+            integers = divideByX(integers);
+        }
+        int exponent = boundExponent(coefficients);
+        ArrayList<double[]> negative = isolatePositive(reflect(integers), exponent, budget);
+        for (int i = negative.size() - 1; i >= 0; i--) {
+            double[] interval = negative.get(i);
+            intervals.add(new double[] {-interval[1], -interval[0]});
+        }
+        if (zeroRoot) {
+            intervals.add(new double[] {0, 0});
+        }
+        intervals.addAll(isolatePositive(integers, exponent, budget));
+        return intervals;
+    }
+
+    /**
+     * Isolates the positive roots of a polynomial with integer coefficients.
+     *
+     * @param polynomial The coefficients, lowest degree first, with a nonzero constant term.
+     * @param exponent   The exponent of a power of two larger than every root.
+     * @param budget     The budget of the solve.
+     * @return The isolating intervals, in increasing order.
+     */
+    private static ArrayList<double[]> isolatePositive(BigInteger[] polynomial, int exponent, SolveBudget budget) {
+        ArrayList<double[]> intervals = new ArrayList<>();
+        ArrayDeque<Node> pending = new ArrayDeque<>();
+        pending.push(new Node(scaleVariable(polynomial, exponent), BigInteger.ZERO, 0));
+        while (!pending.isEmpty() && budget.tryStep()) {
+            Node node = pending.pop();
+            int variations = signVariations(taylorShift(reverse(node.polynomial)));
+            if (variations == 0) {
+                continue;
+            }
+            if (variations == 1) {
+                intervals.add(new double[] {toDouble(node.numerator, node.depth, exponent),
+                        toDouble(node.numerator.add(BigInteger.ONE), node.depth, exponent)});
+                continue;
+            }
+            BigInteger leftNumerator = node.numerator.shiftLeft(1);
+            BigInteger middle = leftNumerator.add(BigInteger.ONE);
+            if (node.depth == MAX_DEPTH) {
+                double root = toDouble(middle, node.depth + 1, exponent);
+                intervals.add(new double[] {root, root});
+                continue;
+            }
+            BigInteger[] left = halveVariable(node.polynomial);
+            BigInteger[] right = taylorShift(left);
+            if (right[0].signum() == 0) {
+                double root = toDouble(middle, node.depth + 1, exponent);
+                intervals.add(new double[] {root, root});
+                right = divideByX(right);
+            }
+            pending.push(new Node(right, middle, node.depth + 1));
+            pending.push(new Node(left, leftNumerator, node.depth + 1));
+        }
+        intervals.sort(Comparator.comparingDouble(interval -> interval[0]));
+        return intervals;
+    }
+
+    /**
+     * Converts double coefficients to integers by multiplying them all by the same power of ten,
+     * which is exact since every double is a finite decimal.
+     *
+     * @param coefficients The coefficients.
+     * @param length       The number of coefficients to convert.
+     * @return The integer coefficients.
+     */
+    private static BigInteger[] toIntegers(double[] coefficients, int length) {
+        int scale = 0;
+        BigDecimal[] decimals = new BigDecimal[length];
+        for (int i = 0; i < length; i++) {
+            decimals[i] = new BigDecimal(coefficients[i]);
+            scale = Math.max(scale, decimals[i].scale());
+        }
+        BigInteger[] integers = new BigInteger[length];
+        for (int i = 0; i < length; i++) {
+            integers[i] = decimals[i].setScale(scale).unscaledValue();
+        }
+        return removePowerOfTwo(integers);
+    }
+
+    /**
+     * Computes the exponent of a positive power of two larger than the tightest root bound.
+     *
+     * @param coefficients The coefficients.
+     * @return The exponent.
+     */
+    private static int boundExponent(double[] coefficients) {
+        double bound = RootBounds.of(coefficients);
+        return Double.isFinite(bound) ? Math.max(1, Math.getExponent(bound) + 1) : Double.MAX_EXPONENT + 1;
+    }
+
+    /**
+     * Computes {@code q(x) = p(2^e x)}, whose roots in {@code (0, 1)} are those of {@code p} in {@code (0, 2^e)},
+     * for a positive {@code e}.
+     */
+    private static BigInteger[] scaleVariable(BigInteger[] polynomial, int exponent) {
+        BigInteger[] result = new BigInteger[polynomial.length];
+        int n = polynomial.length - 1;
+        for (int i = 0; i <= n; i++) {
+            result[i] = polynomial[i].shiftLeft(exponent * i);
+        }
+        return removePowerOfTwo(result);
+    }
+
+    /**
+     * Computes {@code 2^n q(x/2)}, whose roots in {@code (0, 1)} are those of {@code q} in {@code (0, 1/2)}.
+     */
+    private static BigInteger[] halveVariable(BigInteger[] polynomial) {
+        int n = polynomial.length - 1;
+        BigInteger[] result = new BigInteger[polynomial.length];
+        for (int i = 0; i <= n; i++) {
+            result[i] = polynomial[i].shiftLeft(n - i);
+        }
+        return removePowerOfTwo(result);
+    }
+
+    /**
+     * Computes {@code q(x+1)} with the classical Taylor shift, which uses only additions.
+     */
+    private static BigInteger[] taylorShift(BigInteger[] polynomial) {
+        BigInteger[] result = polynomial.clone();
+        int n = result.length - 1;
+        for (int i = 0; i < n; i++) {
+            for (int j = n - 1; j >= i; j--) {
+                result[j] = result[j].add(result[j + 1]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes {@code x^n q(1/x)}.
+     */
+    private static BigInteger[] reverse(BigInteger[] polynomial) {
+        BigInteger[] result = new BigInteger[polynomial.length];
+        for (int i = 0; i < polynomial.length; i++) {
+            result[i] = polynomial[polynomial.length - 1 - i];
+        }
+        return result;
+    }
+
+    /**
+     * Computes {@code q(-x)}.
+     */
+    private static BigInteger[] reflect(BigInteger[] polynomial) {
+        BigInteger[] result = new BigInteger[polynomial.length];
+        for (int i = 0; i < polynomial.length; i++) {
+            result[i] = i % 2 == 0 ? polynomial[i] : polynomial[i].negate();
+        }
+        return result;
+    }
+
+    /**
+     * Computes {@code q(x) / x} for a polynomial whose constant term is zero.
+     */
+    private static BigInteger[] divideByX(BigInteger[] polynomial) {
+        BigInteger[] result = new BigInteger[polynomial.length - 1];
+        System.arraycopy(polynomial, 1, result, 0, result.length);
+        return result;
+    }
+
+    /**
+     * Divides every coefficient by the largest power of two dividing all of them, to keep them small.
+     */
+    private static BigInteger[] removePowerOfTwo(BigInteger[] polynomial) {
+        int shift = Integer.MAX_VALUE;
+        for (BigInteger coefficient : polynomial) {
+            if (coefficient.signum() != 0) {
+                shift = Math.min(shift, coefficient.getLowestSetBit());
+            }
+        }
+        if (shift == 0 || shift == Integer.MAX_VALUE) {
+            return polynomial;
+        }
+        for (int i = 0; i < polynomial.length; i++) {
+            polynomial[i] = polynomial[i].shiftRight(shift);
+        }
+        return polynomial;
+    }
+
+    /**
+     * Counts the sign changes in a sequence of coefficients, ignoring zeroes.
+     */
+    private static int signVariations(BigInteger[] polynomial) {
+        int variations = 0;
+        int previous = 0;
+        for (BigInteger coefficient : polynomial) {
+            int sign = coefficient.signum();
+            if (sign != 0) {
+                if (previous != 0 && sign != previous) {
+                    variations++;
+                }
+                previous = sign;
+            }
+        }
+        return variations;
+    }
+
+    /**
+     * Converts the point {@code numerator / 2^depth} of the search interval {@code (0, 1)} back to the variable of the polynomial.
+     */
+    private static double toDouble(BigInteger numerator, int depth, int exponent) {
+        int shift = Math.max(0, numerator.bitLength() - 62);
+        return Math.scalb((double) numerator.shiftRight(shift).longValue(), exponent - depth + shift);
+    }
+
+    /**
+     * An interval {@code (numerator / 2^depth, (numerator + 1) / 2^depth)} of the search interval,
+     * with the polynomial whose roots in {@code (0, 1)} are the roots in that interval.
+     */
+    private static class Node {
+        private final BigInteger[] polynomial;
+        private final BigInteger numerator;
+        private final int depth;
+
+        Node(BigInteger[] polynomial, BigInteger numerator, int depth) {
+            this.polynomial = polynomial;
+            this.numerator = numerator;
+            this.depth = depth;
+        }
+    }
+}
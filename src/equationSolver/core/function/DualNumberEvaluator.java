@@ -0,0 +1,246 @@
+package equationSolver.core.function;
+
+import equationSolver.core.expression.ExpressionNode;
+import equationSolver.core.kernel.ScratchArena;
+
+import java.util.Arrays;
+
+/**
+ * Evaluates an expression tree and its first two derivatives together, in forward mode.
+ * <p>
+ * Every intermediate value is carried as a truncated Taylor expansion {@code (u, u', u'')}, a
+ * second-order dual number, and every operation propagates the three parts with the product, quotient
+ * and chain rules. The tree is flattened once into a postfix program, which is run on a stack taken from
+ * the {@link ScratchArena}, so an evaluation builds no derivative tree and allocates nothing.
+ */
+final class DualNumberEvaluator {
+    private static final int CONSTANT = 0;
+    private static final int VARIABLE = 1;
+    private static final int ADD = 2;
+    private static final int SUBTRACT = 3;
+    private static final int MULTIPLY = 4;
+    private static final int DIVIDE = 5;
+    private static final int POWER = 6;
+    /**
+     * A power with a constant exponent, which is defined for negative bases.
+     */
+    private static final int CONSTANT_POWER = 7;
+    /**
+     * The first code of the functions, followed by the {@link ExpressionNode.UnaryOperator} ordinals.
+     */
+    private static final int UNARY = 8;
+    private static final ExpressionNode.UnaryOperator[] FUNCTIONS = ExpressionNode.UnaryOperator.values();
+
+    private int[] codes = new int[16];
+    private double[] constants = new double[16];
+    private int length;
+    private int depth;
+    private int maxDepth;
+
+    /**
+     * Flattens an expression tree.
+     *
+     * @param root The root of the tree.
+     */
+    DualNumberEvaluator(ExpressionNode root) {
+        emit(root);
+        codes = Arrays.copyOf(codes, length);
+        constants = Arrays.copyOf(constants, length);
+    }
+
+    /**
+     * Evaluates the expression and its derivatives at a point.
+     *
+     * @param x   The value of the variable.
+     * @param jet The array receiving the value, the first and the second derivative, as many of them as
+     *            it has room for.
+     */
+    void evaluate(double x, double[] jet) {
+        ScratchArena arena = ScratchArena.get();
+        int mark = arena.mark();
+        try {
+            double[] v = arena.allocate(maxDepth);
+            double[] d = arena.allocate(maxDepth);
+            double[] s = arena.allocate(maxDepth);
+            int top = -1;
+            for (int pc = 0; pc < length; pc++) {
+                int code = codes[pc];
+                if (code == CONSTANT) {
+                    top++;
+                    v[top] = constants[pc];
+                    d[top] = 0;
+                    s[top] = 0;
+                    continue;
+                }
+                if (code == VARIABLE) {
+                    top++;
+                    v[top] = x;
+                    d[top] = 1;
+                    s[top] = 0;
+                    continue;
+                }
+                if (code >= UNARY) {
+                    unary(FUNCTIONS[code - UNARY], v, d, s, top);
+                    continue;
+                }
+                if (code == CONSTANT_POWER) {
+                    double u = v[top];
+                    double n = constants[pc];
+                    double g1 = n * Math.pow(u, n - 1);
+                    double g2 = n == 1 ? 0 : n * (n - 1) * Math.pow(u, n - 2);
+                    chain(Math.pow(u, n), g1, g2, v, d, s, top);
+                    continue;
+                }
+                top--;
+                double a = v[top], a1 = d[top], a2 = s[top];
+                double b = v[top + 1], b1 = d[top + 1], b2 = s[top + 1];
+                switch (code) {
+                    case ADD:
+                        v[top] = a + b;
+                        d[top] = a1 + b1;
+                        s[top] = a2 + b2;
+                        break;
+                    case SUBTRACT:
+                        v[top] = a - b;
+                        d[top] = a1 - b1;
+                        s[top] = a2 - b2;
+                        break;
+                    case MULTIPLY:
+                        v[top] = a * b;
+                        d[top] = a1 * b + a * b1;
+                        s[top] = a2 * b + 2 * a1 * b1 + a * b2;
+                        break;
+                    case DIVIDE: {
+                        double q = a / b;
+                        double q1 = (a1 - q * b1) / b;
+                        v[top] = q;
+                        d[top] = q1;
+                        s[top] = (a2 - 2 * q1 * b1 - q * b2) / b;
+                        break;
+                    }
+                    default: {
+                        // u^w = exp(w log u), defined for positive bases only.
+                        double l = Math.log(a), l1 = a1 / a, l2 = (a2 - a1 * l1) / a;
+                        double e1 = b1 * l + b * l1;
+                        double e2 = b2 * l + 2 * b1 * l1 + b * l2;
+                        double p = Math.pow(a, b);
+                        v[top] = p;
+                        d[top] = p * e1;
+                        s[top] = p * (e2 + e1 * e1);
+                        break;
+                    }
+                }
+            }
+            jet[0] = v[0];
+            if (jet.length > 1) {
+                jet[1] = d[0];
+            }
+            if (jet.length > 2) {
+                jet[2] = s[0];
+            }
+        } finally {
+            arena.release(mark);
+        }
+    }
+
+    /**
+     * Applies a function to the dual number on top of the stack.
+     */
+    private static void unary(ExpressionNode.UnaryOperator operator, double[] v, double[] d, double[] s, int top) {
+        double u = v[top];
+        switch (operator) {
+            case NEGATE:
+                v[top] = -u;
+                d[top] = -d[top];
+                s[top] = -s[top];
+                break;
+            case SIN: {
+                double sin = Math.sin(u);
+                chain(sin, Math.cos(u), -sin, v, d, s, top);
+                break;
+            }
+            case COS: {
+                double cos = Math.cos(u);
+                chain(cos, -Math.sin(u), -cos, v, d, s, top);
+                break;
+            }
+            case TAN: {
+                double tan = Math.tan(u);
+                double secant2 = 1 + tan * tan;
+                chain(tan, secant2, 2 * tan * secant2, v, d, s, top);
+                break;
+            }
+            case EXP: {
+                double exp = Math.exp(u);
+                chain(exp, exp, exp, v, d, s, top);
+                break;
+            }
+            case LOG:
+                chain(Math.log(u), 1 / u, -1 / (u * u), v, d, s, top);
+                break;
+            case SQRT: {
+                double sqrt = Math.sqrt(u);
+                double g1 = 0.5 / sqrt;
+                chain(sqrt, g1, -g1 / (2 * u), v, d, s, top);
+                break;
+            }
+            default:
+                chain(Math.abs(u), Math.signum(u), 0, v, d, s, top);
+                break;
+        }
+    }
+
+    /**
+     * Composes a function with the dual number on top of the stack, given the value and the first two
+     * derivatives of the function at its value.
+     */
+    private static void chain(double g, double g1, double g2, double[] v, double[] d, double[] s, int top) {
+        double u1 = d[top];
+        v[top] = g;
+        d[top] = g1 * u1;
+        s[top] = g2 * u1 * u1 + g1 * s[top];
+    }
+
+    private void emit(ExpressionNode node) {
+        if (node instanceof ExpressionNode.Constant) {
+            append(CONSTANT, ((ExpressionNode.Constant) node).getValue());
+            push();
+        }
+        else if (node instanceof ExpressionNode.Variable) {
+            append(VARIABLE, 0);
+            push();
+        }
+        else if (node instanceof ExpressionNode.Unary) {
+            ExpressionNode.Unary unary = (ExpressionNode.Unary) node;
+            emit(unary.getOperand());
+            append(UNARY + unary.getOperator().ordinal(), 0);
+        }
+        else {
+            ExpressionNode.Binary binary = (ExpressionNode.Binary) node;
+            emit(binary.getLeft());
+            if (binary.getOperator() == ExpressionNode.BinaryOperator.POWER
+                    && binary.getRight() instanceof ExpressionNode.Constant) {
+                append(CONSTANT_POWER, ((ExpressionNode.Constant) binary.getRight()).getValue());
+                return;
+            }
+            emit(binary.getRight());
+            append(ADD + binary.getOperator().ordinal(), 0);
+            depth--;
+        }
+    }
+
+    private void append(int code, double constant) {
+        if (length == codes.length) {
+            codes = Arrays.copyOf(codes, 2 * length);
+            constants = Arrays.copyOf(constants, 2 * length);
+        }
+        codes[length] = code;
+        constants[length] = constant;
+        length++;
+    }
+
+    private void push() {
+        depth++;
+        maxDepth = Math.max(maxDepth, depth);
+    }
+}
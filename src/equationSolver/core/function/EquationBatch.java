@@ -0,0 +1,119 @@
+package equationSolver.core.function;
+
+import equationSolver.core.kernel.ArrayKernel;
+
+import java.util.stream.IntStream;
+
+/**
+ * Solves large batches of quadratic and linear equations given as parallel arrays of coefficients.
+ * <p>
+ * Unlike {@link Quadratic} and {@link Linear}, which parse an expression and allocate a polynomial per
+ * equation, the batch methods read the coefficients from one array per degree and write the roots into
+ * preallocated arrays, so solving millions of equations allocates nothing and streams through memory.
+ * The quadratics are solved by {@link ArrayKernel#solveQuadratics}, several equations per instruction
+ * with the vector kernel. The parallel variants split the arrays into chunks solved on the common
+ * fork/join pool.
+ */
+public final class EquationBatch {
+    /**
+     * The number of equations solved by one task of the parallel variants, large enough that the
+     * scheduling overhead is negligible and small enough to balance the load across cores.
+     */
+    public static final int CHUNK_SIZE = 1 << 14;
+
+    private EquationBatch() {
+    }
+
+    /**
+     * Solves the quadratic equations {@code a[i]x^2 + b[i]x + c[i] = 0}, as described in
+     * {@link ArrayKernel#solveQuadratics}.
+     *
+     * @param a       The coefficients of {@code x^2}.
+     * @param b       The coefficients of {@code x}.
+     * @param c       The constant terms.
+     * @param smaller The array receiving the smaller root of each equation, NaN if there is none.
+     * @param larger  The array receiving the larger root of each equation, NaN if there is none.
+     * @param counts  The array receiving the number of distinct real roots of each equation.
+     * @throws IllegalArgumentException If the arrays do not have the same length.
+     */
+    public static void solveQuadratics(double[] a, double[] b, double[] c, double[] smaller, double[] larger, int[] counts) {
+        checkLengths(a.length, b.length, c.length, smaller.length, larger.length, counts.length);
+        ArrayKernel.getInstance().solveQuadratics(a, b, c, 0, a.length, smaller, larger, counts);
+    }
+
+    /**
+     * Solves the quadratic equations as {@link #solveQuadratics} does, in chunks of {@value #CHUNK_SIZE}
+     * equations solved in parallel.
+     *
+     * @param a       The coefficients of {@code x^2}.
+     * @param b       The coefficients of {@code x}.
+     * @param c       The constant terms.
+     * @param smaller The array receiving the smaller root of each equation, NaN if there is none.
+     * @param larger  The array receiving the larger root of each equation, NaN if there is none.
+     * @param counts  The array receiving the number of distinct real roots of each equation.
+     * @throws IllegalArgumentException If the arrays do not have the same length.
+     */
+    public static void solveQuadraticsInParallel(double[] a, double[] b, double[] c, double[] smaller, double[] larger,
+                                                 int[] counts) {
+        checkLengths(a.length, b.length, c.length, smaller.length, larger.length, counts.length);
+        ArrayKernel kernel = ArrayKernel.getInstance();
+        int length = a.length;
+        chunks(length).forEach(chunk -> {
+            int from = chunk * CHUNK_SIZE;
+            kernel.solveQuadratics(a, b, c, from, Math.min(length, from + CHUNK_SIZE), smaller, larger, counts);
+        });
+    }
+
+    /**
+     * Solves the linear equations {@code a[i]x + b[i] = 0}.
+     *
+     * @param a     The coefficients of {@code x}.
+     * @param b     The constant terms.
+     * @param roots The array receiving the root of each equation, NaN if {@code a[i]} and {@code b[i]}
+     *              are both 0 and infinite if only {@code a[i]} is.
+     * @throws IllegalArgumentException If the arrays do not have the same length.
+     */
+    public static void solveLinears(double[] a, double[] b, double[] roots) {
+        checkLengths(a.length, b.length, roots.length);
+        solveLinears(a, b, 0, a.length, roots);
+    }
+
+    /**
+     * Solves the linear equations as {@link #solveLinears} does, in chunks of {@value #CHUNK_SIZE}
+     * equations solved in parallel.
+     *
+     * @param a     The coefficients of {@code x}.
+     * @param b     The constant terms.
+     * @param roots The array receiving the root of each equation.
+     * @throws IllegalArgumentException If the arrays do not have the same length.
+     */
+    public static void solveLinearsInParallel(double[] a, double[] b, double[] roots) {
+        checkLengths(a.length, b.length, roots.length);
+        int length = a.length;
+        chunks(length).forEach(chunk -> {
+            int from = chunk * CHUNK_SIZE;
+            solveLinears(a, b, from, Math.min(length, from + CHUNK_SIZE), roots);
+        });
+    }
+
+    /**
+     * Solves a range of linear equations with a plain loop, which the JIT compiler vectorizes.
+     */
+    private static void solveLinears(double[] a, double[] b, int from, int to, double[] roots) {
+        for (int i = from; i < to; i++) {
+            roots[i] = -b[i] / a[i];
+        }
+    }
+
+    private static IntStream chunks(int length) {
+        return IntStream.range(0, (length + CHUNK_SIZE - 1) / CHUNK_SIZE).parallel();
+    }
+
+    private static void checkLengths(int... lengths) {
+        for (int length : lengths) {
+            if (length != lengths[0]) {
+                throw new IllegalArgumentException("Expected arrays of length " + lengths[0] + " but got " + length);
+            }
+        }
+    }
+}
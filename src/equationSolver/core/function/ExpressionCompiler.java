@@ -0,0 +1,253 @@
+package equationSolver.core.function;
+
+import equationSolver.core.expression.ExpressionNode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Compiles an expression tree into the bytecode of a hidden class implementing {@link DoubleUnaryOperator}.
+ * <p>
+ * The method body is the postfix walk of the tree: {@code x} and the constants are pushed, the
+ * operators become {@code dadd}, {@code dsub}, {@code dmul}, {@code ddiv} and {@code dneg}, and the
+ * functions and the power call the static methods of {@link Math}. The body has no branch, so the class
+ * needs no stack map frames, and once the JIT compiler has compiled it, an evaluation costs what the
+ * same formula written in Java costs. The hidden class is unloaded with the last reference to the
+ * operator.
+ * <p>
+ * If the class cannot be defined, for example because the tree is too large for one method, the
+ * operator walks the tree instead.
+ */
+final class ExpressionCompiler {
+    private static final String CLASS_NAME = "equationSolver/core/function/CompiledExpression";
+    /**
+     * The largest method body the class file format allows.
+     */
+    private static final int MAX_CODE_LENGTH = 65535;
+
+    private ExpressionCompiler() {
+    }
+
+    /**
+     * Compiles an expression.
+     *
+     * @param root The root of the tree.
+     * @return An operator computing the value of the expression at {@code x}.
+     */
+    static DoubleUnaryOperator compile(ExpressionNode root) {
+        try {
+            byte[] bytes = new ClassWriter().write(root);
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(bytes, true);
+            return (DoubleUnaryOperator) lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class))
+                    .invoke();
+        } catch (Throwable e) {
+            if (e instanceof Error && !(e instanceof LinkageError)) {
+                throw (Error) e;
+            }
+            return root::evaluate;
+        }
+    }
+
+    /**
+     * Writes the class file of the hidden class.
+     */
+    private static class ClassWriter {
+        private static final int ACC_PUBLIC = 0x0001;
+        private static final int ACC_FINAL = 0x0010;
+        private static final int ACC_SUPER = 0x0020;
+        private static final int DLOAD_1 = 0x27;
+        private static final int LDC2_W = 0x14;
+        private static final int DADD = 0x63;
+        private static final int DSUB = 0x67;
+        private static final int DMUL = 0x6b;
+        private static final int DDIV = 0x6f;
+        private static final int DNEG = 0x77;
+        private static final int DRETURN = 0xaf;
+        private static final int RETURN = 0xb1;
+        private static final int ALOAD_0 = 0x2a;
+        private static final int INVOKESPECIAL = 0xb7;
+        private static final int INVOKESTATIC = 0xb8;
+
+        private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+        private final DataOutputStream poolOut = new DataOutputStream(pool);
+        private final Map<Object, Integer> entries = new HashMap<>();
+        private int poolCount = 1;
+        private final ByteArrayOutputStream code = new ByteArrayOutputStream();
+        private int depth;
+        private int maxDepth;
+
+        byte[] write(ExpressionNode root) throws IOException {
+            int thisClass = classEntry(CLASS_NAME);
+            int superClass = classEntry("java/lang/Object");
+            int operatorInterface = classEntry("java/util/function/DoubleUnaryOperator");
+            int objectConstructor = methodEntry(superClass, "<init>", "()V");
+            int constructorName = utf8("<init>");
+            int constructorType = utf8("()V");
+            int applyName = utf8("applyAsDouble");
+            int applyType = utf8("(D)D");
+            int codeName = utf8("Code");
+            emit(root);
+            code.write(DRETURN);
+            if (code.size() > MAX_CODE_LENGTH || poolCount > 0xffff) {
+                throw new IOException("Expression too large to compile");
+            }
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(61);
+            out.writeShort(poolCount);
+            pool.writeTo(out);
+            out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(1);
+            out.writeShort(operatorInterface);
+            out.writeShort(0);
+            out.writeShort(2);
+            writeMethod(out, constructorName, constructorType, codeName, 1, 1,
+                    new byte[] {(byte) ALOAD_0, (byte) INVOKESPECIAL, (byte) (objectConstructor >> 8), (byte) objectConstructor,
+                            (byte) RETURN});
+            writeMethod(out, applyName, applyType, codeName, maxDepth, 3, code.toByteArray());
+            out.writeShort(0);
+            return bytes.toByteArray();
+        }
+
+        private void writeMethod(DataOutputStream out, int name, int type, int codeName, int maxStack, int maxLocals,
+                                 byte[] body) throws IOException {
+            out.writeShort(ACC_PUBLIC);
+            out.writeShort(name);
+            out.writeShort(type);
+            out.writeShort(1);
+            out.writeShort(codeName);
+            out.writeInt(12 + body.length);
+            out.writeShort(maxStack);
+            out.writeShort(maxLocals);
+            out.writeInt(body.length);
+            out.write(body);
+            out.writeShort(0);
+            out.writeShort(0);
+        }
+
+        /**
+         * Emits the postfix walk of a subtree, which leaves its value on the operand stack.
+         */
+        private void emit(ExpressionNode node) throws IOException {
+            if (node instanceof ExpressionNode.Constant) {
+                int index = doubleEntry(((ExpressionNode.Constant) node).getValue());
+                code.write(LDC2_W);
+                code.write(index >> 8);
+                code.write(index);
+                push();
+            }
+            else if (node instanceof ExpressionNode.Variable) {
+                code.write(DLOAD_1);
+                push();
+            }
+            else if (node instanceof ExpressionNode.Unary) {
+                ExpressionNode.Unary unary = (ExpressionNode.Unary) node;
+                emit(unary.getOperand());
+                if (unary.getOperator() == ExpressionNode.UnaryOperator.NEGATE) {
+                    code.write(DNEG);
+                }
+                else {
+                    invokeMath(unary.getOperator().getSymbol(), "(D)D");
+                }
+            }
+            else {
+                ExpressionNode.Binary binary = (ExpressionNode.Binary) node;
+                emit(binary.getLeft());
+                emit(binary.getRight());
+                switch (binary.getOperator()) {
+                    case ADD: code.write(DADD); break;
+                    case SUBTRACT: code.write(DSUB); break;
+                    case MULTIPLY: code.write(DMUL); break;
+                    case DIVIDE: code.write(DDIV); break;
+                    default: invokeMath("pow", "(DD)D"); break;
+                }
+                depth -= 2;
+            }
+        }
+
+        private void invokeMath(String name, String descriptor) throws IOException {
+            int index = methodEntry(classEntry("java/lang/Math"), name, descriptor);
+            code.write(INVOKESTATIC);
+            code.write(index >> 8);
+            code.write(index);
+        }
+
+        /**
+         * Accounts for a double pushed on the operand stack, which takes two slots.
+         */
+        private void push() {
+            depth += 2;
+            maxDepth = Math.max(maxDepth, depth);
+        }
+
+        private int utf8(String value) throws IOException {
+            Integer index = entries.get(value);
+            if (index == null) {
+                poolOut.writeByte(1);
+                poolOut.writeUTF(value);
+                index = poolCount++;
+                entries.put(value, index);
+            }
+            return index;
+        }
+
+        private int classEntry(String name) throws IOException {
+            String key = "class " + name;
+            Integer index = entries.get(key);
+            if (index == null) {
+                int nameIndex = utf8(name);
+                poolOut.writeByte(7);
+                poolOut.writeShort(nameIndex);
+                index = poolCount++;
+                entries.put(key, index);
+            }
+            return index;
+        }
+
+        private int methodEntry(int owner, String name, String descriptor) throws IOException {
+            String key = "method " + owner + " " + name + descriptor;
+            Integer index = entries.get(key);
+            if (index == null) {
+                int nameIndex = utf8(name);
+                int descriptorIndex = utf8(descriptor);
+                poolOut.writeByte(12);
+                poolOut.writeShort(nameIndex);
+                poolOut.writeShort(descriptorIndex);
+                int nameAndType = poolCount++;
+                poolOut.writeByte(10);
+                poolOut.writeShort(owner);
+                poolOut.writeShort(nameAndType);
+                index = poolCount++;
+                entries.put(key, index);
+            }
+            return index;
+        }
+
+        /**
+         * Adds a double to the constant pool, where it takes two entries.
+         */
+        private int doubleEntry(double value) throws IOException {
+            Long key = Double.doubleToRawLongBits(value);
+            Integer index = entries.get(key);
+            if (index == null) {
+                poolOut.writeByte(6);
+                poolOut.writeDouble(value);
+                index = poolCount;
+                poolCount += 2;
+                entries.put(key, index);
+            }
+            return index;
+        }
+    }
+}
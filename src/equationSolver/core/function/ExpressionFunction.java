@@ -0,0 +1,173 @@
+package equationSolver.core.function;
+
+import equationSolver.core.exceptions.InvalidExpressionExceptions;
+import equationSolver.core.expression.ExpressionNode;
+import equationSolver.core.expression.FunctionExpression;
+import equationSolver.core.solver.SolveBudget;
+import equationSolver.core.solver.SolveOptions;
+import equationSolver.core.solver.SolveResult;
+
+import java.util.ArrayList;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Represents a function given by a general expression, such as {@code sin(x)*exp(-x/2)}.
+ * <p>
+ * The expression is parsed once into a tree, which is compiled into bytecode by {@link ExpressionCompiler},
+ * so that {@link #valueAt(double)} does not walk the tree on every step of a solver.
+ */
+public class ExpressionFunction extends Function {
+    /**
+     * The half-width of the interval around 0 searched by {@link #solve()}.
+     */
+    public static final double DEFAULT_RANGE = 100;
+    /**
+     * The number of subintervals sampled for sign changes when solving.
+     */
+    public static final int SCAN_INTERVALS = 1000;
+    private final ExpressionNode tree;
+    private final DoubleUnaryOperator compiled;
+    private final DualNumberEvaluator dual;
+    private ExpressionFunction derivative;
+
+    /**
+     * Constructs a function from a general expression.
+     *
+     * @param expression The expression.
+     * @throws InvalidExpressionExceptions If the expression is malformed.
+     */
+    public ExpressionFunction(FunctionExpression expression) throws InvalidExpressionExceptions {
+        super(expression);
+        tree = expression.parse();
+        compiled = ExpressionCompiler.compile(tree);
+        dual = new DualNumberEvaluator(tree);
+    }
+
+    /**
+     * Constructs a function from an expression tree.
+     *
+     * @param tree The root of the tree.
+     */
+    protected ExpressionFunction(ExpressionNode tree) {
+        super(new FunctionExpression(tree.toString()));
+        this.tree = tree;
+        compiled = ExpressionCompiler.compile(tree);
+        dual = new DualNumberEvaluator(tree);
+    }
+
+    /**
+     * Gets the tree of the expression.
+     *
+     * @return The root of the tree.
+     */
+    public ExpressionNode getTree() {
+        return tree;
+    }
+
+    /**
+     * Computes the value of the function at a given point with the compiled expression.
+     *
+     * @param x The value at which to evaluate the function.
+     * @return The value of the function at the given point.
+     */
+    public double valueAt(double x) {
+        return compiled.applyAsDouble(x);
+    }
+
+    /**
+     * Computes the value of the function and of its first two derivatives at a given point, with
+     * second-order dual numbers propagated through the expression, without building the derivative.
+     *
+     * @param x   The value at which to evaluate the function.
+     * @param jet The array receiving f(x), f'(x) and f''(x), as many of them as it has room for.
+     */
+    public void valueAndDerivativesAt(double x, double[] jet) {
+        dual.evaluate(x, jet);
+    }
+
+    /**
+     * Computes the derivative of the function symbolically.
+     *
+     * @return The derivative of the function.
+     */
+    protected ExpressionFunction derivative() {
+        return new ExpressionFunction(tree.derivative());
+    }
+
+    /**
+     * Gets the derivative of the function, computing and compiling it once.
+     *
+     * @return The derivative of the function.
+     */
+    public ExpressionFunction getDerivative() {
+        if (derivative == null) {
+            derivative = derivative();
+        }
+        return derivative;
+    }
+
+    /**
+     * Checks whether the function may have roots, which a general function always may.
+     *
+     * @return {@code true}.
+     */
+    public boolean isSolvable() {
+        return true;
+    }
+
+    /**
+     * Finds the roots of the function in {@code [-DEFAULT_RANGE, DEFAULT_RANGE]}, as {@link #solveOn} does.
+     *
+     * @return The roots found, in increasing order.
+     */
+    protected double[] solve() {
+        return solveOn(-DEFAULT_RANGE, DEFAULT_RANGE, SolveOptions.DEFAULT).getValues();
+    }
+
+    /**
+     * Finds the roots of the function in an interval.
+     *
+     * <p>The interval is split into {@value #SCAN_INTERVALS} subintervals, and every subinterval where the
+     * function changes sign is refined by {@link #halleyMethod Halley's method}, safeguarded by bisection.
+     * A sign change across a pole, where the function grows instead of vanishing, is discarded. Roots where
+     * the function touches 0 without changing sign, and pairs of roots closer than a subinterval, are
+     * missed.
+     *
+     * @param lower   The lower bound of the interval.
+     * @param upper   The upper bound of the interval.
+     * @param options The tolerance, iteration cap, deadline and cancellation token of the solve.
+     * @return The roots found in increasing order, with the convergence status and the iterations used.
+     * @throws java.util.concurrent.CancellationException If the token is cancelled before the solve completes.
+     */
+    public SolveResult<double[]> solveOn(double lower, double upper, SolveOptions options) {
+        SolveBudget budget = options.newBudget();
+        ArrayList<Double> roots = new ArrayList<>();
+        double step = (upper - lower) / SCAN_INTERVALS;
+        double a = lower;
+        double valueAtA = valueAt(a);
+        for (int i = 1; i <= SCAN_INTERVALS && budget.tryStep(); i++) {
+            double b = i == SCAN_INTERVALS ? upper : lower + i * step;
+            double valueAtB = valueAt(b);
+            if (valueAtA == 0) {
+                roots.add(a);
+            }
+            else if (valueAtA * valueAtB < 0) {
+                double root = halleyMethod(a, b, budget);
+                if (Math.abs(valueAt(root)) <= Math.min(Math.abs(valueAtA), Math.abs(valueAtB))) {
+                    roots.add(root);
+                }
+            }
+            a = b;
+            valueAtA = valueAtB;
+            budget.reportProgress((double) i / SCAN_INTERVALS);
+        }
+        if (valueAtA == 0 && a == upper) {
+            roots.add(a);
+        }
+        double[] solutions = new double[roots.size()];
+        for (int i = 0; i < solutions.length; i++) {
+            solutions[i] = roots.get(i);
+        }
+        return budget.finish(solutions);
+    }
+}
@@ -1,14 +1,28 @@
 package equationSolver.core.function;
 
 import equationSolver.core.expression.Expression;
+import equationSolver.core.kernel.ScratchArena;
+import equationSolver.core.solver.SolveBudget;
 
 public abstract class Function {
+    /**
+     * The default tolerance of the solvers, see {@link equationSolver.core.solver.SolveOptions}.
+     */
     public static final double PRECISION = 0.0000001;
+    /**
+     * The default iteration cap of a solve, see {@link equationSolver.core.solver.SolveOptions}.
+     */
     public static final int MAX_ITERATIONS = 1000000;
     private Expression expression;
     public Function(Expression expression){
         setExpression(expression);
     }
+    /**
+     * Constructs a function whose expression is set later by the subclass,
+     * typically on the first call to {@link #getExpression()}.
+     */
+    protected Function(){
+    }
     protected void setExpression(Expression expression) {
         this.expression = expression.clone();
     }
@@ -22,4 +36,79 @@ public abstract class Function {
     protected abstract double[] solve();
     protected abstract Function derivative();
     public abstract double valueAt(double x);
+    /**
+     * Computes the value of the function and of its first two derivatives at a given point.
+     *
+     * <p>This implementation evaluates the functions returned by {@link #derivative()}. Subclasses that
+     * can propagate the derivatives along with the value, in a single pass and without building the
+     * derivative functions, override it.
+     *
+     * @param x   The value at which to evaluate the function.
+     * @param jet The array receiving f(x), f'(x) and f''(x), as many of them as it has room for.
+     */
+    public void valueAndDerivativesAt(double x, double[] jet){
+        jet[0] = valueAt(x);
+        if (jet.length > 1){
+            Function derivative = derivative();
+            jet[1] = derivative.valueAt(x);
+            if (jet.length > 2){
+                jet[2] = derivative.derivative().valueAt(x);
+            }
+        }
+    }
+    /**
+     * Refines a root with Halley's method in an interval where the function changes sign.
+     *
+     * <p>Each step takes f, f' and f'' from {@link #valueAndDerivativesAt(double, double[])} and keeps the
+     * bracket of the root up to date. A step that leaves the bracket, or that stalls where f' vanishes, is
+     * replaced by the middle of the bracket, so the method converges whenever bisection would.
+     *
+     * @param lower  The lower bound of the interval.
+     * @param upper  The upper bound of the interval.
+     * @param budget The budget charged for every step.
+     * @return The last approximation of the root.
+     */
+    protected double halleyMethod(double lower, double upper, SolveBudget budget){
+        ScratchArena arena = ScratchArena.get();
+        int mark = arena.mark();
+        try {
+            double[] jet = arena.allocate(3);
+            valueAndDerivativesAt(lower, jet);
+            double lowerSign = Math.signum(jet[0]);
+            double x1 = (lower + upper) / 2;
+            double x0;
+            boolean bisected;
+            do {
+                if (!budget.tryStep()){
+                    return x1;
+                }
+                valueAndDerivativesAt(x1, jet);
+                double f = jet[0];
+                if (f == 0 || Double.isNaN(f)){
+                    return x1;
+                }
+                if (Math.signum(f) == lowerSign){
+                    lower = x1;
+                }
+                else {
+                    upper = x1;
+                }
+                x0 = x1;
+                double f1 = jet[1];
+                double denominator = 2 * f1 * f1 - f * jet[2];
+                x1 = x0 - 2 * f * f1 / denominator;
+                if (!(x1 > lower && x1 < upper)){
+                    x1 = x0 - f / f1;
+                }
+                bisected = !(x1 > lower && x1 < upper);
+                if (bisected){
+                    x1 = (lower + upper) / 2;
+                }
+            } while (bisected && x1 != x0 || Math.abs(x1 - x0) > budget.getTolerance());
+            return x1;
+        }
+        finally {
+            arena.release(mark);
+        }
+    }
 }
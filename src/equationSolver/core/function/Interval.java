@@ -0,0 +1,95 @@
+package equationSolver.core.function;
+
+/**
+ * Represents a closed interval of real numbers, with the arithmetic of interval analysis.
+ * <p>
+ * Every operation rounds its bounds outwards, so the result of a computation on intervals contains the
+ * exact result of the same computation on any numbers taken from them. In particular, if the value of a
+ * polynomial over an interval does not contain 0, the polynomial has no root in that interval.
+ */
+public final class Interval {
+    private final double lower;
+    private final double upper;
+
+    /**
+     * Constructs a new Interval object with the specified bounds.
+     *
+     * @param lower The lower bound of the interval.
+     * @param upper The upper bound of the interval.
+     * @throws IllegalArgumentException If the lower bound is greater than the upper bound, or either is NaN.
+     */
+    public Interval(double lower, double upper) {
+        if (!(lower <= upper)) {
+            throw new IllegalArgumentException("Invalid interval [" + lower + ", " + upper + "]");
+        }
+        this.lower = lower;
+        this.upper = upper;
+    }
+
+    /**
+     * Gets the lower bound of the interval.
+     *
+     * @return The lower bound.
+     */
+    public double getLower() {
+        return lower;
+    }
+
+    /**
+     * Gets the upper bound of the interval.
+     *
+     * @return The upper bound.
+     */
+    public double getUpper() {
+        return upper;
+    }
+
+    /**
+     * Checks whether the interval contains a number.
+     *
+     * @param x The number.
+     * @return {@code true} if {@code x} lies between the bounds, inclusive.
+     */
+    public boolean contains(double x) {
+        return lower <= x && x <= upper;
+    }
+
+    /**
+     * Computes the sum of this interval and a number.
+     *
+     * @param x The number to add.
+     * @return An interval containing every {@code a + x} with {@code a} in this interval.
+     */
+    public Interval add(double x) {
+        double min = lower + x;
+        double max = upper + x;
+        if (Double.isNaN(min) || Double.isNaN(max)) {
+            return new Interval(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+        }
+        return new Interval(Math.nextDown(min), Math.nextUp(max));
+    }
+
+    /**
+     * Computes the product of this interval and another one.
+     *
+     * @param that The interval to multiply by.
+     * @return An interval containing every {@code a * b} with {@code a} in this interval and {@code b} in the other one.
+     */
+    public Interval multiply(Interval that) {
+        double p1 = lower * that.lower;
+        double p2 = lower * that.upper;
+        double p3 = upper * that.lower;
+        double p4 = upper * that.upper;
+        double min = Math.min(Math.min(p1, p2), Math.min(p3, p4));
+        double max = Math.max(Math.max(p1, p2), Math.max(p3, p4));
+        if (Double.isNaN(min) || Double.isNaN(max)) {
+            return new Interval(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+        }
+        return new Interval(Math.nextDown(min), Math.nextUp(max));
+    }
+
+    @Override
+    public String toString() {
+        return "[" + lower + ", " + upper + "]";
+    }
+}
@@ -1,6 +1,8 @@
 package equationSolver.core.function;
 
 import equationSolver.core.expression.PolynomialExpression;
+import equationSolver.core.solver.SolveOptions;
+import equationSolver.core.solver.SolveResult;
 
 public class Linear extends Polynomial {
     public Linear(PolynomialExpression equation){
@@ -12,6 +14,10 @@ public class Linear extends Polynomial {
         solutions[0] = -(double)coefficients[0]/coefficients[1];
         return solutions;
     }
+    protected SolveResult<double[]> solve(SolveOptions options){
+        options.getToken().throwIfCancelled();
+        return options.newBudget().finish(solve());
+    }
     public boolean isSolvable() {
         return true;
     }
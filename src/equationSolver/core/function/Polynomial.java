@@ -2,25 +2,44 @@ package equationSolver.core.function;
 
 import equationSolver.core.expression.Expression;
 import equationSolver.core.expression.PolynomialExpression;
+import equationSolver.core.kernel.ArrayKernel;
+import equationSolver.core.kernel.ScratchArena;
+import equationSolver.core.metrics.RefinementEvent;
+import equationSolver.core.metrics.RootIsolationEvent;
+import equationSolver.core.metrics.SolverEvent;
+import equationSolver.core.metrics.SolverMetrics;
+import equationSolver.core.metrics.SturmSequenceEvent;
+import equationSolver.core.solver.CancellationToken;
+import equationSolver.core.solver.IsolationMethod;
+import equationSolver.core.solver.SolveBudget;
+import equationSolver.core.solver.SolveOptions;
+import equationSolver.core.solver.SolveResult;
+import equationSolver.core.store.SolutionStore;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.DoubleBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 
 /**
  * Represents a polynomial equationSolver.core.function.
  */
 public class Polynomial extends Function implements Cloneable {
 
-    private static final Polynomial MINUS_ONE = generateFromCoefficients(new double[] {-1.0});
     private boolean isSimplified = false;
     public static final int HIGHEST_POSSIBLE_DEGREE = 100000;
+    /**
+     * The size of a remainder, relative to the dividend, under which the Euclidean algorithm treats it as zero.
+     */
+    public static final double GCD_TOLERANCE = 1e-12;
     private double[] coefficients;
     private Polynomial derivative;
     private int numberOfRoots;
     private ArrayList<Polynomial> sturmSequence;
+    private Polynomial squareFreePart;
     private double[] solutions;
 
     /**
@@ -33,6 +52,19 @@ public class Polynomial extends Function implements Cloneable {
         coefficients = expression.coefficientsOfPolynomialExpression();
     }
 
+    /**
+     * Constructs a polynomial directly from its coefficients, without parsing an expression.
+     *
+     * <p>The array is used as is and not copied, so callers must not modify it afterwards.
+     * The expression text is only built when {@link #getExpression()} is first called.
+     *
+     * @param coefficients The coefficients of the polynomial, lowest degree first.
+     */
+    protected Polynomial(double[] coefficients) {
+        super();
+        this.coefficients = coefficients;
+    }
+
     /**
      * Returns the polynomial expression.
      *
@@ -54,13 +86,18 @@ public class Polynomial extends Function implements Cloneable {
     public Polynomial clone() {
         try {
             Polynomial clone = (Polynomial) super.clone();
-            clone.coefficients = getCoefficients().clone();
+            clone.coefficients = coefficients.clone();
             if (derivative != null) {
                 clone.derivative = derivative.clone();
             }
             if (sturmSequence != null) {
                 clone.sturmSequence = (ArrayList<Polynomial>) sturmSequence.clone();
             }
+            if (squareFreePart == this) {
+                clone.squareFreePart = clone;
+            } else if (squareFreePart != null) {
+                clone.squareFreePart = squareFreePart.clone();
+            }
             return clone;
         } catch (CloneNotSupportedException e) {
             return null;
@@ -74,14 +111,15 @@ public class Polynomial extends Function implements Cloneable {
      * @return The generated polynomial.
      */
     public static Polynomial generateFromCoefficients(double[] coefficients) {
-        Polynomial polynomial = new Polynomial(PolynomialExpression.coefficientsToPolynomialExpression(coefficients));
-        polynomial.coefficients = coefficients.clone();
-        return polynomial;
+        return new Polynomial(coefficients.clone());
     }
 
     /**
      * Returns a clone of the coefficients array.
      *
+     * <p>The copy is safe to modify. To read the coefficients without copying them, use
+     * {@link #getCoefficient(int)} or {@link #getCoefficientBuffer()}.
+     *
      * @return A clone of the coefficients array.
      */
     public double[] getCoefficients() {
@@ -89,16 +127,47 @@ public class Polynomial extends Function implements Cloneable {
         System.arraycopy(coefficients, 0, array, 0, coefficients.length);
         return array;
     }
+
+    /**
+     * Gets one coefficient of the polynomial without copying the coefficients array.
+     *
+     * @param degree The degree of the term.
+     * @return The coefficient of {@code x^degree}, 0 if the degree is higher than that of the polynomial.
+     * @throws IndexOutOfBoundsException If the degree is negative.
+     */
+    public double getCoefficient(int degree) {
+        if (degree < 0) {
+            throw new IndexOutOfBoundsException("Negative degree " + degree);
+        }
+        return degree < coefficients.length ? coefficients[degree] : 0;
+    }
+
+    /**
+     * Gets a read-only view of the coefficients, lowest degree first, without copying them.
+     *
+     * @return A read-only buffer over the coefficients, positioned at the constant term.
+     */
+    public DoubleBuffer getCoefficientBuffer() {
+        return DoubleBuffer.wrap(coefficients).asReadOnlyBuffer();
+    }
     /**
      * Computes the derivative of the polynomial.
      *
      * @return The derivative of the polynomial.
      */
     public Polynomial getDerivative(){
+        return cachedDerivative().clone();
+    }
+    /**
+     * Gets the derivative of the polynomial, computing it once, for internal use that does not modify it.
+     *
+     * @return The cached derivative, shared with later calls.
+     */
+    private Polynomial cachedDerivative(){
         if (derivative == null){
             derivative = derivative();
         }
-        return derivative.clone();
+        return derivative;
     }
     /**
      * Gets the Sturm sequence of the polynomial.
@@ -106,22 +175,98 @@ public class Polynomial extends Function implements Cloneable {
      * @return The Sturm sequence of the polynomial.
      */
     private ArrayList<Polynomial> getSturmSequence(){
+        return getSturmSequence(CancellationToken.NONE);
+    }
+    /**
+     * Gets the Sturm sequence of the polynomial, generating it if needed.
+     *
+     * @param token The token checked while the sequence is generated.
+     * @return The Sturm sequence of the polynomial.
+     */
+    private ArrayList<Polynomial> getSturmSequence(CancellationToken token){
         if (sturmSequence == null){
-            sturmSequence = sturmSequenceGenerator();
+            long start = SolverMetrics.startTimer();
+            SturmSequenceEvent event = new SturmSequenceEvent();
+            event.begin();
+            try {
+                sturmSequence = sturmSequenceGenerator(token);
+                event.length = sturmSequence.size();
+                event.outcome = SolverEvent.COMPLETED;
+            }
+            finally {
+                event.degree = getHighestDegree();
+                event.commit();
+            }
+            SolverMetrics.stopTimer(SolverMetrics.Operation.STURM_SEQUENCE, start);
         }
-        return (ArrayList<Polynomial>)sturmSequence.clone();
+        return sturmSequence;
     }
     /**
      * Gets the solutions of the polynomial equation.
      *
+     * <p>The solutions are cached, and looked up in the {@linkplain SolutionStore#getInstance() solution
+     * store} before the polynomial is solved, if there is one.
+     *
      * @return The solutions of the polynomial equation.
      */
     public double[] getSolutions() {
+        return getSolutions(CancellationToken.NONE);
+    }
+    /**
+     * Gets the solutions of the polynomial equation, letting another thread cancel the solve.
+     *
+     * @param token The token checked by the solver, which also receives the progress of the solve.
+     * @return The solutions of the polynomial equation.
+     * @throws java.util.concurrent.CancellationException If the token is cancelled before the solve completes.
+     */
+    public double[] getSolutions(CancellationToken token) {
         if (solutions == null){
-            solutions = this.solve();
+            SolverMetrics.increment(SolverMetrics.Counter.SOLUTION_CACHE_MISSES);
+            solutions = solveThroughStore(SolveOptions.DEFAULT.withToken(token)).getValues();
+        }
+        else {
+            SolverMetrics.increment(SolverMetrics.Counter.SOLUTION_CACHE_HITS);
         }
         return solutions;
     }
+    /**
+     * Gets the solutions of the polynomial equation within the budget of the specified options.
+     * The result is not cached, since it depends on the options, but it goes through the solution
+     * store as the solves without options do, as described in {@link #solveThroughStore(SolveOptions)}.
+     *
+     * @param options The tolerance, iteration cap, deadline and cancellation token of the solve.
+     * @return The solutions, with the convergence status and the iterations used.
+     * @throws java.util.concurrent.CancellationException If the token is cancelled before the solve completes.
+     */
+    public SolveResult<double[]> getSolutions(SolveOptions options) {
+        return solveThroughStore(options);
+    }
+    /**
+     * Looks the solutions up in the solution store, and solves the polynomial and stores its solutions
+     * if they are not there. This is the path of every {@code getSolutions} overload.
+     *
+     * <p>The store holds roots refined to {@link #PRECISION}. They answer a solve whose tolerance is
+     * no tighter, as a converged result without iterations, and a solve is stored only if it converged
+     * with a tolerance no looser, so that a stored root is never less accurate than the default solve.
+     * A solve without values is never stored.
+     *
+     * @param options The options of the solve.
+     * @return The solutions, with the convergence status and the iterations used.
+     */
+    private SolveResult<double[]> solveThroughStore(SolveOptions options) {
+        SolutionStore store = SolutionStore.getInstance();
+        if (store != null && options.getTolerance() >= PRECISION){
+            double[] stored = store.getRoots(coefficients);
+            if (stored != null){
+                return options.newBudget().finish(stored);
+            }
+        }
+        SolveResult<double[]> solved = solve(options);
+        if (store != null && solved.isConverged() && options.getTolerance() <= PRECISION && solved.getValues() != null){
+            store.putRoots(coefficients, solved.getValues());
+        }
+        return solved;
+    }
     /**
      * Gets the number of roots of the polynomial.
      *
@@ -140,11 +285,69 @@ public class Polynomial extends Function implements Cloneable {
      * @return The value of the polynomial at the given point.
      */
     public double valueAt(double x){
-        double result = coefficients[0];
-        for(int i = 1; i < coefficients.length; i++) {
-            result += coefficients[i] * Math.pow(x, i);
+        SolverMetrics.increment(SolverMetrics.Counter.POLYNOMIAL_EVALUATIONS);
+        return ArrayKernel.getInstance().evaluate(coefficients, x);
+    }
+    /**
+     * Computes the value of the polynomial and of its first two derivatives at a given point, in a
+     * single pass of Horner's scheme over the coefficients.
+     *
+     * @param x   The value at which to evaluate the polynomial.
+     * @param jet The array receiving p(x), p'(x) and p''(x), as many of them as it has room for.
+     */
+    public void valueAndDerivativesAt(double x, double[] jet){
+        SolverMetrics.increment(SolverMetrics.Counter.POLYNOMIAL_EVALUATIONS);
+        double value = 0;
+        double first = 0;
+        double half = 0;
+        for (int i = coefficients.length - 1; i >= 0; i--){
+            half = half * x + first;
+            first = first * x + value;
+            value = value * x + coefficients[i];
         }
-        return result;
+        jet[0] = value;
+        if (jet.length > 1){
+            jet[1] = first;
+        }
+        if (jet.length > 2){
+            jet[2] = 2 * half;
+        }
+    }
+    /**
+     * Computes the values of the polynomial at many points.
+     *
+     * <p>The points are evaluated together with Horner's scheme, several at a time, which is faster than
+     * calling {@link #valueAt(double)} for each of them and just as accurate.
+     *
+     * @param points The values at which to evaluate the polynomial.
+     * @return The values of the polynomial at the given points, in the same order.
+     */
+    public double[] valuesAt(double... points){
+        SolverMetrics.increment(SolverMetrics.Counter.POLYNOMIAL_EVALUATIONS, points.length);
+        double[] values = new double[points.length];
+        ArrayKernel.getInstance().evaluate(coefficients, points, values);
+        return values;
+    }
+    /**
+     * Computes an enclosure of the values of the polynomial over an interval, with Horner's scheme in
+     * interval arithmetic.
+     *
+     * <p>The enclosure may be wider than the exact range, but it always contains it, so the polynomial has
+     * no root in the interval when the enclosure does not contain 0.
+     *
+     * @param x The interval over which to evaluate the polynomial.
+     * @return An interval containing the value of the polynomial at every point of {@code x}.
+     */
+    public Interval valueOn(Interval x){
+        SolverMetrics.increment(SolverMetrics.Counter.POLYNOMIAL_EVALUATIONS);
+        if (coefficients.length == 0){
+            return new Interval(0, 0);
+        }
+        Interval value = new Interval(coefficients[coefficients.length - 1], coefficients[coefficients.length - 1]);
+        for (int i = coefficients.length - 2; i >= 0; i--) {
+            value = value.multiply(x).add(coefficients[i]);
+        }
+        return value;
     }
     /**
      * Computes the derivative of the polynomial.
@@ -155,13 +358,13 @@ public class Polynomial extends Function implements Cloneable {
         double[] coefficientsOfDerivative;
         if (coefficients.length == 0){
             coefficientsOfDerivative = new double[0];
-            return generateFromCoefficients(coefficientsOfDerivative);
+            return new Polynomial(coefficientsOfDerivative);
         }
         coefficientsOfDerivative = new double[coefficients.length - 1];
         for (int i = 1; i < coefficients.length; i++) {
             coefficientsOfDerivative[i-1] = coefficients[i] * i;
         }
-        return generateFromCoefficients(coefficientsOfDerivative);
+        return new Polynomial(coefficientsOfDerivative);
     }
     /**
      * Gets the highest degree of the polynomial.
@@ -179,7 +382,7 @@ public class Polynomial extends Function implements Cloneable {
      * @return The product of the two polynomials.
      */
     public static Polynomial multiplication(Polynomial firstPolynomial, Polynomial secondPolynomial){
-        return generateFromCoefficients(multiplication(firstPolynomial.getCoefficients(),secondPolynomial.getCoefficients()));
+        return new Polynomial(multiplication(firstPolynomial.coefficients, secondPolynomial.coefficients));
     }
     /**
      * Multiplies two arrays representing polynomials.
@@ -189,37 +392,7 @@ public class Polynomial extends Function implements Cloneable {
      * @return The coefficients of the product polynomial.
      */
     private static double[] multiplication(double[] first, double[] second){
-        double[] result = new double[first.length + second.length - 1];
-        for (int i = 0; i < first.length; i++) {
-            for (int j = 0; j < second.length; j++) {
-                result[i + j] += first[i] * second[j];
-            }
-        }
-        return result;
-    }
-    /**
-     * Subtracts one array from another.
-     *
-     * @param minuend     The array from which to subtract.
-     * @param subtrahend  The array to subtract.
-     * @return The result of the subtraction.
-     */
-    private static double[] subtractArray(double[] minuend, double[] subtrahend){
-        for (int i = 0; i < subtrahend.length; i++) {
-            minuend[i] -= subtrahend[i];
-        }
-        int newLength = 0;
-        for (int i = 0; i < minuend.length; i++) {
-            if (minuend[i] != 0) {
-                newLength = i + 1;
-            }
-        }
-        if (newLength == 0) {
-            return new double[]{0.0};
-        }
-        double[] result = new double[newLength];
-        System.arraycopy(minuend, 0, result, 0, newLength);
-        return result;
+        return ArrayKernel.getInstance().multiply(first, second);
     }
     /**
      * Computes the remainder of the Euclidean division of two polynomials.
@@ -234,54 +407,256 @@ public class Polynomial extends Function implements Cloneable {
      * @return The remainder polynomial after the division.
      */
     public static Polynomial remainderOfEuclideanDivisionOfPolynomials(Polynomial dividend, Polynomial divisor){
-        int d = divisor.getHighestDegree();
-        double[] remainder = dividend.getCoefficients();
-        double[] divisorCoefficients = divisor.getCoefficients();
-        while (remainder.length > 1 && remainder.length - 1 >= d){
-            double[] temp = new double[remainder.length-divisorCoefficients.length+1];
-            temp[temp.length-1] = remainder[remainder.length-1]/divisorCoefficients[divisorCoefficients.length-1];
-            remainder = subtractArray(remainder, multiplication(divisorCoefficients,temp));
+        return new Polynomial(remainder(dividend.coefficients, divisor.coefficients));
+    }
+    /**
+     * Computes the remainder of the Euclidean division of two arrays representing polynomials.
+     *
+     * <p>The division runs in place in a buffer of the {@link ScratchArena}, so the remainder is the only
+     * array allocated. The leading coefficient is set to exactly zero after every step.
+     *
+     * @param dividend The coefficients of the dividend.
+     * @param divisor  The coefficients of the divisor, whose leading coefficient must not be zero.
+     * @return The coefficients of the remainder, without leading zeroes, or {0} if it is zero.
+     */
+    private static double[] remainder(double[] dividend, double[] divisor){
+        int d = divisor.length - 1;
+        ScratchArena arena = ScratchArena.get();
+        int mark = arena.mark();
+        try {
+            double[] work = arena.allocate(dividend.length);
+            System.arraycopy(dividend, 0, work, 0, dividend.length);
+            int length = trimmedLength(work, dividend.length);
+            while (length > 1 && length - 1 >= d){
+                double factor = work[length - 1] / divisor[d];
+                ArrayKernel.getInstance().addMultiple(-factor, divisor, 0, work, length - 1 - d, d);
+                work[length - 1] = 0;
+                length = trimmedLength(work, length - 1);
+            }
+            return length == 0 ? new double[] {0.0} : Arrays.copyOf(work, length);
         }
-        return generateFromCoefficients(remainder);
+        finally {
+            arena.release(mark);
+        }
+    }
+    /**
+     * Counts the coefficients left once the zero highest degree coefficients are removed.
+     *
+     * @param array  The coefficients, lowest degree first.
+     * @param length The number of coefficients to consider.
+     * @return The number of coefficients up to the last nonzero one.
+     */
+    private static int trimmedLength(double[] array, int length){
+        while (length > 0 && array[length - 1] == 0){
+            length--;
+        }
+        return length;
     }
     /**
-     * Removes leading zero coefficients from an array of coefficients.
+     * Computes the quotient of the Euclidean division of two polynomials.
      *
-     * @param array The array of coefficients.
-     * @return The array of coefficients with leading zero coefficients removed.
+     * @param dividend The polynomial to be divided.
+     * @param divisor  The polynomial by which to divide, which must not be zero.
+     * @return The quotient polynomial; the remainder is discarded.
      */
-    private static double[] getRidOfFirstZeroes(double[] array){
-        int firstNonZeroIndex = 0;
-        for (int i = 0; i < array.length; i++) {
-            if (array[i] != 0) {
-                firstNonZeroIndex = i;
+    public static Polynomial quotientOfEuclideanDivisionOfPolynomials(Polynomial dividend, Polynomial divisor){
+        return new Polynomial(divide(dividend.coefficients, divisor.coefficients)[0]);
+    }
+    /**
+     * Computes the greatest common divisor of two polynomials with the Euclidean algorithm.
+     *
+     * <p>Every remainder is made monic, and a remainder whose coefficients are all smaller than
+     * {@link #GCD_TOLERANCE} times the largest coefficient of the dividend is treated as zero,
+     * so that roots shared up to rounding errors are detected.
+     *
+     * @param first  The first polynomial.
+     * @param second The second polynomial.
+     * @return The monic greatest common divisor, or the zero polynomial if both polynomials are zero.
+     */
+    public static Polynomial greatestCommonDivisor(Polynomial first, Polynomial second){
+        double[] a = trimLeadingCoefficients(first.coefficients, 0);
+        double[] b = trimLeadingCoefficients(second.coefficients, 0);
+        if (b.length == 0){
+            return new Polynomial(a.length == 0 ? new double[] {0.0} : monic(a));
+        }
+        if (a.length == 0){
+            return new Polynomial(monic(b));
+        }
+        a = monic(a);
+        b = monic(b);
+        while (b.length > 1){
+            double[] remainder = trimLeadingCoefficients(divide(a, b)[1], GCD_TOLERANCE * maxAbs(a));
+            if (remainder.length == 0){
+                return new Polynomial(b);
+            }
+            a = b;
+            b = monic(remainder);
+        }
+        return new Polynomial(new double[] {1.0});
+    }
+    /**
+     * Computes the square-free decomposition of the polynomial with Yun's algorithm.
+     *
+     * <p>The polynomial is the product of its leading coefficient and of {@code q_i^i} for every
+     * factor {@code q_i}, where the factors are monic, have simple roots and are pairwise coprime.
+     * The roots of {@code q_i} are the roots of multiplicity {@code i} of the polynomial.
+     *
+     * @return The factors, the factor at index {@code i-1} being {@code q_i}; factors of degree 0 are 1.
+     */
+    public ArrayList<Polynomial> squareFreeDecomposition(){
+        ArrayList<Polynomial> factors = new ArrayList<>();
+        if (getHighestDegree() < 1){
+            return factors;
+        }
+        Polynomial derivative = getDerivative();
+        Polynomial a = greatestCommonDivisor(this, derivative);
+        Polynomial b = quotientOfEuclideanDivisionOfPolynomials(this, a);
+        Polynomial c = quotientOfEuclideanDivisionOfPolynomials(derivative, a);
+        Polynomial d = new Polynomial(difference(c.coefficients, b.derivative().coefficients));
+        while (b.getHighestDegree() > 0){
+            if (factors.size() == getHighestDegree() - 1){
+                // Rounding errors kept the algorithm from separating the remaining factors.
+                factors.add(new Polynomial(monic(b.coefficients)));
                 break;
             }
+            a = greatestCommonDivisor(b, d);
+            b = quotientOfEuclideanDivisionOfPolynomials(b, a);
+            c = quotientOfEuclideanDivisionOfPolynomials(d, a);
+            d = new Polynomial(difference(c.coefficients, b.derivative().coefficients));
+            factors.add(a);
+        }
+        return factors;
+    }
+    /**
+     * Gets the square-free part of the polynomial, which has the same roots, each of them simple.
+     *
+     * <p>The square-free part is the polynomial divided by its greatest common divisor with its
+     * derivative. If the polynomial has no multiple root, it is the polynomial itself.
+     *
+     * @return The square-free part of the polynomial.
+     */
+    public Polynomial getSquareFreePart(){
+        if (squareFreePart == null){
+            Polynomial divisor = getHighestDegree() < 1 ? null : greatestCommonDivisor(this, getDerivative());
+            if (divisor == null || divisor.getHighestDegree() < 1){
+                squareFreePart = this;
+            }
+            else {
+                squareFreePart = quotientOfEuclideanDivisionOfPolynomials(this, divisor);
+            }
+        }
+        return squareFreePart;
+    }
+    /**
+     * Divides two arrays representing polynomials.
+     *
+     * <p>The leading coefficient of the remainder is set to exactly zero at every step, so that
+     * rounding errors cannot keep the degree from decreasing.
+     *
+     * @param dividend The coefficients of the dividend.
+     * @param divisor  The coefficients of the divisor, whose leading coefficient must not be zero.
+     * @return The coefficients of the quotient and of the remainder.
+     */
+    private static double[][] divide(double[] dividend, double[] divisor){
+        divisor = trimLeadingCoefficients(divisor, 0);
+        int d = divisor.length - 1;
+        if (dividend.length <= d){
+            return new double[][] {new double[] {0.0}, dividend.clone()};
+        }
+        double[] quotient = new double[dividend.length - d];
+        double lead = divisor[d];
+        ScratchArena arena = ScratchArena.get();
+        int mark = arena.mark();
+        try {
+            double[] remainder = arena.allocate(dividend.length);
+            System.arraycopy(dividend, 0, remainder, 0, dividend.length);
+            for (int k = quotient.length - 1; k >= 0; k--){
+                double factor = remainder[k + d] / lead;
+                quotient[k] = factor;
+                if (factor != 0){
+                    ArrayKernel.getInstance().addMultiple(-factor, divisor, 0, remainder, k, d);
+                }
+                remainder[k + d] = 0;
+            }
+            return new double[][] {quotient, Arrays.copyOf(remainder, trimmedLength(remainder, d))};
         }
-        if (firstNonZeroIndex != 0){
-            firstNonZeroIndex--;
+        finally {
+            arena.release(mark);
         }
-        double[] newArray = new double[array.length - firstNonZeroIndex];
-        System.arraycopy(array, firstNonZeroIndex, newArray, 0, newArray.length);
-        return newArray;
+    }
+    /**
+     * Subtracts two arrays representing polynomials of any degrees.
+     *
+     * @param minuend    The coefficients to subtract from.
+     * @param subtrahend The coefficients to subtract.
+     * @return The coefficients of the difference, without leading zeroes.
+     */
+    private static double[] difference(double[] minuend, double[] subtrahend){
+        double[] result = Arrays.copyOf(minuend, Math.max(minuend.length, subtrahend.length));
+        for (int i = 0; i < subtrahend.length; i++){
+            result[i] -= subtrahend[i];
+        }
+        return trimLeadingCoefficients(result, 0);
+    }
+    /**
+     * Removes the highest degree coefficients whose absolute value is not larger than a threshold.
+     *
+     * @param array     The coefficients, lowest degree first.
+     * @param threshold The threshold.
+     * @return The remaining coefficients, empty if every coefficient was removed.
+     */
+    private static double[] trimLeadingCoefficients(double[] array, double threshold){
+        int length = array.length;
+        while (length > 0 && Math.abs(array[length - 1]) <= threshold){
+            length--;
+        }
+        return length == array.length ? array : Arrays.copyOf(array, length);
+    }
+    /**
+     * Divides coefficients by the leading one.
+     *
+     * @param array The coefficients, lowest degree first, with a nonzero leading coefficient.
+     * @return The coefficients of the monic polynomial.
+     */
+    private static double[] monic(double[] array){
+        double[] result = array.clone();
+        ArrayKernel.getInstance().scale(result, 1.0 / array[array.length - 1]);
+        result[result.length - 1] = 1.0;
+        return result;
+    }
+    /**
+     * Computes the largest absolute value of coefficients.
+     *
+     * @param array The coefficients.
+     * @return The largest absolute value.
+     */
+    private static double maxAbs(double[] array){
+        double max = 0;
+        for (double value : array){
+            max = Math.max(max, Math.abs(value));
+        }
+        return max;
     }
     /**
      * Generates the Sturm sequence for the polynomial.
      *
      * @return The Sturm sequence of the polynomial.
      */
-    private ArrayList<Polynomial> sturmSequenceGenerator(){
+    private ArrayList<Polynomial> sturmSequenceGenerator(CancellationToken token){
         ArrayList<Polynomial> sturmSequence = new ArrayList<>();
-        Polynomial firstTerm = generateFromCoefficients(getCoefficients());
-        Polynomial current = firstTerm.getDerivative();
+        Polynomial firstTerm = new Polynomial(getSquareFreePart().getCoefficients());
+        Polynomial current = firstTerm.cachedDerivative();
         sturmSequence.add(firstTerm);
-        if (firstTerm.getCoefficients().length == 1){
+        if (firstTerm.coefficients.length == 1){
             return sturmSequence;
         }
         sturmSequence.add(current);
         int i = 1;
         while (current.getHighestDegree()>0){
-            current = multiplication(remainderOfEuclideanDivisionOfPolynomials(sturmSequence.get(i-1),sturmSequence.get(i++)),MINUS_ONE);
+            token.throwIfCancelled();
+            double[] remainder = remainder(sturmSequence.get(i-1).coefficients, sturmSequence.get(i++).coefficients);
+            ArrayKernel.getInstance().scale(remainder, -1);
+            current = new Polynomial(remainder);
             sturmSequence.add(current);
         }
         return sturmSequence;
@@ -294,6 +669,7 @@ public class Polynomial extends Function implements Cloneable {
      * @return The number of roots within the interval.
      */
     public int numberOfRootsOn(double start, double end){
+        SolverMetrics.increment(SolverMetrics.Counter.STURM_COUNTS);
         ArrayList<Polynomial> sturmSequence = getSturmSequence();
         boolean sign1 = sturmSequence.get(0).valueAt(start) > 0;
         boolean sign2 = sturmSequence.get(0).valueAt(end) > 0;
@@ -318,7 +694,7 @@ public class Polynomial extends Function implements Cloneable {
      */
     private int numberOfRootsOn(){
         ArrayList<Polynomial> sturmSequence = getSturmSequence();
-        double[] current = sturmSequence.get(0).getCoefficients();
+        double[] current = sturmSequence.get(0).coefficients;
         boolean sign1;
         boolean sign2;
         if (current.length % 2 == 1){
@@ -332,7 +708,7 @@ public class Polynomial extends Function implements Cloneable {
         int counter1 = 0;
         int counter2 = 0;
         for (int i = 1; i < sturmSequence.size(); i++) {
-            current = sturmSequence.get(i).getCoefficients();
+            current = sturmSequence.get(i).coefficients;
             if (current.length % 2 == 1){
                 if (current[current.length-1]>0 ^ sign1){
                     counter1++;
@@ -355,54 +731,80 @@ public class Polynomial extends Function implements Cloneable {
     /**
      * Performs a binary search to find roots within the specified interval.
      *
+     * <p>The interval is never split at a root, where the Sturm sequence would miscount. Before the roots in
+     * the left half are counted with the Sturm sequence, the polynomial is evaluated over it in interval
+     * arithmetic, and the half is skipped without counting if its values exclude 0.
+     *
      * @param first     The lower bound of the interval.
      * @param second    The upper bound of the interval.
      * @param arrayList The list to store the roots found.
+     * @param budget    The budget charged for every step, which also receives the share of isolated roots.
+     *                  When it is exhausted, the search stops with the roots isolated so far.
      */
-    private void binarySearch(double first, double second, ArrayList<Double> arrayList){
+    private void binarySearch(double first, double second, ArrayList<Double> arrayList, SolveBudget budget){
         if (arrayList.size() == (getNumberOfRoots())){
             arrayList.add(first);
             return;
         }
+        budget.reportProgress(0.5 * arrayList.size() / getNumberOfRoots());
         double lowerBound = first;
         double upperBound = second;
         double mid;
-        while (numberOfRootsOn(lowerBound, upperBound) > 1 || (upperBound - lowerBound) > 10){
+        int roots = numberOfRootsOn(lowerBound, upperBound);
+        while (roots > 1 || (upperBound - lowerBound) > 10){
+            if (!budget.tryStep()){
+                return;
+            }
+            SolverMetrics.increment(SolverMetrics.Counter.ISOLATION_STEPS);
             mid = (lowerBound + upperBound) / 2;
             if (valueAt(mid) == 0){
-                lowerBound = mid-1;
+                mid = (mid + upperBound) / 2;
+            }
+            if (mid == lowerBound || mid == upperBound){
+                break;
             }
-            if (numberOfRootsOn(lowerBound, mid) != 0){
+            int rootsOnLeft = valueOn(new Interval(lowerBound, mid)).contains(0) ? numberOfRootsOn(lowerBound, mid) : 0;
+            if (rootsOnLeft != 0){
                 upperBound = mid;
+                roots = rootsOnLeft;
                 continue;
             }
             lowerBound = mid;
         }
         arrayList.add(lowerBound);
-        binarySearch(upperBound, second, arrayList);
+        binarySearch(upperBound, second, arrayList, budget);
     }
     /**
      * Implements the bisection method to find roots of the polynomial.
      *
-     * @param a The lower bound of the interval.
-     * @param b The upper bound of the interval.
+     * <p>The interval is halved until it is narrower than twice the tolerance, keeping the half
+     * where the polynomial changes sign.
+     *
+     * @param a      The lower bound of the interval.
+     * @param b      The upper bound of the interval.
+     * @param budget The budget charged for every halving.
      * @return The root found within the interval.
      */
-    private double bisectionMethod(double a, double b)
+    private double bisectionMethod(double a, double b, SolveBudget budget)
     {
-        int iterations = 0;
-        double c = a+b/2;
-        while(Math.abs(c) > PRECISION && iterations < MAX_ITERATIONS)
+        Polynomial squareFree = getSquareFreePart();
+        double valueAtA = squareFree.valueAt(a);
+        double c = (a + b) / 2;
+        while ((b - a) / 2 > budget.getTolerance() && budget.tryStep())
         {
-            if((valueAt(c) > 0 && valueAt(a) < 0) || (valueAt(c) < 0 && valueAt(a) > 0)){
-                b = c;
-                c = (a+c)/2;
+            SolverMetrics.increment(SolverMetrics.Counter.BISECTION_ITERATIONS);
+            double valueAtC = squareFree.valueAt(c);
+            if (valueAtC == 0){
+                break;
             }
-            else if ((valueAt(c) > 0 && valueAt(b) < 0) || (valueAt(c) < 0 && valueAt(b) > 0)) {
+            if (valueAtC > 0 == valueAtA > 0){
                 a = c;
-                c = (c + b) / 2;
+                valueAtA = valueAtC;
+            }
+            else {
+                b = c;
             }
-            iterations++;
+            c = (a + b) / 2;
         }
         return c;
     }
@@ -413,25 +815,198 @@ public class Polynomial extends Function implements Cloneable {
      */
     public double[] solveByBisection()
     {
-        int n = getNumberOfRoots();
-        double[] solutions = new double[n];
-        double bound = Math.pow(Double.MAX_VALUE, 1.0/getHighestDegree())/getCoefficients()[getHighestDegree()];
-        ArrayList<Double> intervals = new ArrayList<>(n+1);
-        binarySearch(-bound, bound, intervals);
-
-        for(int i=0; i<n; i++)
-            solutions[i] = bisectionMethod(intervals.get(i), intervals.get(i+1));
-        return solutions;
+        return solveByBisection(SolveOptions.DEFAULT).getValues();
     }
-
-    private double newtonMethod(double x0) {
-        double x1 = x0 - valueAt(x0) / getDerivative().valueAt(x0);
-        int iteration = 0;
-        while (Math.abs(x1 - x0) > PRECISION && iteration < MAX_ITERATIONS) {
-            x0 = x1;
-            x1 = x0 - valueAt(x0) / getDerivative().valueAt(x0);
-            iteration++;
+    /**
+     * Solves the polynomial equation using the bisection method within the budget of the specified options.
+     *
+     * @param options The tolerance, iteration cap, deadline and cancellation token of the solve.
+     * @return The roots of the polynomial, with the convergence status and the iterations used.
+     * @throws java.util.concurrent.CancellationException If the token is cancelled before the solve completes.
+     */
+    public SolveResult<double[]> solveByBisection(SolveOptions options)
+    {
+        long start = SolverMetrics.startTimer();
+        SolveBudget budget = options.newBudget();
+        ArrayList<double[]> intervals = isolateRoots(budget);
+        double[] solutions = new double[intervals.size()];
+        RefinementEvent event = new RefinementEvent();
+        event.begin();
+        int iterationsBefore = budget.getIterations();
+        try {
+            for(int i=0; i<solutions.length; i++)
+                solutions[i] = bisectionMethod(intervals.get(i)[0], intervals.get(i)[1], budget);
+            event.outcome = budget.getStatus().name();
+        }
+        finally {
+            commitRefinementEvent(event, "bisection", solutions.length, budget.getIterations() - iterationsBefore);
+        }
+        SolverMetrics.stopTimer(SolverMetrics.Operation.POLYNOMIAL_SOLVE, start);
+        return budget.finish(solutions);
+    }
+    /**
+     * Isolates the real roots of the polynomial in disjoint intervals, with the algorithm selected by the options.
+     *
+     * @param budget The budget of the solve.
+     * @return The intervals in increasing order, each holding one root, with bounds that are not roots
+     * unless the interval is a single point; empty if the deadline passed while the Sturm sequence was generated.
+     */
+    private ArrayList<double[]> isolateRoots(SolveBudget budget){
+        boolean descartes = budget.getIsolationMethod() == IsolationMethod.DESCARTES;
+        int realRoots = -1;
+        if (!descartes){
+            try {
+                getSturmSequence(budget);
+            }
+            catch (CancellationException e){
+                if (budget.getStatus() == SolveResult.Status.DEADLINE_EXCEEDED){
+                    return new ArrayList<>();
+                }
+                throw e;
+            }
+            realRoots = getNumberOfRoots();
+        }
+        ArrayList<double[]> intervals = new ArrayList<>();
+        long start = SolverMetrics.startTimer();
+        RootIsolationEvent event = new RootIsolationEvent();
+        event.begin();
+        int iterationsBefore = budget.getIterations();
+        try {
+            if (descartes){
+                intervals = DescartesIsolator.isolate(getSquareFreePart().coefficients, budget);
+            }
+            else {
+                double bound = RootBounds.of(coefficients);
+                ArrayList<Double> bounds = new ArrayList<>(realRoots+1);
+                binarySearch(-bound, bound, bounds, budget);
+                for (int i = 0; i + 1 < bounds.size(); i++){
+                    intervals.add(new double[] {bounds.get(i), bounds.get(i+1)});
+                }
+            }
+            Polynomial squareFree = getSquareFreePart();
+            for (int i = 0; i < intervals.size(); i++){
+                intervals.set(i, squareFree.excludeRootBounds(intervals.get(i)));
+            }
+            event.outcome = budget.getStatus().name();
+        }
+        finally {
+            event.method = descartes ? "descartes" : "sturm";
+            event.degree = getHighestDegree();
+            event.realRoots = realRoots;
+            event.isolatedRoots = intervals.size();
+            event.iterations = budget.getIterations() - iterationsBefore;
+            event.commit();
+        }
+        SolverMetrics.stopTimer(SolverMetrics.Operation.ROOT_ISOLATION, start);
+        return intervals;
+    }
+    /**
+     * Moves the bounds of an isolating interval that are roots themselves to dyadic points inside it, so
+     * that the polynomial has opposite signs at the bounds and Newton's method stays bracketed.
+     *
+     * The polynomial must be square-free, so that its sign next to a root bound is the sign of its derivative
+     * there. Each step halves the interval and keeps the half whose bounds still enclose the isolated root.
+     *
+     * @param interval The interval, holding one root.
+     * @return The interval itself if no bound is a root, a single point if the root is met, or the narrowed interval.
+     */
+    private double[] excludeRootBounds(double[] interval){
+        double lowerBound = interval[0];
+        double upperBound = interval[1];
+        double valueAtLower = valueAt(lowerBound);
+        double valueAtUpper = valueAt(upperBound);
+        if (lowerBound >= upperBound || valueAtLower != 0 && valueAtUpper != 0){
+            return interval;
+        }
+        Polynomial derivative = cachedDerivative();
+        double lowerSign = valueAtLower != 0 ? Math.signum(valueAtLower) : Math.signum(derivative.valueAt(lowerBound));
+        double upperSign = valueAtUpper != 0 ? Math.signum(valueAtUpper) : -Math.signum(derivative.valueAt(upperBound));
+        if (lowerSign * upperSign >= 0){
+            return interval;
+        }
+        while (valueAtLower == 0 || valueAtUpper == 0){
+            double middle = lowerBound / 2 + upperBound / 2;
+            if (middle <= lowerBound || middle >= upperBound){
+                break;
+            }
+            double valueAtMiddle = valueAt(middle);
+            if (valueAtMiddle == 0){
+                return new double[] {middle, middle};
+            }
+            if (Math.signum(valueAtMiddle) == lowerSign){
+                lowerBound = middle;
+                valueAtLower = valueAtMiddle;
+            }
+            else {
+                upperBound = middle;
+                valueAtUpper = valueAtMiddle;
+            }
         }
+        return new double[] {lowerBound, upperBound};
+    }
+    /**
+     * Fills in and commits the flight recorder event of a refinement phase.
+     *
+     * @param event      The event, begun before the phase.
+     * @param method     The refinement method.
+     * @param roots      The number of roots refined.
+     * @param iterations The number of steps of the phase.
+     */
+    private void commitRefinementEvent(RefinementEvent event, String method, int roots, int iterations){
+        event.method = method;
+        event.degree = getHighestDegree();
+        event.roots = roots;
+        event.iterations = iterations;
+        event.commit();
+    }
+    /**
+     * Refines a root with Newton's method until two successive approximations are closer than the tolerance.
+     *
+     * Newton's method runs on the square-free part, whose roots are simple, so that it converges
+     * quadratically. When the polynomial has opposite signs at the bounds, the interval is narrowed around
+     * the sign change after every step and a step leaving it is replaced by its midpoint, so that wide
+     * intervals still converge; only a Newton step can end the refinement. Otherwise, if a step leaves the
+     * isolating interval, the root is found by bisection instead.
+     *
+     * @param x0         The initial approximation.
+     * @param lowerBound The lower bound of the interval isolating the root.
+     * @param upperBound The upper bound of the interval isolating the root.
+     * @param budget     The budget charged for every step.
+     * @return The last approximation of the root.
+     */
+    private double newtonMethod(double x0, double lowerBound, double upperBound, SolveBudget budget) {
+        Polynomial squareFree = getSquareFreePart();
+        Polynomial derivative = squareFree.cachedDerivative();
+        double lowerSign = Math.signum(squareFree.valueAt(lowerBound));
+        boolean bracketed = lowerSign * squareFree.valueAt(upperBound) < 0;
+        double x1 = x0;
+        double value = squareFree.valueAt(x1);
+        boolean bisected;
+        do {
+            if (!budget.tryStep()) {
+                return x1;
+            }
+            SolverMetrics.increment(SolverMetrics.Counter.NEWTON_ITERATIONS);
+            if (value == 0) {
+                return x1;
+            }
+            if (bracketed && Math.signum(value) == lowerSign) {
+                lowerBound = x1;
+            }
+            else if (bracketed) {
+                upperBound = x1;
+            }
+            x0 = x1;
+            x1 = x0 - value / derivative.valueAt(x0);
+            bisected = !(x1 >= lowerBound && x1 <= upperBound);
+            if (bisected && !bracketed) {
+                return bisectionMethod(lowerBound, upperBound, budget);
+            }
+            if (bisected) {
+                x1 = (lowerBound + upperBound) / 2;
+            }
+            value = squareFree.valueAt(x1);
+        } while (bisected && x1 != x0 || Math.abs(x1 - x0) > budget.getTolerance());
         return x1;
     }
     /**
@@ -439,33 +1014,122 @@ public class Polynomial extends Function implements Cloneable {
      *
      * <p>This method computes the solutions of the polynomial equation by dividing the real number line
      * into intervals based on the changes in the number of roots of the polynomial. It uses binary search
-     * within these intervals to find the approximate roots.
+     * within these intervals to find the approximate roots. Polynomials of degree 1 to
+     * {@value ClosedFormSolver#MAX_DEGREE} are solved with closed forms instead, unless they have a
+     * multiple root.
      *
      * @return An array containing the solutions of the polynomial equation.
      */
     protected double[] solve(){
-        int n = getNumberOfRoots();
-        double[] solutions = new double[n];
+        return solve(CancellationToken.NONE);
+    }
+    /**
+     * Finds the solutions of the polynomial equation as {@link #solve()} does, checking the token
+     * between steps and reporting the progress to it.
+     *
+     * @param token The token checked by the solver.
+     * @return An array containing the solutions of the polynomial equation.
+     */
+    protected double[] solve(CancellationToken token){
+        return solve(SolveOptions.DEFAULT.withToken(token)).getValues();
+    }
+    /**
+     * Finds the solutions of the polynomial equation as {@link #solve()} does, within the budget of
+     * the specified options. If the budget runs out, the roots refined so far are returned, and the
+     * isolated roots that could not be refined are approximated by the middle of their interval.
+     *
+     * @param options The tolerance, iteration cap, deadline and cancellation token of the solve.
+     * @return The solutions, with the convergence status and the iterations used.
+     */
+    protected SolveResult<double[]> solve(SolveOptions options){
+        long start = SolverMetrics.startTimer();
+        SolveBudget budget = options.newBudget();
+        double[] closedForm = hasClosedForm() ? closedFormRoots() : null;
+        if (closedForm != null){
+            double[] roots = new double[0];
+            RefinementEvent event = new RefinementEvent();
+            event.begin();
+            try {
+                if (budget.tryStep()){
+                    roots = closedForm;
+                    for (int i = 0; i < roots.length; i++){
+                        roots[i] = round(roots[i]);
+                    }
+                }
+                event.outcome = budget.getStatus().name();
+            }
+            finally {
+                commitRefinementEvent(event, "closed-form", roots.length, budget.getIterations());
+            }
+            SolverMetrics.stopTimer(SolverMetrics.Operation.POLYNOMIAL_SOLVE, start);
+            return budget.finish(roots);
+        }
+        ArrayList<double[]> intervals = isolateRoots(budget);
+        double[] solutions = new double[intervals.size()];
         double mid;
-        double bound = Math.pow(Double.MAX_VALUE, 1.0/getHighestDegree())/getCoefficients()[getHighestDegree()];
-        ArrayList<Double> intervals = new ArrayList<>(n+1);
-        binarySearch(-bound, bound, intervals);
-        for(int i = 0; i < n; i++) {
-            mid = (intervals.get(i) + intervals.get(i+1)) / 2;
-            solutions[i] = BigDecimal.valueOf(newtonMethod(mid)).setScale(8, RoundingMode.HALF_UP).doubleValue();
-        }
-        System.out.println(Arrays.toString(solutions));
-        return solutions;
+        RefinementEvent event = new RefinementEvent();
+        event.begin();
+        int iterationsBefore = budget.getIterations();
+        try {
+            for(int i = 0; i < solutions.length; i++) {
+                budget.reportProgress(0.5 + 0.5 * i / solutions.length);
+                double[] interval = intervals.get(i);
+                mid = (interval[0] + interval[1]) / 2;
+                solutions[i] = round(newtonMethod(mid, interval[0], interval[1], budget));
+            }
+            event.outcome = budget.getStatus().name();
+        }
+        finally {
+            commitRefinementEvent(event, "newton", solutions.length, budget.getIterations() - iterationsBefore);
+        }
+        budget.reportProgress(1);
+        SolverMetrics.stopTimer(SolverMetrics.Operation.POLYNOMIAL_SOLVE, start);
+        return budget.finish(solutions);
+    }
+    /**
+     * Rounds a root to the 8 decimal places reported by the solvers.
+     *
+     * @param root The root.
+     * @return The rounded root.
+     */
+    private static double round(double root){
+        return BigDecimal.valueOf(root).setScale(8, RoundingMode.HALF_UP).doubleValue();
+    }
+    /**
+     * Checks whether the roots of the polynomial have a closed form, which is the case for the degrees
+     * 1 to {@value ClosedFormSolver#MAX_DEGREE}.
+     *
+     * @return {@code true} if {@link #solve(SolveOptions)} tries the closed forms first.
+     */
+    private boolean hasClosedForm(){
+        int length = trimmedLength(coefficients, coefficients.length);
+        return length >= 2 && length <= ClosedFormSolver.MAX_DEGREE + 1;
+    }
+    /**
+     * Finds the distinct real roots of a polynomial of degree 1 to {@value ClosedFormSolver#MAX_DEGREE}
+     * with the closed forms of {@link ClosedFormSolver}, without generating the Sturm sequence.
+     *
+     * @return The distinct real roots in increasing order, or {@code null} if the polynomial has a
+     * multiple root, or nearly one, that the closed forms cannot resolve.
+     */
+    private double[] closedFormRoots(){
+        int length = trimmedLength(coefficients, coefficients.length);
+        return ClosedFormSolver.solve(length == coefficients.length ? coefficients : Arrays.copyOf(coefficients, length));
     }
     /**
      * Checks if the polynomial equation is solvable.
      *
      * <p>This method determines whether the polynomial equation has any real roots by analyzing its
-     * Sturm sequence and counting the number of sign changes in the sequence.
+     * Sturm sequence and counting the number of sign changes in the sequence, or from the closed form of
+     * its roots when its degree is at most {@value ClosedFormSolver#MAX_DEGREE}.
      *
      * @return {@code true} if the polynomial equation is solvable; {@code false} otherwise.
      */
     public boolean isSolvable(){
+        double[] closedForm = hasClosedForm() ? closedFormRoots() : null;
+        if (closedForm != null){
+            return closedForm.length != 0;
+        }
         return numberOfRootsOn() != 0;
     }
 
@@ -480,6 +1144,20 @@ public class Polynomial extends Function implements Cloneable {
      * @return The interpolating polynomial.
      */
     public Polynomial interpolate(List<Point> points) {
+        return interpolate(points, CancellationToken.NONE);
+    }
+
+    /**
+     * Interpolates a polynomial that passes through a given set of points, as {@link #interpolate(List)}
+     * does, letting another thread cancel the computation.
+     *
+     * @param points The list of points through which the polynomial should pass.
+     * @param token  The token checked for every row of divided differences and every basis polynomial,
+     *               which also receives the progress.
+     * @return The interpolating polynomial.
+     * @throws java.util.concurrent.CancellationException If the token is cancelled before the polynomial is computed.
+     */
+    public Polynomial interpolate(List<Point> points, CancellationToken token) {
         int n = points.size();
         double[] x = new double[n];
         double[] y = new double[n];
@@ -494,6 +1172,7 @@ public class Polynomial extends Function implements Cloneable {
             dividedDifferences[0][i] = y[i];
         }
         for (int i = 1; i < n; i++) {
+            token.reportProgress(0.5 * i / n);
             for (int j = 0; j < n-i ; j++) {
                 dividedDifferences[i][j] = (dividedDifferences[i-1][j+1] - dividedDifferences[i-1][j]) / (x[i+j] - x[j]);
             }
@@ -503,6 +1182,7 @@ public class Polynomial extends Function implements Cloneable {
         double[][] coeffsArray = new double[n][n];
         coeffsArray[0][0]=1;
         for (int i=1;i<n;i++){
+            token.reportProgress(0.5 + 0.5 * i / n);
             double[] newTerm = new double[2];
             newTerm[0]=-x[i-1];
             newTerm[1]=1;
@@ -526,7 +1206,39 @@ public class Polynomial extends Function implements Cloneable {
             columnSums[j] = sum;
         }
 
-        return generateFromCoefficients(columnSums);
+        return new Polynomial(columnSums);
+    }
+
+    /**
+     * Fits a polynomial of a given degree to a set of points by least squares.
+     *
+     * <p>Unlike {@link #interpolate(List)}, the polynomial does not pass through the points but minimizes
+     * the sum of the squares of its distances to them, so that noise in the points is averaged out.
+     * The points are added to a {@link PolynomialFitter} on the interval they span; points arriving
+     * over time can be fitted with the fitter directly.
+     *
+     * @param points The points.
+     * @param degree The degree of the polynomial.
+     * @return The fitted polynomial.
+     * @throws IllegalArgumentException If the degree is negative.
+     * @throws ArithmeticException      If there are not enough distinct abscissas to determine the polynomial.
+     */
+    public static Polynomial fit(List<Point> points, int degree) {
+        double lower = Double.POSITIVE_INFINITY;
+        double upper = Double.NEGATIVE_INFINITY;
+        for (Point point : points) {
+            lower = Math.min(lower, point.getX());
+            upper = Math.max(upper, point.getX());
+        }
+        if (!(lower < upper)) {
+            lower = points.isEmpty() ? -1 : lower - 1;
+            upper = lower + 2;
+        }
+        PolynomialFitter fitter = new PolynomialFitter(degree, lower, upper);
+        for (Point point : points) {
+            fitter.add(point);
+        }
+        return fitter.getPolynomial();
     }
 
     /**
@@ -0,0 +1,308 @@
+package equationSolver.core.function;
+
+/**
+ * Fits a polynomial of bounded degree to a stream of points by least squares, in memory that does not
+ * depend on the number of points.
+ * <p>
+ * The fit minimizes {@code sum (p(x_i) - y_i)^2} over the polynomials of the degree. It is computed from
+ * the QR decomposition of the system whose rows are the basis polynomials at {@code x_i}, augmented with
+ * {@code y_i}; only the triangular factor is kept, {@code (d + 1) x (d + 2)} numbers, and every new point
+ * is rotated into it by {@code d + 1} Givens rotations, in {@code O(d^2)} operations. The part of
+ * {@code y} rotated out of the triangle is accumulated as the squared norm of the residual. Since the
+ * factor of a subset of the leading columns is the leading block of the factor, the fits of every
+ * lower degree are available from the same state.
+ * <p>
+ * The basis is the Chebyshev polynomials of {@code (x - c) / h}, where {@code [c - h, c + h]} is the
+ * interval given to the constructor: on that interval their values stay in {@code [-1, 1]}, so the
+ * system is well conditioned even for degrees where the monomials are nearly dependent. Points outside
+ * the interval are accepted, but the conditioning degrades with their distance from it.
+ * <p>
+ * A fitter is not thread-safe. To fit points from parallel shards, give each shard its own fitter with
+ * the same degree and interval, and {@linkplain #merge merge} them: the triangular factor of the stacked
+ * factors is that of all the points.
+ */
+public final class PolynomialFitter {
+    private final int degree;
+    private final double center;
+    private final double halfWidth;
+    /**
+     * The rows of the triangular factor, the last column holding {@code Q^T y}.
+     */
+    private final double[][] r;
+    private final double[] row;
+    private double residualSquares;
+    private long count;
+
+    /**
+     * Constructs a fitter for points whose abscissas lie in {@code [-1, 1]}.
+     *
+     * @param degree The degree of the fitted polynomial.
+     * @throws IllegalArgumentException If the degree is negative.
+     */
+    public PolynomialFitter(int degree) {
+        this(degree, -1, 1);
+    }
+
+    /**
+     * Constructs a fitter for points whose abscissas lie in an interval.
+     *
+     * @param degree The degree of the fitted polynomial.
+     * @param lower  The lower bound of the abscissas.
+     * @param upper  The upper bound of the abscissas.
+     * @throws IllegalArgumentException If the degree is negative or the interval is empty or infinite.
+     */
+    public PolynomialFitter(int degree, double lower, double upper) {
+        if (degree < 0) {
+            throw new IllegalArgumentException("Expected a nonnegative degree but got " + degree);
+        }
+        if (!(lower < upper) || Double.isInfinite(upper - lower)) {
+            throw new IllegalArgumentException("Expected a finite interval but got [" + lower + ", " + upper + "]");
+        }
+        this.degree = degree;
+        center = lower / 2 + upper / 2;
+        halfWidth = upper / 2 - lower / 2;
+        r = new double[degree + 1][degree + 2];
+        row = new double[degree + 2];
+    }
+
+    /**
+     * Gets the degree of the fitted polynomial.
+     *
+     * @return The degree.
+     */
+    public int getDegree() {
+        return degree;
+    }
+
+    /**
+     * Gets the number of points added, including those of the merged fitters.
+     *
+     * @return The number of points.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Adds a point to the fit.
+     *
+     * @param x The abscissa.
+     * @param y The ordinate.
+     */
+    public void add(double x, double y) {
+        double t = (x - center) / halfWidth;
+        row[0] = 1;
+        if (degree > 0) {
+            row[1] = t;
+        }
+        for (int k = 2; k <= degree; k++) {
+            row[k] = 2 * t * row[k - 1] - row[k - 2];
+        }
+        row[degree + 1] = y;
+        absorb();
+        count++;
+    }
+
+    /**
+     * Adds a point to the fit.
+     *
+     * @param point The point.
+     */
+    public void add(Point point) {
+        add(point.getX(), point.getY());
+    }
+
+    /**
+     * Adds the points {@code (x[i], y[i])} to the fit.
+     *
+     * @param x The abscissas.
+     * @param y The ordinates.
+     * @throws IllegalArgumentException If the arrays do not have the same length.
+     */
+    public void addAll(double[] x, double[] y) {
+        if (x.length != y.length) {
+            throw new IllegalArgumentException("Expected arrays of length " + x.length + " but got " + y.length);
+        }
+        for (int i = 0; i < x.length; i++) {
+            add(x[i], y[i]);
+        }
+    }
+
+    /**
+     * Adds the points of another fitter to this one, as if they had been added to it.
+     *
+     * @param other The fitter, which is not modified.
+     * @throws IllegalArgumentException If the fitter does not have the same degree and interval.
+     */
+    public void merge(PolynomialFitter other) {
+        if (other.degree != degree || other.center != center || other.halfWidth != halfWidth) {
+            throw new IllegalArgumentException("Cannot merge fitters of different degrees or intervals");
+        }
+        for (int k = 0; k <= degree; k++) {
+            System.arraycopy(other.r[k], 0, row, 0, row.length);
+            absorb();
+        }
+        residualSquares += other.residualSquares;
+        count += other.count;
+    }
+
+    /**
+     * Rotates the scratch row into the triangular factor, one Givens rotation per column, and
+     * accumulates what is left of its last element into the residual.
+     */
+    private void absorb() {
+        int last = degree + 1;
+        for (int k = 0; k <= degree; k++) {
+            double b = row[k];
+            if (b == 0) {
+                continue;
+            }
+            double[] target = r[k];
+            double a = target[k];
+            double norm = Math.sqrt(a * a + b * b);
+            double cos = a / norm;
+            double sin = b / norm;
+            target[k] = norm;
+            for (int j = k + 1; j <= last; j++) {
+                double upper = target[j];
+                double lower = row[j];
+                target[j] = cos * upper + sin * lower;
+                row[j] = cos * lower - sin * upper;
+            }
+        }
+        residualSquares += row[last] * row[last];
+    }
+
+    /**
+     * Gets the polynomial of the fitted degree that best fits the points so far.
+     *
+     * @return The polynomial, in powers of {@code x}.
+     * @throws ArithmeticException If there are not enough distinct abscissas to determine the polynomial.
+     */
+    public Polynomial getPolynomial() {
+        return getPolynomial(degree);
+    }
+
+    /**
+     * Gets the polynomial of a degree up to the fitted one that best fits the points so far.
+     *
+     * @param degree The degree.
+     * @return The polynomial, in powers of {@code x}.
+     * @throws IllegalArgumentException If the degree is negative or above the fitted degree.
+     * @throws ArithmeticException      If there are not enough distinct abscissas to determine the polynomial.
+     */
+    public Polynomial getPolynomial(int degree) {
+        double[] chebyshev = solve(degree);
+        // Expand sum c_k T_k(u) with u = (x - center) / halfWidth, building T_k(u) in powers of x.
+        double[] coefficients = new double[degree + 1];
+        double[] previous = new double[degree + 1];
+        double[] current = new double[degree + 1];
+        double[] u = {-center / halfWidth, 1 / halfWidth};
+        previous[0] = 1;
+        coefficients[0] = chebyshev[0];
+        if (degree > 0) {
+            current[0] = u[0];
+            current[1] = u[1];
+            coefficients[0] += chebyshev[1] * u[0];
+            coefficients[1] += chebyshev[1] * u[1];
+        }
+        for (int k = 2; k <= degree; k++) {
+            double[] next = new double[degree + 1];
+            for (int j = 0; j < k; j++) {
+                next[j] += 2 * u[0] * current[j];
+                next[j + 1] += 2 * u[1] * current[j];
+            }
+            for (int j = 0; j < k - 1; j++) {
+                next[j] -= previous[j];
+            }
+            for (int j = 0; j <= k; j++) {
+                coefficients[j] += chebyshev[k] * next[j];
+            }
+            previous = current;
+            current = next;
+        }
+        return new Polynomial(coefficients);
+    }
+
+    /**
+     * Evaluates the best fit of the fitted degree at a point, from its Chebyshev coefficients by
+     * Clenshaw's recurrence, which is more accurate than evaluating {@link #getPolynomial()} far from 0.
+     *
+     * @param x The point.
+     * @return The value of the fitted polynomial.
+     * @throws ArithmeticException If there are not enough distinct abscissas to determine the polynomial.
+     */
+    public double valueAt(double x) {
+        double[] chebyshev = solve(degree);
+        double t = (x - center) / halfWidth;
+        double next = 0;
+        double afterNext = 0;
+        for (int k = degree; k > 0; k--) {
+            double current = chebyshev[k] + 2 * t * next - afterNext;
+            afterNext = next;
+            next = current;
+        }
+        return chebyshev[0] + t * next - afterNext;
+    }
+
+    /**
+     * Gets the Euclidean norm of the residuals {@code p(x_i) - y_i} of the best fit of the fitted degree.
+     *
+     * @return The norm of the residuals.
+     */
+    public double getResidualNorm() {
+        return getResidualNorm(degree);
+    }
+
+    /**
+     * Gets the Euclidean norm of the residuals of the best fit of a degree up to the fitted one. The
+     * components of {@code Q^T y} beyond the leading block of that degree add to the residual.
+     *
+     * @param degree The degree.
+     * @return The norm of the residuals.
+     * @throws IllegalArgumentException If the degree is negative or above the fitted degree.
+     */
+    public double getResidualNorm(int degree) {
+        checkDegree(degree);
+        double squares = residualSquares;
+        for (int k = degree + 1; k <= this.degree; k++) {
+            squares += r[k][this.degree + 1] * r[k][this.degree + 1];
+        }
+        return Math.sqrt(squares);
+    }
+
+    /**
+     * Solves the leading block of the triangular factor for the Chebyshev coefficients of a fit.
+     *
+     * @param degree The degree of the fit.
+     * @return The Chebyshev coefficients, lowest degree first.
+     */
+    private double[] solve(int degree) {
+        checkDegree(degree);
+        int last = this.degree + 1;
+        double largest = 0;
+        for (int k = 0; k <= degree; k++) {
+            largest = Math.max(largest, Math.abs(r[k][k]));
+        }
+        double tolerance = largest * Math.ulp(1.0) * Math.sqrt(count);
+        double[] chebyshev = new double[degree + 1];
+        for (int k = degree; k >= 0; k--) {
+            double[] rowK = r[k];
+            if (!(Math.abs(rowK[k]) > tolerance)) {
+                throw new ArithmeticException("Not enough distinct points to fit a polynomial of degree " + degree);
+            }
+            double sum = rowK[last];
+            for (int j = k + 1; j <= degree; j++) {
+                sum -= rowK[j] * chebyshev[j];
+            }
+            chebyshev[k] = sum / rowK[k];
+        }
+        return chebyshev;
+    }
+
+    private void checkDegree(int degree) {
+        if (degree < 0 || degree > this.degree) {
+            throw new IllegalArgumentException("Expected a degree between 0 and " + this.degree + " but got " + degree);
+        }
+    }
+}
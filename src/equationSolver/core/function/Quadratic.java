@@ -1,8 +1,10 @@
 package equationSolver.core.function;
 
 import equationSolver.core.expression.PolynomialExpression;
+import equationSolver.core.solver.SolveOptions;
+import equationSolver.core.solver.SolveResult;
 
-import static java.lang.Math.sqrt;
+import java.util.Arrays;
 
 public class Quadratic extends Polynomial{
     public Quadratic(PolynomialExpression equation){
@@ -10,22 +12,20 @@ public class Quadratic extends Polynomial{
     }
     public double[] solve(){
         if (!isSolvable()){
-            return null;
+            return new double[0];
         }
-        double[] coefficients = getCoefficients();
         double[] solutions = new double[2];
-        double discriminant = Math.pow(coefficients[1], 2) - (4 * coefficients[0] * coefficients[2]);
-        if (discriminant == 0){
-            solutions[0] = (-coefficients[1]) / (2 * coefficients[0]);
+        if (ClosedFormSolver.quadratic(getCoefficient(2), getCoefficient(1), getCoefficient(0), solutions, 0) == 1){
             solutions[1] = solutions[0];
-            return solutions;
         }
-        solutions[0] = (-coefficients[1] - sqrt(discriminant)) / (2 * coefficients[2]);
-        solutions[1] = (-coefficients[1] + sqrt(discriminant)) / (2 * coefficients[2]);
+        Arrays.sort(solutions);
         return solutions;
     }
+    protected SolveResult<double[]> solve(SolveOptions options){
+        options.getToken().throwIfCancelled();
+        return options.newBudget().finish(solve());
+    }
     public boolean isSolvable() {
-        double[] coefficients = getCoefficients();
-        return Math.pow(coefficients[1], 2)-4*coefficients[0]*coefficients[2]>0;
+        return ClosedFormSolver.discriminant(getCoefficient(2), getCoefficient(1), getCoefficient(0)) >= 0;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,103 @@
+package equationSolver.core.function;
+
+/**
+ * Computes bounds on the absolute values of the roots of a polynomial from its coefficients.
+ * <p>
+ * Each classical bound is tight for some polynomials and loose for others, so {@link #of(double[])}
+ * takes the smallest of them. The bounds are rounded upwards, so that every root lies strictly inside
+ * {@code (-bound, bound)} even after the rounding of the computation.
+ */
+public final class RootBounds {
+    /**
+     * The relative margin added to every bound to absorb the rounding errors of its computation.
+     */
+    private static final double MARGIN = 1 + 0x1p-40;
+
+    private RootBounds() {
+    }
+
+    /**
+     * Computes the tightest of the Cauchy, Fujiwara and Lagrange bounds.
+     *
+     * @param coefficients The coefficients of the polynomial, lowest degree first.
+     * @return A bound larger than the absolute value of every root, or 0 if the polynomial is constant.
+     */
+    public static double of(double[] coefficients) {
+        return Math.min(cauchy(coefficients), Math.min(fujiwara(coefficients), lagrange(coefficients)));
+    }
+
+    /**
+     * Computes the Cauchy bound {@code 1 + max |a_i / a_n|}.
+     *
+     * @param coefficients The coefficients of the polynomial, lowest degree first.
+     * @return A bound larger than the absolute value of every root, or 0 if the polynomial is constant.
+     */
+    public static double cauchy(double[] coefficients) {
+        int degree = degree(coefficients);
+        if (degree < 1) {
+            return 0;
+        }
+        double lead = Math.abs(coefficients[degree]);
+        double max = 0;
+        for (int i = 0; i < degree; i++) {
+            max = Math.max(max, Math.abs(coefficients[i]) / lead);
+        }
+        return (1 + max) * MARGIN;
+    }
+
+    /**
+     * Computes the Fujiwara bound {@code 2 max(|a_(n-1) / a_n|, |a_(n-2) / a_n|^(1/2), ..., |a_0 / (2 a_n)|^(1/n))}.
+     *
+     * @param coefficients The coefficients of the polynomial, lowest degree first.
+     * @return A bound larger than the absolute value of every root, or 0 if the polynomial is constant.
+     */
+    public static double fujiwara(double[] coefficients) {
+        int degree = degree(coefficients);
+        if (degree < 1) {
+            return 0;
+        }
+        double lead = Math.abs(coefficients[degree]);
+        double max = 0;
+        for (int k = 1; k <= degree; k++) {
+            double ratio = Math.abs(coefficients[degree - k]) / lead;
+            if (k == degree) {
+                ratio /= 2;
+            }
+            max = Math.max(max, Math.pow(ratio, 1.0 / k));
+        }
+        return Math.max(2 * max * MARGIN, Double.MIN_VALUE);
+    }
+
+    /**
+     * Computes the Lagrange bound {@code max(1, sum |a_i / a_n|)}.
+     *
+     * @param coefficients The coefficients of the polynomial, lowest degree first.
+     * @return A bound larger than the absolute value of every root, or 0 if the polynomial is constant.
+     */
+    public static double lagrange(double[] coefficients) {
+        int degree = degree(coefficients);
+        if (degree < 1) {
+            return 0;
+        }
+        double lead = Math.abs(coefficients[degree]);
+        double sum = 0;
+        for (int i = 0; i < degree; i++) {
+            sum += Math.abs(coefficients[i]) / lead;
+        }
+        return Math.max(1, sum) * MARGIN;
+    }
+
+    /**
+     * Gets the degree of a polynomial, ignoring zero leading coefficients.
+     *
+     * @param coefficients The coefficients of the polynomial, lowest degree first.
+     * @return The degree, or -1 for the zero polynomial.
+     */
+    private static int degree(double[] coefficients) {
+        int degree = coefficients.length - 1;
+        while (degree >= 0 && coefficients[degree] == 0) {
+            degree--;
+        }
+        return degree;
+    }
+}
@@ -0,0 +1,187 @@
+package equationSolver.core.kernel;
+
+/**
+ * The primitive array operations used in the inner loops of {@code Matrix} and {@code Polynomial}.
+ * <p>
+ * The implementation is chosen once at startup. If the {@code jdk.incubator.vector} module is
+ * available (for example with {@code --add-modules jdk.incubator.vector}) and the preferred vector
+ * species holds more than one {@code double}, a SIMD implementation is used. Otherwise, or if the
+ * system property {@value #KERNEL_PROPERTY} is set to {@code scalar}, plain loops are used.
+ * <p>
+ * The SIMD implementation lives in the separate source root {@code vector}, the only code compiled
+ * with {@code --add-modules jdk.incubator.vector}, so that {@code src} builds with a plain
+ * {@code javac} on any JDK. It is loaded by name, and is used only when its classes are on the class
+ * path and the module is added at run time:
+ * <pre>
+ * javac -d out $(find src -name '*.java')
+ * javac --add-modules jdk.incubator.vector -cp out -d out $(find vector -name '*.java')
+ * java --add-modules jdk.incubator.vector -cp out equationSolver.Main
+ * </pre>
+ */
+public abstract class ArrayKernel {
+    /**
+     * The system property that forces the scalar kernel when set to {@code scalar}.
+     */
+    public static final String KERNEL_PROPERTY = "equationSolver.kernel";
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_KERNEL = "equationSolver.core.kernel.VectorKernel";
+    private static final ArrayKernel INSTANCE = select();
+
+    /**
+     * Gets the kernel selected at startup.
+     *
+     * @return The kernel.
+     */
+    public static ArrayKernel getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Gets the scalar kernel, regardless of the kernel selected at startup.
+     *
+     * @return The scalar kernel.
+     */
+    public static ArrayKernel getScalarInstance() {
+        return ScalarKernel.INSTANCE;
+    }
+
+    /**
+     * Selects the vector kernel if the vector module is present and worthwhile, and the scalar kernel otherwise.
+     *
+     * @return The selected kernel.
+     */
+    private static ArrayKernel select() {
+        if ("scalar".equals(System.getProperty(KERNEL_PROPERTY))
+                || ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return ScalarKernel.INSTANCE;
+        }
+        try {
+            ArrayKernel kernel = (ArrayKernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+            if (kernel.getLaneCount() > 1) {
+                return kernel;
+            }
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // The vector API is not usable on this JVM.
+        }
+        return ScalarKernel.INSTANCE;
+    }
+
+    /**
+     * Gets the number of doubles processed by one instruction.
+     *
+     * @return The number of lanes, 1 for the scalar kernel.
+     */
+    public abstract int getLaneCount();
+
+    /**
+     * Adds a multiple of one array to another: {@code target[targetOffset + k] += factor * source[sourceOffset + k]}
+     * for {@code 0 <= k < length}.
+     *
+     * @param factor       The factor.
+     * @param source       The array to add.
+     * @param sourceOffset The first index in the source array.
+     * @param target       The array to add to.
+     * @param targetOffset The first index in the target array.
+     * @param length       The number of elements.
+     */
+    public abstract void addMultiple(double factor, double[] source, int sourceOffset, double[] target, int targetOffset, int length);
+
+    /**
+     * Multiplies every element of an array by a scalar.
+     *
+     * @param array  The array.
+     * @param scalar The scalar.
+     */
+    public abstract void scale(double[] array, double scalar);
+
+    /**
+     * Evaluates the polynomial with the specified coefficients, lowest degree first.
+     *
+     * @param coefficients The coefficients.
+     * @param x            The value at which to evaluate the polynomial.
+     * @return The value of the polynomial, 0 if there are no coefficients.
+     */
+    public abstract double evaluate(double[] coefficients, double x);
+
+    /**
+     * Evaluates the polynomial with the specified coefficients at many points. The points are independent,
+     * so several Horner chains run side by side instead of waiting on each other's multiplications.
+     *
+     * @param coefficients The coefficients, lowest degree first.
+     * @param points       The values at which to evaluate the polynomial.
+     * @param values       The array receiving the value at {@code points[i]} in {@code values[i]}.
+     */
+    public abstract void evaluate(double[] coefficients, double[] points, double[] values);
+
+    /**
+     * Solves the quadratic equations {@code a[i]x^2 + b[i]x + c[i] = 0} for {@code from <= i < to}.
+     * <p>
+     * The discriminant is computed with the rounding errors of {@code b^2} and {@code 4ac} recovered by
+     * fused multiply-adds, and the roots as {@code q/a} and {@code c/q} with
+     * {@code q = -(b + sign(b) sqrt(D)) / 2}, so that neither cancels. An equation with {@code a = 0}
+     * is solved as a linear equation.
+     *
+     * @param a       The coefficients of {@code x^2}.
+     * @param b       The coefficients of {@code x}.
+     * @param c       The constant terms.
+     * @param from    The first equation.
+     * @param to      The index after the last equation.
+     * @param smaller The array receiving the smaller root, NaN if there is none.
+     * @param larger  The array receiving the larger root, equal to the smaller one if the roots are equal
+     *                and NaN if there is none.
+     * @param counts  The array receiving the number of distinct real roots, 0, 1 or 2.
+     */
+    public abstract void solveQuadratics(double[] a, double[] b, double[] c, int from, int to,
+                                         double[] smaller, double[] larger, int[] counts);
+
+    /**
+     * Gets the number of columns of the panels multiplied by {@link #multiplyPanel}.
+     *
+     * @return The panel width.
+     */
+    public abstract int getPanelWidth();
+
+    /**
+     * Multiplies a block of rows of a matrix {@code A} by a packed panel of columns of a matrix {@code B}
+     * and adds the product to a matrix {@code C}:
+     * {@code c[i][column + j] += a[i][k] * panel[k * w + j]} summed over {@code kFrom <= k < kTo}, for
+     * {@code rowFrom <= i < rowTo} and {@code 0 <= j < columns}, where {@code w} is the
+     * {@linkplain #getPanelWidth() panel width}.
+     * <p>
+     * This is the inner kernel of matrix multiplication: several rows of {@code C} and the whole width
+     * of the panel are accumulated in registers while {@code k} runs, so that every element loaded from
+     * {@code A} or the panel is used for several multiply-adds.
+     *
+     * @param a       The rows of {@code A}.
+     * @param rowFrom The first row.
+     * @param rowTo   The index after the last row.
+     * @param kFrom   The first column of {@code A} and row of the panel.
+     * @param kTo     The index after the last column of {@code A} and row of the panel.
+     * @param panel   The panel, {@code w} consecutive columns of {@code B} stored row by row, padded with
+     *                zeros to the full width.
+     * @param c       The rows of {@code C}.
+     * @param column  The column of {@code C} receiving the first column of the panel.
+     * @param columns The number of columns of the panel to add to {@code C}, at most {@code w}.
+     */
+    public abstract void multiplyPanel(double[][] a, int rowFrom, int rowTo, int kFrom, int kTo,
+                                       double[] panel, double[][] c, int column, int columns);
+
+    /**
+     * Multiplies two arrays representing polynomials.
+     *
+     * @param first  The coefficients of the first polynomial.
+     * @param second The coefficients of the second polynomial.
+     * @return The coefficients of the product polynomial.
+     */
+    public double[] multiply(double[] first, double[] second) {
+        double[] result = new double[first.length + second.length - 1];
+        double[] shorter = first.length <= second.length ? first : second;
+        double[] longer = shorter == first ? second : first;
+        for (int i = 0; i < shorter.length; i++) {
+            if (shorter[i] != 0) {
+                addMultiple(shorter[i], longer, 0, result, i, longer.length);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,172 @@
+package equationSolver.core.kernel;
+
+/**
+ * The {@link ArrayKernel} implemented with plain loops.
+ */
+class ScalarKernel extends ArrayKernel {
+    static final ScalarKernel INSTANCE = new ScalarKernel();
+    private static final int PANEL_WIDTH = 4;
+
+    public int getLaneCount() {
+        return 1;
+    }
+
+    public void addMultiple(double factor, double[] source, int sourceOffset, double[] target, int targetOffset, int length) {
+        for (int k = 0; k < length; k++) {
+            target[targetOffset + k] += factor * source[sourceOffset + k];
+        }
+    }
+
+    public void scale(double[] array, double scalar) {
+        for (int i = 0; i < array.length; i++) {
+            array[i] *= scalar;
+        }
+    }
+
+    public double evaluate(double[] coefficients, double x) {
+        double result = 0;
+        for (int i = coefficients.length - 1; i >= 0; i--) {
+            result = result * x + coefficients[i];
+        }
+        return result;
+    }
+
+    /**
+     * Evaluates four points per pass over the coefficients.
+     */
+    public void evaluate(double[] coefficients, double[] points, double[] values) {
+        int i = 0;
+        for (; i + 4 <= points.length; i += 4) {
+            double x0 = points[i];
+            double x1 = points[i + 1];
+            double x2 = points[i + 2];
+            double x3 = points[i + 3];
+            double r0 = 0;
+            double r1 = 0;
+            double r2 = 0;
+            double r3 = 0;
+            for (int k = coefficients.length - 1; k >= 0; k--) {
+                double c = coefficients[k];
+                r0 = r0 * x0 + c;
+                r1 = r1 * x1 + c;
+                r2 = r2 * x2 + c;
+                r3 = r3 * x3 + c;
+            }
+            values[i] = r0;
+            values[i + 1] = r1;
+            values[i + 2] = r2;
+            values[i + 3] = r3;
+        }
+        for (; i < points.length; i++) {
+            values[i] = evaluate(coefficients, points[i]);
+        }
+    }
+
+    public void solveQuadratics(double[] a, double[] b, double[] c, int from, int to,
+                                double[] smaller, double[] larger, int[] counts) {
+        for (int i = from; i < to; i++) {
+            double ai = a[i];
+            double bi = b[i];
+            double ci = c[i];
+            double root1;
+            double root2;
+            if (ai == 0) {
+                root1 = bi == 0 ? Double.NaN : -ci / bi;
+                root2 = root1;
+            } else {
+                double square = bi * bi;
+                double fourA = 4 * ai;
+                double product = fourA * ci;
+                double discriminant = (square - product) + (Math.fma(bi, bi, -square) - Math.fma(fourA, ci, -product));
+                double q = -0.5 * (bi + Math.copySign(Math.sqrt(discriminant), bi));
+                root1 = q / ai;
+                root2 = q == 0 ? root1 : ci / q;
+            }
+            double low = Math.min(root1, root2);
+            double high = Math.max(root1, root2);
+            smaller[i] = low;
+            larger[i] = high;
+            counts[i] = low != low ? 0 : low == high ? 1 : 2;
+        }
+    }
+
+    public int getPanelWidth() {
+        return PANEL_WIDTH;
+    }
+
+    /**
+     * Accumulates blocks of four rows by the four columns of the panel in sixteen local variables, and
+     * the rows beyond the last block of four one at a time.
+     */
+    public void multiplyPanel(double[][] a, int rowFrom, int rowTo, int kFrom, int kTo,
+                              double[] panel, double[][] c, int column, int columns) {
+        int i = rowFrom;
+        for (; i + 4 <= rowTo; i += 4) {
+            double[] a0 = a[i];
+            double[] a1 = a[i + 1];
+            double[] a2 = a[i + 2];
+            double[] a3 = a[i + 3];
+            double c00 = 0, c01 = 0, c02 = 0, c03 = 0;
+            double c10 = 0, c11 = 0, c12 = 0, c13 = 0;
+            double c20 = 0, c21 = 0, c22 = 0, c23 = 0;
+            double c30 = 0, c31 = 0, c32 = 0, c33 = 0;
+            for (int k = kFrom; k < kTo; k++) {
+                int p = k * PANEL_WIDTH;
+                double b0 = panel[p];
+                double b1 = panel[p + 1];
+                double b2 = panel[p + 2];
+                double b3 = panel[p + 3];
+                double x = a0[k];
+                c00 += x * b0;
+                c01 += x * b1;
+                c02 += x * b2;
+                c03 += x * b3;
+                x = a1[k];
+                c10 += x * b0;
+                c11 += x * b1;
+                c12 += x * b2;
+                c13 += x * b3;
+                x = a2[k];
+                c20 += x * b0;
+                c21 += x * b1;
+                c22 += x * b2;
+                c23 += x * b3;
+                x = a3[k];
+                c30 += x * b0;
+                c31 += x * b1;
+                c32 += x * b2;
+                c33 += x * b3;
+            }
+            addRow(c[i], column, columns, c00, c01, c02, c03);
+            addRow(c[i + 1], column, columns, c10, c11, c12, c13);
+            addRow(c[i + 2], column, columns, c20, c21, c22, c23);
+            addRow(c[i + 3], column, columns, c30, c31, c32, c33);
+        }
+        for (; i < rowTo; i++) {
+            double[] row = a[i];
+            double c0 = 0, c1 = 0, c2 = 0, c3 = 0;
+            for (int k = kFrom; k < kTo; k++) {
+                int p = k * PANEL_WIDTH;
+                double x = row[k];
+                c0 += x * panel[p];
+                c1 += x * panel[p + 1];
+                c2 += x * panel[p + 2];
+                c3 += x * panel[p + 3];
+            }
+            addRow(c[i], column, columns, c0, c1, c2, c3);
+        }
+    }
+
+    private static void addRow(double[] row, int column, int columns, double c0, double c1, double c2, double c3) {
+        row[column] += c0;
+        if (columns > 1) {
+            row[column + 1] += c1;
+        }
+        if (columns > 2) {
+            row[column + 2] += c2;
+        }
+        if (columns > 3) {
+            row[column + 3] += c3;
+        }
+    }
+}
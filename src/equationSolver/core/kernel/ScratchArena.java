@@ -0,0 +1,80 @@
+package equationSolver.core.kernel;
+
+import java.util.Arrays;
+
+/**
+ * A per-thread stack of reusable {@code double[]} buffers for the temporaries of polynomial and matrix
+ * arithmetic.
+ * <p>
+ * Buffers are taken with {@link #allocate(int)} between a {@link #mark()} and the matching
+ * {@link #release(int)}, which returns every buffer taken since the mark to the arena:
+ * <pre>{@code
+ * ScratchArena arena = ScratchArena.get();
+ * int mark = arena.mark();
+ * try {
+ *     double[] work = arena.allocate(n);
+ *     ...
+ * } finally {
+ *     arena.release(mark);
+ * }
+ * }</pre>
+ * Once the arena has grown to the largest sizes a computation needs, repeating it allocates nothing.
+ * An arena is confined to its thread, so it needs no synchronization, and its buffers must not escape
+ * the region between the mark and the release: results that outlive it are copied into fresh arrays.
+ */
+public final class ScratchArena {
+    private static final ThreadLocal<ScratchArena> ARENA = ThreadLocal.withInitial(ScratchArena::new);
+    private double[][] buffers = new double[8][];
+    private int top;
+
+    private ScratchArena() {
+    }
+
+    /**
+     * Gets the arena of the current thread.
+     *
+     * @return The arena of the current thread.
+     */
+    public static ScratchArena get() {
+        return ARENA.get();
+    }
+
+    /**
+     * Marks the current top of the arena.
+     *
+     * @return The mark to pass to {@link #release(int)}.
+     */
+    public int mark() {
+        return top;
+    }
+
+    /**
+     * Returns every buffer allocated since a mark to the arena.
+     *
+     * @param mark The mark returned by {@link #mark()}.
+     */
+    public void release(int mark) {
+        top = mark;
+    }
+
+    /**
+     * Takes a zeroed buffer from the arena.
+     *
+     * @param length The number of elements needed.
+     * @return A buffer of at least {@code length} elements, the first {@code length} of which are zero.
+     */
+    public double[] allocate(int length) {
+        if (top == buffers.length) {
+            buffers = Arrays.copyOf(buffers, 2 * buffers.length);
+        }
+        double[] buffer = buffers[top];
+        if (buffer == null || buffer.length < length) {
+            buffer = new double[Math.max(length, buffer == null ? 16 : 2 * buffer.length)];
+            buffers[top] = buffer;
+        } else {
+            Arrays.fill(buffer, 0, length, 0.0);
+        }
+        top++;
+        return buffer;
+    }
+}
@@ -0,0 +1,20 @@
+package equationSolver.core.metrics;
+
+import java.util.Map;
+
+/**
+ * The JMX view of the counters of a {@link DefaultMetricsRegistry}.
+ */
+public interface CountersMXBean {
+    /**
+     * Gets the value of every counter.
+     *
+     * @return The values, by counter name.
+     */
+    Map<String, Long> getCounts();
+
+    /**
+     * Resets the counters and the latency histograms.
+     */
+    void reset();
+}
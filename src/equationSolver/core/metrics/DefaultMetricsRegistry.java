@@ -0,0 +1,149 @@
+package equationSolver.core.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the measurements in memory: counters in striped {@link LongAdder}s, so that solver threads do
+ * not contend on them, and latencies in {@link LatencyHistogram}s.
+ */
+public class DefaultMetricsRegistry extends MetricsRegistry {
+    /**
+     * The JMX domain of the registered MBeans.
+     */
+    public static final String JMX_DOMAIN = "equationSolver";
+    private final LongAdder[] counters = new LongAdder[SolverMetrics.Counter.values().length];
+    private final LatencyHistogram[] histograms = new LatencyHistogram[SolverMetrics.Operation.values().length];
+
+    /**
+     * Constructs a registry with every counter at 0 and every histogram empty.
+     */
+    public DefaultMetricsRegistry() {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    @Override
+    public void increment(SolverMetrics.Counter counter, long amount) {
+        counters[counter.ordinal()].add(amount);
+    }
+
+    @Override
+    public void recordLatency(SolverMetrics.Operation operation, long nanos) {
+        histograms[operation.ordinal()].record(nanos);
+    }
+
+    /**
+     * Gets the value of a counter.
+     *
+     * @param counter The counter.
+     * @return The value of the counter.
+     */
+    public long getCount(SolverMetrics.Counter counter) {
+        return counters[counter.ordinal()].sum();
+    }
+
+    /**
+     * Gets the latency histogram of an operation.
+     *
+     * @param operation The operation.
+     * @return The histogram, which keeps recording.
+     */
+    public LatencyHistogram getHistogram(SolverMetrics.Operation operation) {
+        return histograms[operation.ordinal()];
+    }
+
+    /**
+     * Resets every counter and histogram.
+     */
+    public void reset() {
+        for (LongAdder counter : counters) {
+            counter.reset();
+        }
+        for (LatencyHistogram histogram : histograms) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Registers the counters as {@code equationSolver:type=Counters} and every histogram as
+     * {@code equationSolver:type=Latency,operation=<name>}.
+     *
+     * @param server The MBean server, usually the platform MBean server.
+     * @throws JMException If the MBeans cannot be registered, for example because they already are.
+     */
+    public void registerMBeans(MBeanServer server) throws JMException {
+        server.registerMBean(new Counters(), new ObjectName(JMX_DOMAIN + ":type=Counters"));
+        for (SolverMetrics.Operation operation : SolverMetrics.Operation.values()) {
+            server.registerMBean(new Latency(getHistogram(operation)),
+                    new ObjectName(JMX_DOMAIN + ":type=Latency,operation=" + operation.name()));
+        }
+    }
+
+    private class Counters implements CountersMXBean {
+        @Override
+        public Map<String, Long> getCounts() {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            for (SolverMetrics.Counter counter : SolverMetrics.Counter.values()) {
+                counts.put(counter.name(), getCount(counter));
+            }
+            return counts;
+        }
+
+        @Override
+        public void reset() {
+            DefaultMetricsRegistry.this.reset();
+        }
+    }
+
+    private static class Latency implements LatencyMXBean {
+        private final LatencyHistogram histogram;
+
+        Latency(LatencyHistogram histogram) {
+            this.histogram = histogram;
+        }
+
+        @Override
+        public long getCount() {
+            return histogram.getCount();
+        }
+
+        @Override
+        public double getMean() {
+            return histogram.getMean();
+        }
+
+        @Override
+        public long getP50() {
+            return histogram.getValueAtPercentile(50);
+        }
+
+        @Override
+        public long getP90() {
+            return histogram.getValueAtPercentile(90);
+        }
+
+        @Override
+        public long getP99() {
+            return histogram.getValueAtPercentile(99);
+        }
+
+        @Override
+        public long getP999() {
+            return histogram.getValueAtPercentile(99.9);
+        }
+
+        @Override
+        public long getMax() {
+            return histogram.getMax();
+        }
+    }
+}
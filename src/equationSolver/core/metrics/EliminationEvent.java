@@ -0,0 +1,31 @@
+package equationSolver.core.metrics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Eliminating the variables of a linear system.
+ */
+@Name("equationSolver.Elimination")
+@Label("Elimination")
+@Description("Reduction of a matrix to its RREF, or LU decomposition of a square system")
+public class EliminationEvent extends SolverEvent {
+    /**
+     * The method, {@code gauss-jordan}, {@code modular}, {@code lu} or {@code out-of-core-lu}.
+     */
+    @Label("Method")
+    public String method;
+
+    /**
+     * The number of rows of the matrix.
+     */
+    @Label("Rows")
+    public int rows;
+
+    /**
+     * The number of columns of the matrix, including the constant terms.
+     */
+    @Label("Columns")
+    public int columns;
+}
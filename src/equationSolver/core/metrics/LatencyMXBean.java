@@ -0,0 +1,55 @@
+package equationSolver.core.metrics;
+
+/**
+ * The JMX view of the latency histogram of one operation, in nanoseconds.
+ */
+public interface LatencyMXBean {
+    /**
+     * Gets the number of recorded operations.
+     *
+     * @return The number of operations.
+     */
+    long getCount();
+
+    /**
+     * Gets the mean latency.
+     *
+     * @return The mean latency.
+     */
+    double getMean();
+
+    /**
+     * Gets the median latency.
+     *
+     * @return The median latency.
+     */
+    long getP50();
+
+    /**
+     * Gets the 90th percentile of the latency.
+     *
+     * @return The 90th percentile.
+     */
+    long getP90();
+
+    /**
+     * Gets the 99th percentile of the latency.
+     *
+     * @return The 99th percentile.
+     */
+    long getP99();
+
+    /**
+     * Gets the 99.9th percentile of the latency.
+     *
+     * @return The 99.9th percentile.
+     */
+    long getP999();
+
+    /**
+     * Gets the largest latency.
+     *
+     * @return The largest latency.
+     */
+    long getMax();
+}
@@ -0,0 +1,27 @@
+package equationSolver.core.metrics;
+
+/**
+ * Receives the measurements of the solvers.
+ * <p>
+ * {@link DefaultMetricsRegistry} keeps them in memory and exposes them over JMX. Another registry can
+ * be installed with {@link SolverMetrics#setRegistry(MetricsRegistry)}, for example to forward the
+ * measurements to a monitoring library. Implementations are called from the solver threads and must
+ * be thread-safe and cheap.
+ */
+public abstract class MetricsRegistry {
+    /**
+     * Adds to a counter.
+     *
+     * @param counter The counter.
+     * @param amount  The amount to add.
+     */
+    public abstract void increment(SolverMetrics.Counter counter, long amount);
+
+    /**
+     * Records the latency of an operation.
+     *
+     * @param operation The operation.
+     * @param nanos     The latency in nanoseconds.
+     */
+    public abstract void recordLatency(SolverMetrics.Operation operation, long nanos);
+}
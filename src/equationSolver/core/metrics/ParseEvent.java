@@ -0,0 +1,33 @@
+package equationSolver.core.metrics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Parsing an expression into its coefficients, or into a tree for a general function.
+ */
+@Name("equationSolver.Parse")
+@Label("Parse")
+@Description("Parsing of a polynomial or linear expression into its coefficients, or of a function into a tree")
+public class ParseEvent extends SolverEvent {
+    /**
+     * The kind of expression, {@code polynomial}, {@code linear} or {@code function}.
+     */
+    @Label("Kind")
+    public String kind;
+
+    /**
+     * The length of the expression text.
+     */
+    @Label("Length")
+    public int length;
+
+    /**
+     * The number of coefficients found.
+     */
+    @Label("Coefficients")
+    @Description("Degree plus one for a polynomial, number of variables plus the constant for a linear equation, "
+            + "number of nodes of the tree for a function")
+    public int coefficients;
+}
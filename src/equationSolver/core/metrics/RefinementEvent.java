@@ -0,0 +1,37 @@
+package equationSolver.core.metrics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Refining the isolated roots of a polynomial.
+ */
+@Name("equationSolver.Refinement")
+@Label("Refinement")
+@Description("Refinement of the isolated roots of a polynomial by an iterative method")
+public class RefinementEvent extends SolverEvent {
+    /**
+     * The method, {@code newton} or {@code bisection}.
+     */
+    @Label("Method")
+    public String method;
+
+    /**
+     * The degree of the polynomial.
+     */
+    @Label("Degree")
+    public int degree;
+
+    /**
+     * The number of roots refined.
+     */
+    @Label("Roots")
+    public int roots;
+
+    /**
+     * The number of steps over all the roots.
+     */
+    @Label("Iterations")
+    public int iterations;
+}
@@ -0,0 +1,43 @@
+package equationSolver.core.metrics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Isolating the real roots of a polynomial in disjoint intervals.
+ */
+@Name("equationSolver.RootIsolation")
+@Label("Root Isolation")
+@Description("Isolation of the real roots of a polynomial in disjoint intervals")
+public class RootIsolationEvent extends SolverEvent {
+    /**
+     * The method, {@code sturm} or {@code descartes}.
+     */
+    @Label("Method")
+    public String method;
+
+    /**
+     * The degree of the polynomial.
+     */
+    @Label("Degree")
+    public int degree;
+
+    /**
+     * The number of real roots given by the Sturm sequence, or -1 if the method does not count them beforehand.
+     */
+    @Label("Real Roots")
+    public int realRoots;
+
+    /**
+     * The number of roots isolated before the budget ran out.
+     */
+    @Label("Isolated Roots")
+    public int isolatedRoots;
+
+    /**
+     * The number of intervals examined.
+     */
+    @Label("Iterations")
+    public int iterations;
+}
@@ -0,0 +1,30 @@
+package equationSolver.core.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * The base of the Java Flight Recorder events emitted by the solver phases.
+ * <p>
+ * The events are recorded only while a recording enables them, for example with
+ * {@code -XX:StartFlightRecording}, and cost next to nothing otherwise. A phase that throws, for
+ * example because it was cancelled, is recorded with the outcome {@value #ABORTED}.
+ */
+@Category("Equation Solver")
+public abstract class SolverEvent extends Event {
+    /**
+     * The outcome of a phase that completed normally.
+     */
+    public static final String COMPLETED = "completed";
+    /**
+     * The outcome of a phase that ended with an exception.
+     */
+    public static final String ABORTED = "aborted";
+
+    /**
+     * How the phase ended: {@value #COMPLETED}, {@value #ABORTED} or the status of the solve budget.
+     */
+    @Label("Outcome")
+    public String outcome = ABORTED;
+}
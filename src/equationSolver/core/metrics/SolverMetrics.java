@@ -0,0 +1,234 @@
+package equationSolver.core.metrics;
+
+import javax.management.JMException;
+import java.lang.management.ManagementFactory;
+
+/**
+ * The entry point of the solver instrumentation.
+ * <p>
+ * Metrics are off unless the system property {@value #METRICS_PROPERTY} is {@code true}. The check is
+ * a {@code static final} constant, so when metrics are off the JIT compiler removes the calls
+ * entirely and the hot paths pay nothing. When they are on, the measurements go to a
+ * {@link DefaultMetricsRegistry} registered with the platform MBean server, unless another registry
+ * is installed.
+ */
+public final class SolverMetrics {
+    /**
+     * The system property that enables the metrics when set to {@code true}.
+     */
+    public static final String METRICS_PROPERTY = "equationSolver.metrics";
+    /**
+     * Whether the metrics are enabled, read once at startup.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean(METRICS_PROPERTY);
+    private static final DefaultMetricsRegistry DEFAULT_REGISTRY = ENABLED ? createDefaultRegistry() : null;
+    private static volatile MetricsRegistry registry = DEFAULT_REGISTRY;
+
+    /**
+     * The events counted by the solvers.
+     */
+    public enum Counter {
+        /**
+         * Evaluations of a polynomial at a point.
+         */
+        POLYNOMIAL_EVALUATIONS,
+        /**
+         * Counts of the roots in an interval with the Sturm sequence.
+         */
+        STURM_COUNTS,
+        /**
+         * Halvings of an interval while the roots are isolated.
+         */
+        ISOLATION_STEPS,
+        /**
+         * Steps of Newton's method.
+         */
+        NEWTON_ITERATIONS,
+        /**
+         * Steps of the bisection method.
+         */
+        BISECTION_ITERATIONS,
+        /**
+         * Row operations of Gaussian elimination and LU decomposition.
+         */
+        ROW_ELIMINATIONS,
+        /**
+         * Images of a matrix modulo a prime computed by the exact solver.
+         */
+        MODULAR_IMAGES,
+        /**
+         * Calls returning the cached solutions of a polynomial.
+         */
+        SOLUTION_CACHE_HITS,
+        /**
+         * Calls solving a polynomial whose solutions were not cached.
+         */
+        SOLUTION_CACHE_MISSES,
+        /**
+         * Calls returning the cached RREF of a matrix.
+         */
+        RREF_CACHE_HITS,
+        /**
+         * Calls reducing a matrix whose RREF was not cached.
+         */
+        RREF_CACHE_MISSES,
+        /**
+         * Evaluations of the Jacobian of a nonlinear system.
+         */
+        JACOBIAN_EVALUATIONS,
+        /**
+         * LU decompositions of the Jacobian of a nonlinear system.
+         */
+        JACOBIAN_FACTORIZATIONS,
+        /**
+         * Steps of a nonlinear system solved with a reused factorization of the Jacobian.
+         */
+        BROYDEN_UPDATES,
+        /**
+         * Steps of iterative refinement of a linear system factored in single precision.
+         */
+        REFINEMENT_STEPS,
+        /**
+         * Linear systems solved again in double precision because iterative refinement did not converge.
+         */
+        MIXED_PRECISION_FALLBACKS,
+        /**
+         * Lookups finding a solution in the persistent solution store.
+         */
+        STORE_HITS,
+        /**
+         * Lookups of an input not in the persistent solution store.
+         */
+        STORE_MISSES
+    }
+
+    /**
+     * The operations whose latency is recorded.
+     */
+    public enum Operation {
+        /**
+         * Solving a polynomial equation.
+         */
+        POLYNOMIAL_SOLVE,
+        /**
+         * Generating the Sturm sequence of a polynomial.
+         */
+        STURM_SEQUENCE,
+        /**
+         * Isolating the real roots of a polynomial.
+         */
+        ROOT_ISOLATION,
+        /**
+         * Reducing a matrix to its RREF.
+         */
+        RREF,
+        /**
+         * Solving a square system by LU decomposition.
+         */
+        LU_SOLVE,
+        /**
+         * Solving a system of linear equations.
+         */
+        SYSTEM_SOLVE,
+        /**
+         * Solving a system of nonlinear equations.
+         */
+        NONLINEAR_SOLVE,
+        /**
+         * Multiplying two matrices.
+         */
+        MATRIX_MULTIPLY,
+        /**
+         * Solving an overdetermined system in the least-squares sense.
+         */
+        LEAST_SQUARES_SOLVE
+    }
+
+    private SolverMetrics() {
+    }
+
+    /**
+     * Gets the registry receiving the measurements.
+     *
+     * @return The registry, or {@code null} if the metrics are disabled.
+     */
+    public static MetricsRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Gets the default registry, which is registered with the platform MBean server.
+     *
+     * @return The default registry, or {@code null} if the metrics are disabled.
+     */
+    public static DefaultMetricsRegistry getDefaultRegistry() {
+        return DEFAULT_REGISTRY;
+    }
+
+    /**
+     * Installs the registry receiving the measurements from now on.
+     *
+     * @param newRegistry The registry.
+     * @throws IllegalStateException If the metrics are disabled, since nothing would be measured.
+     */
+    public static void setRegistry(MetricsRegistry newRegistry) {
+        if (!ENABLED) {
+            throw new IllegalStateException("Metrics are disabled; set -D" + METRICS_PROPERTY + "=true");
+        }
+        registry = newRegistry;
+    }
+
+    /**
+     * Adds one to a counter.
+     *
+     * @param counter The counter.
+     */
+    public static void increment(Counter counter) {
+        if (ENABLED) {
+            registry.increment(counter, 1);
+        }
+    }
+
+    /**
+     * Adds to a counter.
+     *
+     * @param counter The counter.
+     * @param amount  The amount to add.
+     */
+    public static void increment(Counter counter, long amount) {
+        if (ENABLED) {
+            registry.increment(counter, amount);
+        }
+    }
+
+    /**
+     * Starts timing an operation.
+     *
+     * @return The start time to pass to {@link #stopTimer(Operation, long)}.
+     */
+    public static long startTimer() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the latency of an operation.
+     *
+     * @param operation The operation.
+     * @param start     The time returned by {@link #startTimer()}.
+     */
+    public static void stopTimer(Operation operation, long start) {
+        if (ENABLED) {
+            registry.recordLatency(operation, System.nanoTime() - start);
+        }
+    }
+
+    private static DefaultMetricsRegistry createDefaultRegistry() {
+        DefaultMetricsRegistry defaultRegistry = new DefaultMetricsRegistry();
+        try {
+            defaultRegistry.registerMBeans(ManagementFactory.getPlatformMBeanServer());
+        } catch (JMException | SecurityException e) {
+            System.err.println("Solver metrics are not exposed over JMX: " + e);
+        }
+        return defaultRegistry;
+    }
+}
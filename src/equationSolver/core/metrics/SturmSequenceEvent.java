@@ -0,0 +1,25 @@
+package equationSolver.core.metrics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Generating the Sturm sequence of a polynomial.
+ */
+@Name("equationSolver.SturmSequence")
+@Label("Sturm Sequence")
+@Description("Generation of the Sturm sequence of a polynomial")
+public class SturmSequenceEvent extends SolverEvent {
+    /**
+     * The degree of the polynomial.
+     */
+    @Label("Degree")
+    public int degree;
+
+    /**
+     * The number of polynomials in the sequence.
+     */
+    @Label("Length")
+    public int length;
+}
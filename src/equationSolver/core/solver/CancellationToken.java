@@ -0,0 +1,79 @@
+package equationSolver.core.solver;
+
+import java.util.concurrent.CancellationException;
+import java.util.function.DoubleConsumer;
+
+/**
+ * A flag that lets another thread cancel a running solve, and a channel for the solver to report its progress.
+ * <p>
+ * The solvers check the token in their loops and stop with a {@link CancellationException} once it
+ * has been cancelled. Cancellation is cooperative, so a solver may finish the current step first.
+ */
+public class CancellationToken {
+    /**
+     * A token that is never cancelled and ignores progress, for callers that do not need either.
+     * Cancelling it and listening to its progress have no effect, so it can be handed to any code
+     * expecting a token.
+     */
+    public static final CancellationToken NONE = new CancellationToken() {
+        @Override
+        public void cancel() {
+        }
+
+        @Override
+        public void onProgress(DoubleConsumer listener) {
+        }
+    };
+    private volatile boolean cancelled;
+    private volatile DoubleConsumer progressListener;
+
+    /**
+     * Requests the cancellation of the solves using this token.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Checks whether the cancellation has been requested.
+     *
+     * @return {@code true} if the token has been cancelled, {@code false} otherwise.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Throws a CancellationException if the token has been cancelled.
+     *
+     * @throws CancellationException If the token has been cancelled.
+     */
+    public void throwIfCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Solve cancelled");
+        }
+    }
+
+    /**
+     * Sets the listener notified when the solver reports its progress.
+     *
+     * @param listener The listener, receiving the completed fraction between 0 and 1.
+     */
+    public void onProgress(DoubleConsumer listener) {
+        progressListener = listener;
+    }
+
+    /**
+     * Reports the progress of the solve, and throws if the token has been cancelled.
+     *
+     * @param fraction The completed fraction, between 0 and 1.
+     * @throws CancellationException If the token has been cancelled.
+     */
+    public void reportProgress(double fraction) {
+        throwIfCancelled();
+        DoubleConsumer listener = progressListener;
+        if (listener != null) {
+            listener.accept(fraction);
+        }
+    }
+}
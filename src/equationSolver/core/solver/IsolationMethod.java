@@ -0,0 +1,17 @@
+package equationSolver.core.solver;
+
+/**
+ * The algorithms isolating the real roots of a polynomial before they are refined.
+ */
+public enum IsolationMethod {
+    /**
+     * Counting sign changes of the Sturm sequence while halving intervals. The Sturm sequence holds
+     * {@code O(n^2)} coefficients and is evaluated in full at every halving.
+     */
+    STURM,
+    /**
+     * Descartes' rule of signs with the Vincent-Collins-Akritas bisection, using exact integer
+     * arithmetic. It needs no Sturm sequence and is usually much faster on sparse or high degree polynomials.
+     */
+    DESCARTES
+}
@@ -0,0 +1,137 @@
+package equationSolver.core.solver;
+
+import java.util.concurrent.CancellationException;
+import java.util.function.DoubleConsumer;
+
+/**
+ * The running budget of one solve, created by {@link SolveOptions#newBudget()}.
+ * <p>
+ * Iterative methods call {@link #tryStep()} once per iteration and stop gracefully with their best
+ * approximation when it returns {@code false}. The budget is also a {@link CancellationToken}, so the
+ * methods that only take a token stop with a {@link CancellationException} once the deadline passes;
+ * the status then tells a passed deadline apart from a cancellation.
+ */
+public class SolveBudget extends CancellationToken {
+    private static final int DEADLINE_CHECK_INTERVAL = 16;
+    private final SolveOptions options;
+    private final long start;
+    private int iterations;
+    private SolveResult.Status status = SolveResult.Status.CONVERGED;
+
+    SolveBudget(SolveOptions options) {
+        this.options = options;
+        start = System.nanoTime();
+    }
+
+    /**
+     * Accounts for one iteration if the budget allows it.
+     *
+     * @return {@code true} if the iteration may run, {@code false} if the iteration cap is reached or
+     * the deadline has passed.
+     * @throws CancellationException If the token of the options has been cancelled.
+     */
+    public boolean tryStep() {
+        if (status != SolveResult.Status.CONVERGED) {
+            return false;
+        }
+        options.getToken().throwIfCancelled();
+        if (iterations >= options.getMaxIterations()) {
+            status = SolveResult.Status.MAX_ITERATIONS;
+            return false;
+        }
+        if (iterations % DEADLINE_CHECK_INTERVAL == 0 && options.isExpired()) {
+            status = SolveResult.Status.DEADLINE_EXCEEDED;
+            return false;
+        }
+        iterations++;
+        return true;
+    }
+
+    /**
+     * Gets the number of iterations used so far.
+     *
+     * @return The number of iterations.
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Gets the tolerance of the options.
+     *
+     * @return The tolerance.
+     */
+    public double getTolerance() {
+        return options.getTolerance();
+    }
+
+    /**
+     * Gets the root isolation algorithm of the options.
+     *
+     * @return The root isolation algorithm.
+     */
+    public IsolationMethod getIsolationMethod() {
+        return options.getIsolationMethod();
+    }
+
+    /**
+     * Gets the status of the solve so far.
+     *
+     * @return {@link SolveResult.Status#CONVERGED} while the budget is not exhausted.
+     */
+    public SolveResult.Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Ends the solve.
+     *
+     * @param values The values found.
+     * @param <T>    The type of the values.
+     * @return The result, with the status and the iterations used.
+     */
+    public <T> SolveResult<T> finish(T values) {
+        return new SolveResult<>(values, status, iterations, System.nanoTime() - start);
+    }
+
+    @Override
+    public void cancel() {
+        options.getToken().cancel();
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return options.getToken().isCancelled();
+    }
+
+    /**
+     * Throws if the token of the options has been cancelled or the deadline has passed.
+     *
+     * @throws CancellationException If the token has been cancelled or the deadline has passed.
+     */
+    @Override
+    public void throwIfCancelled() {
+        options.getToken().throwIfCancelled();
+        if (options.isExpired()) {
+            status = SolveResult.Status.DEADLINE_EXCEEDED;
+            throw new CancellationException("Solve deadline exceeded");
+        }
+    }
+
+    @Override
+    public void onProgress(DoubleConsumer listener) {
+        options.getToken().onProgress(listener);
+    }
+
+    /**
+     * Reports the progress to the token of the options. Unlike {@link #throwIfCancelled()}, a passed
+     * deadline does not stop the solve here, so that iterative methods can still return their best approximation.
+     *
+     * @param fraction The completed fraction, between 0 and 1.
+     * @throws CancellationException If the token of the options has been cancelled.
+     */
+    @Override
+    public void reportProgress(double fraction) {
+        options.getToken().reportProgress(fraction);
+    }
+}
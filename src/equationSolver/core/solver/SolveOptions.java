@@ -0,0 +1,171 @@
+package equationSolver.core.solver;
+
+import equationSolver.core.function.Function;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * The budget of a single solve: the tolerance of the iterative refinement, the maximum number of
+ * iterations, a deadline and a cancellation token.
+ * <p>
+ * Options are immutable; the {@code with} methods return modified copies, starting from {@link #DEFAULT}.
+ * The tolerance and the iteration cap apply to iterative methods such as root isolation and refinement,
+ * while the deadline and the token also bound direct methods such as Gaussian elimination.
+ */
+public final class SolveOptions {
+    /**
+     * The options used by the solve methods without options: {@link Function#PRECISION},
+     * {@link Function#MAX_ITERATIONS}, no deadline, {@link CancellationToken#NONE} and
+     * {@link IsolationMethod#STURM}.
+     */
+    public static final SolveOptions DEFAULT = new SolveOptions(Function.PRECISION, Function.MAX_ITERATIONS, false, 0,
+            CancellationToken.NONE, IsolationMethod.STURM);
+    private final double tolerance;
+    private final int maxIterations;
+    private final boolean hasDeadline;
+    private final long deadline;
+    private final CancellationToken token;
+    private final IsolationMethod isolationMethod;
+
+    private SolveOptions(double tolerance, int maxIterations, boolean hasDeadline, long deadline, CancellationToken token,
+                         IsolationMethod isolationMethod) {
+        this.tolerance = tolerance;
+        this.maxIterations = maxIterations;
+        this.hasDeadline = hasDeadline;
+        this.deadline = deadline;
+        this.token = token;
+        this.isolationMethod = isolationMethod;
+    }
+
+    /**
+     * Returns a copy of these options with the specified tolerance.
+     *
+     * @param tolerance The distance between two successive approximations under which a root is accepted.
+     * @return The modified options.
+     * @throws IllegalArgumentException If the tolerance is not positive.
+     */
+    public SolveOptions withTolerance(double tolerance) {
+        if (!(tolerance > 0)) {
+            throw new IllegalArgumentException("The tolerance must be positive but was " + tolerance);
+        }
+        return new SolveOptions(tolerance, maxIterations, hasDeadline, deadline, token, isolationMethod);
+    }
+
+    /**
+     * Returns a copy of these options with the specified iteration cap.
+     *
+     * @param maxIterations The maximum number of iterations of the whole solve.
+     * @return The modified options.
+     * @throws IllegalArgumentException If the cap is not positive.
+     */
+    public SolveOptions withMaxIterations(int maxIterations) {
+        if (maxIterations <= 0) {
+            throw new IllegalArgumentException("The iteration cap must be positive but was " + maxIterations);
+        }
+        return new SolveOptions(tolerance, maxIterations, hasDeadline, deadline, token, isolationMethod);
+    }
+
+    /**
+     * Returns a copy of these options whose deadline is the specified duration from now.
+     *
+     * @param timeout The time the solve may take, measured from this call.
+     * @return The modified options.
+     */
+    public SolveOptions withTimeout(Duration timeout) {
+        return new SolveOptions(tolerance, maxIterations, true, System.nanoTime() + saturatedNanos(timeout), token,
+                isolationMethod);
+    }
+
+    /**
+     * Returns a copy of these options with the specified wall-clock deadline.
+     *
+     * @param deadline The instant after which the solve stops.
+     * @return The modified options.
+     */
+    public SolveOptions withDeadline(Instant deadline) {
+        return withTimeout(Duration.between(Instant.now(), deadline));
+    }
+
+    /**
+     * Returns a copy of these options with the specified cancellation token.
+     *
+     * @param token The token checked by the solver, which also receives its progress.
+     * @return The modified options.
+     */
+    public SolveOptions withToken(CancellationToken token) {
+        return new SolveOptions(tolerance, maxIterations, hasDeadline, deadline, token, isolationMethod);
+    }
+
+    /**
+     * Returns a copy of these options with the specified root isolation algorithm.
+     *
+     * @param isolationMethod The algorithm isolating the real roots of a polynomial.
+     * @return The modified options.
+     */
+    public SolveOptions withIsolationMethod(IsolationMethod isolationMethod) {
+        return new SolveOptions(tolerance, maxIterations, hasDeadline, deadline, token, isolationMethod);
+    }
+
+    /**
+     * Gets the tolerance of the iterative refinement.
+     *
+     * @return The tolerance.
+     */
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    /**
+     * Gets the maximum number of iterations of the whole solve.
+     *
+     * @return The iteration cap.
+     */
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    /**
+     * Gets the cancellation token.
+     *
+     * @return The cancellation token.
+     */
+    public CancellationToken getToken() {
+        return token;
+    }
+
+    /**
+     * Gets the root isolation algorithm.
+     *
+     * @return The root isolation algorithm.
+     */
+    public IsolationMethod getIsolationMethod() {
+        return isolationMethod;
+    }
+
+    /**
+     * Checks whether the deadline has passed.
+     *
+     * @return {@code true} if there is a deadline and it has passed, {@code false} otherwise.
+     */
+    public boolean isExpired() {
+        return hasDeadline && System.nanoTime() - deadline >= 0;
+    }
+
+    /**
+     * Starts the budget of a solve using these options.
+     *
+     * @return A new budget, whose clock starts now.
+     */
+    public SolveBudget newBudget() {
+        return new SolveBudget(this);
+    }
+
+    private static long saturatedNanos(Duration duration) {
+        try {
+            return Math.max(0, duration.toNanos());
+        } catch (ArithmeticException e) {
+            return duration.isNegative() ? 0 : Long.MAX_VALUE / 2;
+        }
+    }
+}
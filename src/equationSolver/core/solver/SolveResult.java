@@ -0,0 +1,91 @@
+package equationSolver.core.solver;
+
+import java.time.Duration;
+
+/**
+ * The outcome of a solve bounded by {@link SolveOptions}: the values found, whether the solver
+ * converged, and how much of the budget it used.
+ *
+ * @param <T> The type of the values, such as the roots of a polynomial.
+ */
+public final class SolveResult<T> {
+    /**
+     * How a solve ended.
+     */
+    public enum Status {
+        /**
+         * Every value was found within the tolerance.
+         */
+        CONVERGED,
+        /**
+         * The iteration cap was reached; the values are the best approximations found so far.
+         */
+        MAX_ITERATIONS,
+        /**
+         * The deadline passed; the values are the best approximations found so far, and may be missing.
+         */
+        DEADLINE_EXCEEDED
+    }
+
+    private final T values;
+    private final Status status;
+    private final int iterations;
+    private final long elapsedNanos;
+
+    SolveResult(T values, Status status, int iterations, long elapsedNanos) {
+        this.values = values;
+        this.status = status;
+        this.iterations = iterations;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Gets the values found by the solve.
+     *
+     * @return The values, possibly partial if the solve did not converge.
+     */
+    public T getValues() {
+        return values;
+    }
+
+    /**
+     * Gets how the solve ended.
+     *
+     * @return The status of the solve.
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Checks whether the solve converged.
+     *
+     * @return {@code true} if the status is {@link Status#CONVERGED}, {@code false} otherwise.
+     */
+    public boolean isConverged() {
+        return status == Status.CONVERGED;
+    }
+
+    /**
+     * Gets the number of iterations used. Direct methods such as Gaussian elimination do not count iterations.
+     *
+     * @return The number of iterations.
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Gets the time the solve took.
+     *
+     * @return The elapsed time.
+     */
+    public Duration getElapsedTime() {
+        return Duration.ofNanos(elapsedNanos);
+    }
+
+    @Override
+    public String toString() {
+        return status + " after " + iterations + " iterations in " + getElapsedTime().toMillis() + " ms";
+    }
+}
@@ -0,0 +1,709 @@
+package equationSolver.core.store;
+
+import equationSolver.core.metrics.SolverMetrics;
+import equationSolver.core.system.Matrix;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.CRC32;
+
+/**
+ * A persistent store of solutions on disk, keyed by the canonical form of the solved input, so that
+ * inputs solved by earlier runs are not solved again.
+ * <p>
+ * The store is a directory with two files. The log, {@value #LOG_FILE}, is append-only: every record
+ * holds a key, its solution and a CRC-32 of both, and is forced to disk before it is indexed. The
+ * index, {@value #INDEX_FILE}, is an open-addressing hash table with linear probing, memory-mapped so
+ * that a lookup reads one or two slots and then the record, and so that opening a store of any size
+ * takes no more than mapping a file. A slot holds the 64-bit hash of a key and the position of its
+ * latest record in the log; a key written again gets a new record, and the old one stays in the log
+ * until {@link #compact()} rewrites it with the live records only.
+ * <p>
+ * The index is only a cache of the log. Its header records the identifier of the log it was built for
+ * and the length of the log it covers: records appended after that length, if the process stopped
+ * before the index was updated, are indexed again when the store is opened, and an index that does
+ * not match the log is rebuilt from it. A record torn by a crash fails its checksum and is truncated
+ * from the end of the log. A lookup compares the whole key and the checksum of the record, so a slot
+ * left stale by a crash is a miss, never a wrong solution.
+ * <p>
+ * A store is safe to use from several threads, and locks its directory against other processes while
+ * it is open. The store used by {@code Polynomial} and {@code SystemOfEquations} is set with
+ * {@link #setInstance} or by the system property {@value #STORE_PROPERTY}.
+ */
+public final class SolutionStore implements Closeable {
+    /**
+     * The system property naming the directory of the store opened at startup.
+     */
+    public static final String STORE_PROPERTY = "equationSolver.store";
+    /**
+     * The name of the log in the directory of a store.
+     */
+    public static final String LOG_FILE = "solutions.log";
+    /**
+     * The name of the index in the directory of a store.
+     */
+    public static final String INDEX_FILE = "solutions.idx";
+    private static final String LOCK_FILE = "solutions.lock";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final int LOG_MAGIC = 0x45514C47;
+    private static final int INDEX_MAGIC = 0x45514958;
+    private static final int VERSION = 1;
+    /**
+     * The log header: magic, version and the identifier of the log.
+     */
+    private static final int LOG_HEADER = 16;
+    /**
+     * The index header: magic, version, capacity, size, identifier of the log and length of the log covered.
+     */
+    private static final int INDEX_HEADER = 32;
+    private static final int SIZE_POSITION = 12;
+    private static final int LOG_ID_POSITION = 16;
+    private static final int LOG_LENGTH_POSITION = 24;
+    /**
+     * A slot: the hash of the key and the position of the record in the log, 0 for an empty slot.
+     */
+    private static final int SLOT_BYTES = 16;
+    /**
+     * A record header: the length of the payload and its checksum. The payload is the length of the
+     * key, the key and the value.
+     */
+    private static final int RECORD_HEADER = 8;
+    private static final int INITIAL_CAPACITY = 1 << 10;
+    /**
+     * The largest number of slots, which keeps the index within the 2 GB limit of a mapping.
+     */
+    private static final int MAX_CAPACITY = 1 << 26;
+    private static final byte POLYNOMIAL = 1;
+    private static final byte LINEAR_SYSTEM = 2;
+    private static volatile SolutionStore instance = openFromProperty();
+
+    private final Path directory;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private FileChannel log;
+    private long logId;
+    private long logLength;
+    private MappedByteBuffer index;
+    private int capacity;
+    private int size;
+
+    private SolutionStore(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock acquired;
+        try {
+            acquired = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            acquired = null;
+        }
+        lock = acquired;
+        if (lock == null) {
+            lockChannel.close();
+            throw new IOException("The solution store " + directory + " is already open");
+        }
+        try {
+            Files.deleteIfExists(directory.resolve(LOG_FILE + TEMPORARY_SUFFIX));
+            Files.deleteIfExists(directory.resolve(INDEX_FILE + TEMPORARY_SUFFIX));
+            openLog();
+            openIndex();
+        } catch (IOException | RuntimeException e) {
+            closeQuietly();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens the store in a directory, creating it if needed, and recovers the records appended since
+     * the index was last updated.
+     *
+     * @param directory The directory of the store.
+     * @return The store.
+     * @throws IOException If the files cannot be opened, do not belong to a store, or are already
+     *                     open in this or another process.
+     */
+    public static SolutionStore open(Path directory) throws IOException {
+        return new SolutionStore(directory);
+    }
+
+    /**
+     * Gets the store consulted by the solvers.
+     *
+     * @return The store, or {@code null} if there is none.
+     */
+    public static SolutionStore getInstance() {
+        return instance;
+    }
+
+    /**
+     * Sets the store consulted by the solvers from now on. The previous store is not closed.
+     *
+     * @param store The store, or {@code null} to solve everything again.
+     */
+    public static void setInstance(SolutionStore store) {
+        instance = store;
+    }
+
+    private static SolutionStore openFromProperty() {
+        String directory = System.getProperty(STORE_PROPERTY);
+        if (directory == null) {
+            return null;
+        }
+        try {
+            return open(Path.of(directory));
+        } catch (IOException | RuntimeException e) {
+            System.err.println("The solution store is not used: " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Gets the stored roots of a polynomial.
+     *
+     * @param coefficients The coefficients of the polynomial, lowest degree first.
+     * @return The roots, or {@code null} if they are not stored.
+     * @throws UncheckedIOException If the store cannot be read.
+     */
+    public double[] getRoots(double[] coefficients) {
+        byte[] value = get(polynomialKey(coefficients));
+        if (value == null) {
+            return null;
+        }
+        double[] roots = new double[value.length / Double.BYTES];
+        ByteBuffer.wrap(value).asDoubleBuffer().get(roots);
+        return roots;
+    }
+
+    /**
+     * Stores the roots of a polynomial.
+     *
+     * @param coefficients The coefficients of the polynomial, lowest degree first.
+     * @param roots        The roots.
+     * @throws UncheckedIOException If the store cannot be written.
+     */
+    public void putRoots(double[] coefficients, double[] roots) {
+        ByteBuffer value = ByteBuffer.allocate(roots.length * Double.BYTES);
+        value.asDoubleBuffer().put(roots);
+        put(polynomialKey(coefficients), value.array());
+    }
+
+    /**
+     * Gets the stored solutions of a system of linear equations.
+     *
+     * @param variables The variables, in the order of the columns of the matrix.
+     * @param matrix    The augmented matrix of the system.
+     * @return The solutions, or {@code null} if they are not stored.
+     * @throws UncheckedIOException If the store cannot be read.
+     */
+    public String[] getSolutions(List<Character> variables, Matrix matrix) {
+        byte[] value = get(systemKey(variables, matrix));
+        if (value == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(value);
+        String[] solutions = new String[buffer.getInt()];
+        for (int i = 0; i < solutions.length; i++) {
+            int length = buffer.getInt();
+            if (length >= 0) {
+                solutions[i] = new String(value, buffer.position(), length, StandardCharsets.UTF_8);
+                buffer.position(buffer.position() + length);
+            }
+        }
+        return solutions;
+    }
+
+    /**
+     * Stores the solutions of a system of linear equations.
+     *
+     * @param variables The variables, in the order of the columns of the matrix.
+     * @param matrix    The augmented matrix of the system.
+     * @param solutions The solutions, some of which may be {@code null}.
+     * @throws UncheckedIOException If the store cannot be written.
+     */
+    public void putSolutions(List<Character> variables, Matrix matrix, String[] solutions) {
+        byte[][] encoded = new byte[solutions.length][];
+        int length = Integer.BYTES;
+        for (int i = 0; i < solutions.length; i++) {
+            encoded[i] = solutions[i] == null ? null : solutions[i].getBytes(StandardCharsets.UTF_8);
+            length += Integer.BYTES + (encoded[i] == null ? 0 : encoded[i].length);
+        }
+        ByteBuffer value = ByteBuffer.allocate(length);
+        value.putInt(solutions.length);
+        for (byte[] solution : encoded) {
+            value.putInt(solution == null ? -1 : solution.length);
+            if (solution != null) {
+                value.put(solution);
+            }
+        }
+        put(systemKey(variables, matrix), value.array());
+    }
+
+    /**
+     * Builds the canonical key of a polynomial: its coefficients without the zero coefficients of the
+     * highest degrees, with negative zeros made positive.
+     */
+    private static byte[] polynomialKey(double[] coefficients) {
+        int length = coefficients.length;
+        while (length > 1 && coefficients[length - 1] == 0) {
+            length--;
+        }
+        ByteBuffer key = ByteBuffer.allocate(1 + length * Double.BYTES);
+        key.put(POLYNOMIAL);
+        for (int i = 0; i < length; i++) {
+            key.putDouble(coefficients[i] == 0 ? 0.0 : coefficients[i]);
+        }
+        return key.array();
+    }
+
+    /**
+     * Builds the canonical key of a system: its variables and the coefficients of its augmented matrix,
+     * with negative zeros made positive.
+     */
+    private static byte[] systemKey(List<Character> variables, Matrix matrix) {
+        int rows = matrix.getNumberOfRows();
+        int columns = matrix.getNumberOfColumns();
+        long length = 1 + 2 * Integer.BYTES + (long) variables.size() * Character.BYTES + (long) rows * columns * Double.BYTES;
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The system is too large to be stored");
+        }
+        ByteBuffer key = ByteBuffer.allocate((int) length);
+        key.put(LINEAR_SYSTEM).putInt(rows).putInt(columns);
+        for (char variable : variables) {
+            key.putChar(variable);
+        }
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                double coefficient = matrix.getCoefficient(i, j);
+                key.putDouble(coefficient == 0 ? 0.0 : coefficient);
+            }
+        }
+        return key.array();
+    }
+
+    /**
+     * Gets the value stored for a key.
+     *
+     * @param key The key.
+     * @return The value, or {@code null} if the key is not stored.
+     */
+    synchronized byte[] get(byte[] key) {
+        checkOpen();
+        long hash = hash(key);
+        int mask = capacity - 1;
+        try {
+            for (int slot = (int) hash & mask; ; slot = slot + 1 & mask) {
+                long position = slotPosition(slot);
+                if (position == 0) {
+                    SolverMetrics.increment(SolverMetrics.Counter.STORE_MISSES);
+                    return null;
+                }
+                if (slotHash(slot) == hash) {
+                    byte[] payload = readPayload(position, logLength);
+                    if (payload != null && keyEquals(payload, key)) {
+                        SolverMetrics.increment(SolverMetrics.Counter.STORE_HITS);
+                        return Arrays.copyOfRange(payload, Integer.BYTES + key.length, payload.length);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Stores a value for a key: appends the record to the log, forces it to disk and indexes it.
+     *
+     * @param key   The key.
+     * @param value The value.
+     */
+    synchronized void put(byte[] key, byte[] value) {
+        checkOpen();
+        try {
+            long position = logLength;
+            logLength = append(log, position, key, value);
+            log.force(false);
+            insert(hash(key), position, key);
+            index.putLong(LOG_LENGTH_POSITION, logLength);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Gets the number of keys in the store.
+     *
+     * @return The number of keys.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Rewrites the log with the latest record of every key, dropping the records of keys written
+     * again, and rebuilds the index. The new log is written next to the old one and replaces it
+     * atomically once it is on disk, so a crash during compaction leaves the old log in use.
+     *
+     * @throws IOException If the files cannot be written.
+     */
+    public synchronized void compact() throws IOException {
+        checkOpen();
+        long[] positions = new long[size];
+        int count = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            long position = slotPosition(slot);
+            if (position != 0) {
+                positions[count++] = position;
+            }
+        }
+        Arrays.sort(positions, 0, count);
+        Path temporary = directory.resolve(LOG_FILE + TEMPORARY_SUFFIX);
+        try (FileChannel compacted = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long length = writeLogHeader(compacted, ThreadLocalRandom.current().nextLong());
+            for (int i = 0; i < count; i++) {
+                byte[] payload = readPayload(positions[i], logLength);
+                if (payload != null) {
+                    length = appendPayload(compacted, length, payload);
+                }
+            }
+            compacted.force(true);
+        }
+        log.close();
+        Files.move(temporary, directory.resolve(LOG_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        openLog();
+        rebuildIndex(Math.max(INITIAL_CAPACITY, tableCapacity(count)));
+    }
+
+    /**
+     * Closes the files of the store and releases the lock on its directory. The records are already on
+     * disk; the index is written back by the operating system.
+     *
+     * @throws IOException If a file cannot be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (log == null) {
+            return;
+        }
+        if (instance == this) {
+            instance = null;
+        }
+        index.force();
+        closeQuietly();
+    }
+
+    private void closeQuietly() {
+        try {
+            if (log != null) {
+                log.close();
+            }
+            lock.release();
+            lockChannel.close();
+        } catch (IOException e) {
+            // Closing releases the resources even when it fails.
+        }
+        log = null;
+        index = null;
+    }
+
+    private void checkOpen() {
+        if (log == null) {
+            throw new IllegalStateException("The solution store is closed");
+        }
+    }
+
+    /**
+     * Opens the log, writing its header if it is new.
+     */
+    private void openLog() throws IOException {
+        Path path = directory.resolve(LOG_FILE);
+        log = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (log.size() == 0) {
+            logId = ThreadLocalRandom.current().nextLong();
+            logLength = writeLogHeader(log, logId);
+            log.force(true);
+            return;
+        }
+        ByteBuffer header = ByteBuffer.allocate(LOG_HEADER);
+        if (!readFully(log, header, 0) || header.getInt(0) != LOG_MAGIC || header.getInt(4) != VERSION) {
+            throw new IOException("Not a solution store log: " + path);
+        }
+        logId = header.getLong(8);
+        logLength = log.size();
+    }
+
+    private static long writeLogHeader(FileChannel channel, long id) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(LOG_HEADER);
+        header.putInt(LOG_MAGIC).putInt(VERSION).putLong(id).flip();
+        writeFully(channel, header, 0);
+        return LOG_HEADER;
+    }
+
+    /**
+     * Maps the index and indexes the records appended after the length it covers, or rebuilds it if
+     * it is missing or was built for another log.
+     */
+    private void openIndex() throws IOException {
+        Path path = directory.resolve(INDEX_FILE);
+        long actualLength = logLength;
+        if (Files.exists(path) && Files.size(path) >= INDEX_HEADER) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+                int mappedCapacity = mapped.getInt(8);
+                long covered = mapped.getLong(LOG_LENGTH_POSITION);
+                if (mapped.getInt(0) == INDEX_MAGIC && mapped.getInt(4) == VERSION
+                        && mappedCapacity > 0 && Integer.bitCount(mappedCapacity) == 1
+                        && channel.size() == INDEX_HEADER + (long) mappedCapacity * SLOT_BYTES
+                        && mapped.getLong(LOG_ID_POSITION) == logId
+                        && covered >= LOG_HEADER && covered <= actualLength) {
+                    index = mapped;
+                    capacity = mappedCapacity;
+                    size = mapped.getInt(SIZE_POSITION);
+                    logLength = covered;
+                    replay(covered, actualLength);
+                    return;
+                }
+            }
+        }
+        logLength = LOG_HEADER;
+        rebuildIndex(INITIAL_CAPACITY);
+        replay(LOG_HEADER, actualLength);
+    }
+
+    /**
+     * Creates an empty index of a given capacity and indexes the whole log.
+     */
+    private void rebuildIndex(int newCapacity) throws IOException {
+        long end = log.size();
+        size = 0;
+        logLength = LOG_HEADER;
+        installIndex(mapTemporaryIndex(newCapacity), newCapacity);
+        replay(LOG_HEADER, end);
+    }
+
+    /**
+     * Creates an empty index in a temporary file, to be filled and then installed.
+     */
+    private MappedByteBuffer mapTemporaryIndex(int newCapacity) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(directory.resolve(INDEX_FILE + TEMPORARY_SUFFIX), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, INDEX_HEADER + (long) newCapacity * SLOT_BYTES);
+        }
+        mapped.putInt(0, INDEX_MAGIC).putInt(4, VERSION).putInt(8, newCapacity).putInt(SIZE_POSITION, size)
+                .putLong(LOG_ID_POSITION, logId).putLong(LOG_LENGTH_POSITION, logLength);
+        return mapped;
+    }
+
+    /**
+     * Forces a filled temporary index to disk and replaces the current index with it atomically.
+     */
+    private void installIndex(MappedByteBuffer mapped, int newCapacity) throws IOException {
+        mapped.force();
+        Files.move(directory.resolve(INDEX_FILE + TEMPORARY_SUFFIX), directory.resolve(INDEX_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        index = mapped;
+        capacity = newCapacity;
+    }
+
+    /**
+     * Indexes the records of the log from a position, and truncates the log at the first record that
+     * is incomplete or fails its checksum, which a crash during an append leaves at the end.
+     */
+    private void replay(long from, long end) throws IOException {
+        long position = from;
+        while (position < end) {
+            byte[] payload = readPayload(position, end);
+            if (payload == null) {
+                log.truncate(position);
+                log.force(true);
+                break;
+            }
+            byte[] key = Arrays.copyOfRange(payload, Integer.BYTES, Integer.BYTES + ByteBuffer.wrap(payload).getInt());
+            insert(hash(key), position, key);
+            position += RECORD_HEADER + payload.length;
+        }
+        logLength = position;
+        index.putLong(LOG_LENGTH_POSITION, logLength);
+    }
+
+    /**
+     * Points the slot of a key to a record, taking a free slot if the key is not indexed, and doubles
+     * the capacity when the table is three quarters full.
+     */
+    private void insert(long hash, long position, byte[] key) throws IOException {
+        int mask = capacity - 1;
+        int slot = (int) hash & mask;
+        for (; ; slot = slot + 1 & mask) {
+            long existing = slotPosition(slot);
+            if (existing == 0) {
+                break;
+            }
+            if (slotHash(slot) == hash) {
+                byte[] payload = readPayload(existing, Long.MAX_VALUE);
+                if (payload == null || keyEquals(payload, key)) {
+                    index.putLong(slotOffset(slot) + Long.BYTES, position);
+                    return;
+                }
+            }
+        }
+        index.putLong(slotOffset(slot), hash);
+        index.putLong(slotOffset(slot) + Long.BYTES, position);
+        size++;
+        index.putInt(SIZE_POSITION, size);
+        if (size > capacity / 4 * 3) {
+            grow();
+        }
+    }
+
+    /**
+     * Moves the slots to an index of twice the capacity. The hashes are kept in the slots, so the
+     * records are not read again.
+     */
+    private void grow() throws IOException {
+        if (capacity >= MAX_CAPACITY) {
+            throw new IOException("The solution store index is full");
+        }
+        int newCapacity = capacity * 2;
+        MappedByteBuffer grown = mapTemporaryIndex(newCapacity);
+        grown.putLong(LOG_LENGTH_POSITION, index.getLong(LOG_LENGTH_POSITION));
+        int mask = newCapacity - 1;
+        for (int slot = 0; slot < capacity; slot++) {
+            long position = slotPosition(slot);
+            if (position != 0) {
+                long hash = slotHash(slot);
+                int target = (int) hash & mask;
+                while (grown.getLong(slotOffset(target) + Long.BYTES) != 0) {
+                    target = target + 1 & mask;
+                }
+                grown.putLong(slotOffset(target), hash);
+                grown.putLong(slotOffset(target) + Long.BYTES, position);
+            }
+        }
+        installIndex(grown, newCapacity);
+    }
+
+    private static int tableCapacity(int keys) {
+        int needed = Math.max(1, keys / 3 * 4 + 4);
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+
+    private static int slotOffset(int slot) {
+        return INDEX_HEADER + slot * SLOT_BYTES;
+    }
+
+    private long slotHash(int slot) {
+        return index.getLong(slotOffset(slot));
+    }
+
+    private long slotPosition(int slot) {
+        return index.getLong(slotOffset(slot) + Long.BYTES);
+    }
+
+    /**
+     * Appends a record to a log.
+     *
+     * @return The length of the log after the record.
+     */
+    private static long append(FileChannel channel, long position, byte[] key, byte[] value) throws IOException {
+        ByteBuffer payload = ByteBuffer.allocate(Integer.BYTES + key.length + value.length);
+        payload.putInt(key.length).put(key).put(value);
+        return appendPayload(channel, position, payload.array());
+    }
+
+    private static long appendPayload(FileChannel channel, long position, byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER + payload.length);
+        record.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        writeFully(channel, record, position);
+        return position + record.capacity();
+    }
+
+    /**
+     * Reads the payload of a record and checks it.
+     *
+     * @param position The position of the record in the log.
+     * @param end      The length of the log that may hold the record.
+     * @return The payload, or {@code null} if the record is incomplete, malformed or fails its checksum.
+     */
+    private byte[] readPayload(long position, long end) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER);
+        if (position + RECORD_HEADER > end || !readFully(log, header, position)) {
+            return null;
+        }
+        int length = header.getInt(0);
+        if (length < Integer.BYTES || position + RECORD_HEADER + length > Math.min(end, log.size())) {
+            return null;
+        }
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        if (!readFully(log, payload, position + RECORD_HEADER)) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload.array());
+        int keyLength = payload.getInt(0);
+        if ((int) crc.getValue() != header.getInt(4) || keyLength < 0 || keyLength > length - Integer.BYTES) {
+            return null;
+        }
+        return payload.array();
+    }
+
+    private static boolean keyEquals(byte[] payload, byte[] key) {
+        return ByteBuffer.wrap(payload).getInt() == key.length
+                && Arrays.equals(payload, Integer.BYTES, Integer.BYTES + key.length, key, 0, key.length);
+    }
+
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    /**
+     * Hashes a key to 64 bits, eight bytes at a time with the finalizer of MurmurHash3.
+     */
+    static long hash(byte[] key) {
+        ByteBuffer buffer = ByteBuffer.wrap(key);
+        long hash = 0x9E3779B97F4A7C15L ^ key.length;
+        while (buffer.remaining() >= Long.BYTES) {
+            hash = mix(hash ^ buffer.getLong()) * 0x9E3779B97F4A7C15L;
+        }
+        while (buffer.hasRemaining()) {
+            hash = (hash ^ (buffer.get() & 0xFF)) * 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        return hash ^ hash >>> 33;
+    }
+}
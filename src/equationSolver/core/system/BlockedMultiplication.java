@@ -0,0 +1,122 @@
+package equationSolver.core.system;
+
+import equationSolver.core.kernel.ArrayKernel;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Multiplies dense matrices stored as arrays of rows, {@code C = AB}, with the blocking of the
+ * high-performance GEMM implementations.
+ * <p>
+ * The columns of {@code B} are first packed into panels of {@linkplain ArrayKernel#getPanelWidth() the
+ * kernel's width}, each stored contiguously row by row, so that the inner kernel reads them with unit
+ * stride. The product is then computed in blocks: a block of {@value #BLOCK_ROWS} rows by
+ * {@value #BLOCK_DEPTH} columns of {@code A} stays in the level 2 cache while it is multiplied by every
+ * panel, and the slice of a panel it is multiplied by stays in the level 1 cache while the kernel runs
+ * down the rows. The rows and panels of {@code C} are split recursively into tiles computed in parallel
+ * on the common fork/join pool; the tiles are disjoint, so they need no synchronization.
+ */
+final class BlockedMultiplication {
+    /**
+     * The number of rows of {@code A} in a cache block, a multiple of the four rows of the kernel.
+     */
+    static final int BLOCK_ROWS = 64;
+    /**
+     * The number of columns of {@code A}, and rows of a panel, in a cache block.
+     */
+    static final int BLOCK_DEPTH = 256;
+    /**
+     * The number of multiply-adds under which a tile is not split further.
+     */
+    static final long TILE_SIZE = 1L << 21;
+
+    private final double[][] a;
+    private final double[][] panels;
+    private final double[][] c;
+    private final int depth;
+    private final int columns;
+    private final ArrayKernel kernel;
+
+    private BlockedMultiplication(double[][] a, double[][] b, int depth, int columns) {
+        this.a = a;
+        this.depth = depth;
+        this.columns = columns;
+        kernel = ArrayKernel.getInstance();
+        int width = kernel.getPanelWidth();
+        panels = new double[(columns + width - 1) / width][depth * width];
+        for (int k = 0; k < depth; k++) {
+            for (int p = 0; p < panels.length; p++) {
+                System.arraycopy(b[k], p * width, panels[p], k * width, Math.min(width, columns - p * width));
+            }
+        }
+        c = new double[a.length][columns];
+    }
+
+    /**
+     * Multiplies two matrices.
+     *
+     * @param a       The rows of {@code A}, each at least {@code depth} long.
+     * @param b       The rows of {@code B}, at least {@code depth} of them, each at least {@code columns} long.
+     * @param depth   The number of columns of {@code A} and rows of {@code B}.
+     * @param columns The number of columns of {@code B}.
+     * @return The rows of the product.
+     */
+    static double[][] multiply(double[][] a, double[][] b, int depth, int columns) {
+        BlockedMultiplication multiplication = new BlockedMultiplication(a, b, depth, columns);
+        multiplication.new Tile(0, a.length, 0, multiplication.panels.length).invoke();
+        return multiplication.c;
+    }
+
+    /**
+     * Computes the product in the rows and panels of a tile of {@code C}, one cache block at a time.
+     */
+    private void compute(int rowFrom, int rowTo, int panelFrom, int panelTo) {
+        int width = kernel.getPanelWidth();
+        for (int kFrom = 0; kFrom < depth; kFrom += BLOCK_DEPTH) {
+            int kTo = Math.min(depth, kFrom + BLOCK_DEPTH);
+            for (int blockFrom = rowFrom; blockFrom < rowTo; blockFrom += BLOCK_ROWS) {
+                int blockTo = Math.min(rowTo, blockFrom + BLOCK_ROWS);
+                for (int p = panelFrom; p < panelTo; p++) {
+                    int column = p * width;
+                    kernel.multiplyPanel(a, blockFrom, blockTo, kFrom, kTo, panels[p], c, column,
+                            Math.min(width, columns - column));
+                }
+            }
+        }
+    }
+
+    /**
+     * A tile of {@code C}, split along its longer side until it holds at most {@value #TILE_SIZE}
+     * multiply-adds or a single block.
+     */
+    @SuppressWarnings("serial")
+    private final class Tile extends RecursiveAction {
+        private final int rowFrom;
+        private final int rowTo;
+        private final int panelFrom;
+        private final int panelTo;
+
+        Tile(int rowFrom, int rowTo, int panelFrom, int panelTo) {
+            this.rowFrom = rowFrom;
+            this.rowTo = rowTo;
+            this.panelFrom = panelFrom;
+            this.panelTo = panelTo;
+        }
+
+        @Override
+        protected void compute() {
+            int rows = rowTo - rowFrom;
+            int panelCount = panelTo - panelFrom;
+            long size = (long) rows * panelCount * kernel.getPanelWidth() * depth;
+            if (size <= TILE_SIZE || rows <= BLOCK_ROWS && panelCount == 1) {
+                BlockedMultiplication.this.compute(rowFrom, rowTo, panelFrom, panelTo);
+            } else if (rows > BLOCK_ROWS && rows >= panelCount * kernel.getPanelWidth()) {
+                int middle = rowFrom + (rows / BLOCK_ROWS + 1) / 2 * BLOCK_ROWS;
+                invokeAll(new Tile(rowFrom, middle, panelFrom, panelTo), new Tile(middle, rowTo, panelFrom, panelTo));
+            } else {
+                int middle = panelFrom + panelCount / 2;
+                invokeAll(new Tile(rowFrom, rowTo, panelFrom, middle), new Tile(rowFrom, rowTo, middle, panelTo));
+            }
+        }
+    }
+}
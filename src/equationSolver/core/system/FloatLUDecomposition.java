@@ -0,0 +1,97 @@
+package equationSolver.core.system;
+
+/**
+ * The LU decomposition with partial pivoting of a square matrix rounded to single precision, used as the
+ * approximate inverse of iterative refinement.
+ * <p>
+ * Factoring in {@code float} moves half the bytes of {@link LUDecomposition} and fits twice as many
+ * elements in a vector register; the plain loops below are vectorized by the JIT compiler. The solutions
+ * it gives are only accurate to single precision, and {@link Matrix#solveByMixedPrecision()} recovers
+ * double accuracy from them.
+ */
+final class FloatLUDecomposition {
+    private final float[][] lu;
+    private final int[] permutation;
+
+    /**
+     * Decomposes the coefficient part of a square augmented matrix.
+     *
+     * @param rows The rows of the matrix, whose last column is ignored.
+     * @param n    The order of the matrix.
+     * @throws ArithmeticException If the matrix is singular in single precision, or has a coefficient
+     *                             too large for a {@code float}.
+     */
+    FloatLUDecomposition(double[][] rows, int n) {
+        lu = new float[n][n];
+        permutation = new int[n];
+        for (int i = 0; i < n; i++) {
+            double[] row = rows[i];
+            float[] target = lu[i];
+            for (int j = 0; j < n; j++) {
+                target[j] = (float) row[j];
+                if (Float.isInfinite(target[j])) {
+                    throw new ArithmeticException("Coefficient out of single precision range");
+                }
+            }
+            permutation[i] = i;
+        }
+        for (int p = 0; p < n; p++) {
+            int pivot = p;
+            for (int i = p + 1; i < n; i++) {
+                if (Math.abs(lu[i][p]) > Math.abs(lu[pivot][p])) {
+                    pivot = i;
+                }
+            }
+            if (lu[pivot][p] == 0) {
+                throw new ArithmeticException("Matrix is singular in single precision");
+            }
+            float[] temp = lu[pivot];
+            lu[pivot] = lu[p];
+            lu[p] = temp;
+            int index = permutation[pivot];
+            permutation[pivot] = permutation[p];
+            permutation[p] = index;
+            float[] pivotRow = lu[p];
+            for (int i = p + 1; i < n; i++) {
+                float[] row = lu[i];
+                float factor = row[p] / pivotRow[p];
+                row[p] = factor;
+                if (factor != 0) {
+                    for (int j = p + 1; j < n; j++) {
+                        row[j] -= factor * pivotRow[j];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Solves {@code Ad = r} in single precision.
+     *
+     * @param r The right-hand side.
+     * @param d The array receiving the solution.
+     */
+    void solve(double[] r, double[] d) {
+        int n = lu.length;
+        float[] y = new float[n];
+        for (int i = 0; i < n; i++) {
+            float[] row = lu[i];
+            float sum = (float) r[permutation[i]];
+            for (int j = 0; j < i; j++) {
+                sum -= row[j] * y[j];
+            }
+            y[i] = sum;
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            float[] row = lu[i];
+            float sum = y[i];
+            for (int j = i + 1; j < n; j++) {
+                sum -= row[j] * y[j];
+            }
+            y[i] = sum / row[i];
+        }
+        for (int i = 0; i < n; i++) {
+            d[i] = y[i];
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package equationSolver.core.system;
+
+import equationSolver.core.kernel.ArrayKernel;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Computes the triangular factor {@code R} of the QR decomposition {@code A = QR} of a matrix with at
+ * least as many rows as columns, by blocked Householder reflections.
+ * <p>
+ * The columns are reduced in panels of {@value #BLOCK_SIZE}. The reflections of a panel are computed
+ * one at a time on the panel alone, then accumulated in the compact form
+ * {@code H_1 ... H_b = I - V T V^T}, with {@code T} upper triangular, and applied to the columns to the
+ * right of the panel at once: {@code W = V^T A}, {@code W = T^T W} and {@code A = A - V W}. The first
+ * and last products sweep the rows once each, adding multiples of whole rows with the
+ * {@link ArrayKernel}, and are split across the common fork/join pool by blocks of rows.
+ * <p>
+ * A matrix with many more rows than columns is not factored as a whole: its rows are split into
+ * chunks that fit in the cache, which are factored in parallel, and the triangular factors of the
+ * chunks, stacked, are factored again. Since {@code Q} is orthogonal, the stacked factors have the same
+ * {@code R} as the matrix, up to the signs of its rows.
+ * <p>
+ * The reflections are not kept: to solve a least-squares problem, the right-hand side is factored as
+ * the last column of the matrix, and {@code Q^T b} is read from the last column of {@code R}.
+ */
+final class HouseholderQR {
+    /**
+     * The number of columns reduced by one panel.
+     */
+    static final int BLOCK_SIZE = 32;
+    /**
+     * The smallest number of rows of a chunk of a tall matrix.
+     */
+    private static final int MIN_CHUNK_ROWS = 512;
+    /**
+     * The number of rows of a chunk of a tall matrix per column, which is also the factor by which
+     * every level of chunks reduces the number of rows.
+     */
+    private static final int CHUNK_RATIO = 8;
+    /**
+     * The number of rows updated by one task of the trailing updates.
+     */
+    private static final int TASK_ROWS = 256;
+    /**
+     * The number of multiply-adds of a trailing update from which it is split into tasks.
+     */
+    private static final long PARALLEL_WORK = 1L << 20;
+
+    private HouseholderQR() {
+    }
+
+    /**
+     * Computes the triangular factor of a matrix.
+     *
+     * @param rows    The rows of the matrix, which are not modified.
+     * @param columns The number of columns to factor, the first of each row.
+     * @return The rows of {@code R}, as many as the rows of the matrix up to {@code columns}, each
+     * {@code columns} long and zero below the diagonal.
+     */
+    static double[][] triangularize(double[][] rows, int columns) {
+        int chunkRows = Math.max(MIN_CHUNK_ROWS, CHUNK_RATIO * columns);
+        if (rows.length <= 2 * chunkRows) {
+            return factorCopy(rows, 0, rows.length, columns);
+        }
+        int chunks = (rows.length + chunkRows - 1) / chunkRows;
+        double[][][] factors = new double[chunks][][];
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            int from = chunk * chunkRows;
+            factors[chunk] = factorCopy(rows, from, Math.min(rows.length, from + chunkRows), columns);
+        });
+        int stackedRows = 0;
+        for (double[][] factor : factors) {
+            stackedRows += factor.length;
+        }
+        double[][] stacked = new double[stackedRows][];
+        int row = 0;
+        for (double[][] factor : factors) {
+            System.arraycopy(factor, 0, stacked, row, factor.length);
+            row += factor.length;
+        }
+        return triangularize(stacked, columns);
+    }
+
+    /**
+     * Factors a copy of a range of rows.
+     *
+     * @return The rows of {@code R} of the range.
+     */
+    private static double[][] factorCopy(double[][] rows, int from, int to, int columns) {
+        double[][] a = new double[to - from][];
+        for (int i = from; i < to; i++) {
+            a[i - from] = Arrays.copyOf(rows[i], columns);
+        }
+        factor(a, columns);
+        double[][] r = Arrays.copyOf(a, Math.min(a.length, columns));
+        for (int i = 0; i < r.length; i++) {
+            Arrays.fill(r[i], 0, i, 0);
+        }
+        return r;
+    }
+
+    /**
+     * Reduces a matrix to upper triangular form in place, leaving the Householder vectors below the
+     * diagonal.
+     */
+    private static void factor(double[][] a, int columns) {
+        int reflections = Math.min(a.length, columns);
+        double[] tau = new double[BLOCK_SIZE];
+        for (int j = 0; j < reflections; j += BLOCK_SIZE) {
+            int width = Math.min(BLOCK_SIZE, reflections - j);
+            factorPanel(a, j, width, tau);
+            if (j + width < columns) {
+                updateTrailing(a, j, width, triangularFactor(a, j, width, tau), columns);
+            }
+        }
+    }
+
+    /**
+     * Reduces the columns of a panel one reflection at a time. The reflection of column {@code q} is
+     * {@code I - tau v v^T}, with {@code v} 1 in row {@code q} and stored below it, chosen so that it maps
+     * the column to {@code beta e_q}, the sign of {@code beta} opposite to the diagonal to avoid
+     * cancellation.
+     *
+     * @param a     The rows of the matrix.
+     * @param j     The first column of the panel.
+     * @param width The number of columns of the panel.
+     * @param tau   The array receiving the factors of the reflections.
+     */
+    private static void factorPanel(double[][] a, int j, int width, double[] tau) {
+        ArrayKernel kernel = ArrayKernel.getInstance();
+        int m = a.length;
+        double[] w = new double[width];
+        for (int q = j; q < j + width; q++) {
+            double alpha = a[q][q];
+            double sigma = 0;
+            for (int i = q + 1; i < m; i++) {
+                sigma += a[i][q] * a[i][q];
+            }
+            if (sigma == 0) {
+                tau[q - j] = 0;
+                continue;
+            }
+            double beta = -Math.copySign(Math.sqrt(alpha * alpha + sigma), alpha);
+            double factor = (beta - alpha) / beta;
+            double scale = 1 / (alpha - beta);
+            tau[q - j] = factor;
+            a[q][q] = beta;
+            int rest = j + width - q - 1;
+            System.arraycopy(a[q], q + 1, w, 0, rest);
+            for (int i = q + 1; i < m; i++) {
+                a[i][q] *= scale;
+                kernel.addMultiple(a[i][q], a[i], q + 1, w, 0, rest);
+            }
+            kernel.addMultiple(-factor, w, 0, a[q], q + 1, rest);
+            for (int i = q + 1; i < m; i++) {
+                kernel.addMultiple(-factor * a[i][q], w, 0, a[i], q + 1, rest);
+            }
+        }
+    }
+
+    /**
+     * Computes the upper triangular {@code T} of {@code H_1 ... H_b = I - V T V^T} for the reflections
+     * of a panel. The products {@code v_p^T v_q} are accumulated in one sweep over the rows into the
+     * upper triangle, and then replaced column by column by {@code -tau_q T v^T v_q}.
+     *
+     * @param a     The rows of the matrix, with the Householder vectors of the panel.
+     * @param j     The first column of the panel.
+     * @param width The number of columns of the panel.
+     * @param tau   The factors of the reflections.
+     * @return The rows of {@code T}.
+     */
+    private static double[][] triangularFactor(double[][] a, int j, int width, double[] tau) {
+        double[][] t = new double[width][width];
+        for (int i = j + 1; i < a.length; i++) {
+            double[] row = a[i];
+            int last = Math.min(width, i - j + 1);
+            for (int q = 1; q < last; q++) {
+                double vq = i == j + q ? 1 : row[j + q];
+                for (int p = 0; p < q; p++) {
+                    t[p][q] += row[j + p] * vq;
+                }
+            }
+        }
+        for (int q = 0; q < width; q++) {
+            for (int p = 0; p < q; p++) {
+                double sum = 0;
+                for (int s = p; s < q; s++) {
+                    sum += t[p][s] * t[s][q];
+                }
+                t[p][q] = -tau[q] * sum;
+            }
+            t[q][q] = tau[q];
+        }
+        return t;
+    }
+
+    /**
+     * Applies the transposed reflections of a panel, {@code I - V T^T V^T}, to the columns to its right.
+     *
+     * @param a       The rows of the matrix, with the Householder vectors of the panel.
+     * @param j       The first column of the panel.
+     * @param width   The number of columns of the panel.
+     * @param t       The triangular factor of the reflections.
+     * @param columns The number of columns of the matrix.
+     */
+    private static void updateTrailing(double[][] a, int j, int width, double[][] t, int columns) {
+        ArrayKernel kernel = ArrayKernel.getInstance();
+        int from = j + width;
+        int trailing = columns - from;
+        int m = a.length;
+        int tasks = (long) (m - j) * width * trailing < PARALLEL_WORK ? 1 : (m - j + TASK_ROWS - 1) / TASK_ROWS;
+        int taskRows = (m - j + tasks - 1) / tasks;
+        double[][] w = rowTasks(tasks).mapToObj(task -> {
+            double[][] partial = new double[width][trailing];
+            int end = Math.min(m, j + (task + 1) * taskRows);
+            for (int i = j + task * taskRows; i < end; i++) {
+                double[] row = a[i];
+                int last = Math.min(width, i - j + 1);
+                for (int p = 0; p < last; p++) {
+                    double v = i == j + p ? 1 : row[j + p];
+                    if (v != 0) {
+                        kernel.addMultiple(v, row, from, partial[p], 0, trailing);
+                    }
+                }
+            }
+            return partial;
+        }).reduce((first, second) -> {
+            for (int p = 0; p < width; p++) {
+                kernel.addMultiple(1, second[p], 0, first[p], 0, trailing);
+            }
+            return first;
+        }).orElseThrow();
+        for (int p = width - 1; p >= 0; p--) {
+            kernel.scale(w[p], t[p][p]);
+            for (int q = 0; q < p; q++) {
+                kernel.addMultiple(t[q][p], w[q], 0, w[p], 0, trailing);
+            }
+        }
+        rowTasks(tasks).forEach(task -> {
+            int end = Math.min(m, j + (task + 1) * taskRows);
+            for (int i = j + task * taskRows; i < end; i++) {
+                double[] row = a[i];
+                int last = Math.min(width, i - j + 1);
+                for (int p = 0; p < last; p++) {
+                    double v = i == j + p ? 1 : row[j + p];
+                    if (v != 0) {
+                        kernel.addMultiple(-v, w[p], 0, row, from, trailing);
+                    }
+                }
+            }
+        });
+    }
+
+    private static IntStream rowTasks(int tasks) {
+        IntStream stream = IntStream.range(0, tasks);
+        return tasks > 1 ? stream.parallel() : stream;
+    }
+}
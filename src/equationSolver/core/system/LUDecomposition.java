@@ -0,0 +1,166 @@
+package equationSolver.core.system;
+
+import equationSolver.core.kernel.ArrayKernel;
+import equationSolver.core.metrics.SolverMetrics;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * The LU decomposition with partial pivoting of a square matrix, {@code PA = LU}, kept so that the
+ * systems {@code Ax = b} for many right-hand sides cost a forward and a back substitution each instead
+ * of a new elimination.
+ * <p>
+ * The factors are stored in a single array: the upper triangle holds {@code U} and the part below the
+ * diagonal holds the multipliers of {@code L}, whose unit diagonal is implicit.
+ */
+public final class LUDecomposition {
+    /**
+     * The order from which {@link #inverse()} solves for the columns in parallel.
+     */
+    private static final int PARALLEL_ORDER = 64;
+    private final double[][] lu;
+    private final int[] permutation;
+
+    /**
+     * Decomposes a square matrix.
+     *
+     * @param matrix The matrix, which is not modified.
+     * @throws IllegalArgumentException If the matrix is not square.
+     * @throws ArithmeticException      If the matrix is singular.
+     */
+    public LUDecomposition(Matrix matrix) {
+        this(rowsOf(matrix), matrix.getNumberOfRows());
+    }
+
+    /**
+     * Decomposes the leading square block of a matrix, such as the coefficient part of an augmented matrix.
+     *
+     * @param rows The rows of the matrix, which are not modified.
+     * @param n    The order of the block.
+     * @throws ArithmeticException If the block is singular.
+     */
+    LUDecomposition(double[][] rows, int n) {
+        lu = new double[n][];
+        permutation = new int[n];
+        for (int i = 0; i < n; i++) {
+            lu[i] = Arrays.copyOf(rows[i], n);
+            permutation[i] = i;
+        }
+        ArrayKernel kernel = ArrayKernel.getInstance();
+        for (int p = 0; p < n; p++) {
+            int pivot = p;
+            for (int i = p + 1; i < n; i++) {
+                if (Math.abs(lu[i][p]) > Math.abs(lu[pivot][p])) {
+                    pivot = i;
+                }
+            }
+            if (lu[pivot][p] == 0) {
+                throw new ArithmeticException("Matrix is singular");
+            }
+            double[] temp = lu[pivot];
+            lu[pivot] = lu[p];
+            lu[p] = temp;
+            int index = permutation[pivot];
+            permutation[pivot] = permutation[p];
+            permutation[p] = index;
+            for (int i = p + 1; i < n; i++) {
+                double factor = lu[i][p] / lu[p][p];
+                if (factor != 0) {
+                    SolverMetrics.increment(SolverMetrics.Counter.ROW_ELIMINATIONS);
+                    kernel.addMultiple(-factor, lu[p], p + 1, lu[i], p + 1, n - p - 1);
+                }
+                lu[i][p] = factor;
+            }
+        }
+    }
+
+    private static double[][] rowsOf(Matrix matrix) {
+        int n = matrix.getNumberOfRows();
+        if (matrix.getNumberOfColumns() != n) {
+            throw new IllegalArgumentException("Expected a square matrix but got " + n + " x " + matrix.getNumberOfColumns());
+        }
+        double[][] rows = new double[n][];
+        for (int i = 0; i < n; i++) {
+            rows[i] = matrix.getRow(i);
+        }
+        return rows;
+    }
+
+    /**
+     * Gets the order of the decomposed matrix.
+     *
+     * @return The number of rows and columns of the matrix.
+     */
+    public int getSize() {
+        return lu.length;
+    }
+
+    /**
+     * Computes the inverse of the decomposed matrix. Its columns are the solutions of {@code Ax = e_j}
+     * for the columns {@code e_j} of the identity, which are independent and, for matrices of order
+     * {@value #PARALLEL_ORDER} or more, solved in parallel.
+     *
+     * @return The inverse.
+     */
+    public Matrix inverse() {
+        int n = lu.length;
+        double[][] columns = new double[n][];
+        IntStream indexes = IntStream.range(0, n);
+        if (n >= PARALLEL_ORDER) {
+            indexes = indexes.parallel();
+        }
+        indexes.forEach(j -> {
+            double[] column = new double[n];
+            column[j] = 1;
+            solve(column, column);
+            columns[j] = column;
+        });
+        return new Matrix(Matrix.transpose(columns, n, n));
+    }
+
+    /**
+     * Solves {@code Ax = b}.
+     *
+     * @param b The right-hand side, which is not modified.
+     * @return The solution.
+     */
+    public double[] solve(double[] b) {
+        double[] x = new double[lu.length];
+        solve(b, x);
+        return x;
+    }
+
+    /**
+     * Solves {@code Ax = b} into an existing array.
+     *
+     * @param b The right-hand side, which is not modified unless it is also {@code x}.
+     * @param x The array receiving the solution, which may be {@code b} itself.
+     * @throws IllegalArgumentException If an array does not have the order of the matrix.
+     */
+    public void solve(double[] b, double[] x) {
+        int n = lu.length;
+        if (b.length != n || x.length != n) {
+            throw new IllegalArgumentException("Expected vectors of length " + n);
+        }
+        if (b == x) {
+            b = b.clone();
+        }
+        for (int i = 0; i < n; i++) {
+            double[] row = lu[i];
+            double sum = b[permutation[i]];
+            for (int j = 0; j < i; j++) {
+                sum -= row[j] * x[j];
+            }
+            x[i] = sum;
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            double[] row = lu[i];
+            double sum = x[i];
+            for (int j = i + 1; j < n; j++) {
+                sum -= row[j] * x[j];
+            }
+            x[i] = sum / row[i];
+        }
+    }
+}
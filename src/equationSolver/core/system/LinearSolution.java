@@ -0,0 +1,62 @@
+package equationSolver.core.system;
+
+/**
+ * The numerical solution of a system of linear equations, with the norm of its residual
+ * {@code b - Ax}, which tells how well it satisfies the equations.
+ */
+public final class LinearSolution {
+    private final double[] values;
+    private final double residualNorm;
+    private final int refinementSteps;
+    private final boolean singlePrecision;
+
+    LinearSolution(double[] values, double residualNorm, int refinementSteps, boolean singlePrecision) {
+        this.values = values;
+        this.residualNorm = residualNorm;
+        this.refinementSteps = refinementSteps;
+        this.singlePrecision = singlePrecision;
+    }
+
+    /**
+     * Gets the values of the variables.
+     *
+     * @return The values, in column order.
+     */
+    public double[] getValues() {
+        return values.clone();
+    }
+
+    /**
+     * Gets the Euclidean norm of the residual {@code b - Ax} of the solution.
+     *
+     * @return The norm of the residual.
+     */
+    public double getResidualNorm() {
+        return residualNorm;
+    }
+
+    /**
+     * Gets the number of steps of iterative refinement that produced the solution.
+     *
+     * @return The number of refinement steps, 0 for a direct solution.
+     */
+    public int getRefinementSteps() {
+        return refinementSteps;
+    }
+
+    /**
+     * Checks whether the solution was refined from a factorization in single precision, rather than
+     * computed from one in double precision.
+     *
+     * @return {@code true} if the factorization was in single precision.
+     */
+    public boolean isSinglePrecision() {
+        return singlePrecision;
+    }
+
+    @Override
+    public String toString() {
+        return "LinearSolution[residual " + residualNorm + ", " + refinementSteps + " refinement steps"
+                + (singlePrecision ? ", single precision]" : "]");
+    }
+}
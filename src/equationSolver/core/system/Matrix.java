@@ -1,7 +1,18 @@
 package equationSolver.core.system;
 
+import equationSolver.core.kernel.ArrayKernel;
+import equationSolver.core.metrics.EliminationEvent;
+import equationSolver.core.metrics.SolverEvent;
+import equationSolver.core.metrics.SolverMetrics;
+import equationSolver.core.solver.CancellationToken;
+import equationSolver.core.solver.SolveBudget;
+import equationSolver.core.solver.SolveOptions;
+import equationSolver.core.solver.SolveResult;
+
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.function.Supplier;
 
 /**
  * Represents a matrix and provides methods for matrix operations.
@@ -9,6 +20,14 @@ import java.util.Arrays;
  * This class implements the Cloneable interface to support cloning of matrix objects.
  */
 public class Matrix implements Cloneable{
+    /**
+     * The largest number of refinement steps of {@link #solveByMixedPrecision()}.
+     */
+    public static final int MAX_REFINEMENT_STEPS = 30;
+    /**
+     * The side of the square blocks in which {@link #transpose()} copies the coefficients.
+     */
+    private static final int TRANSPOSE_BLOCK = 32;
     private double[][] coefficients;
     private Matrix rref;
     /**
@@ -20,6 +39,13 @@ public class Matrix implements Cloneable{
     {
         coefficients = matrix.clone();
     }
+    /**
+     * Constructs a Matrix object whose coefficients are not stored on the heap.
+     * Subclasses using this constructor must override the methods that access the coefficients.
+     */
+    protected Matrix()
+    {
+    }
     /**
      * Retrieves the coefficient at the specified row and column of the matrix.
      *
@@ -67,12 +93,36 @@ public class Matrix implements Cloneable{
     }
     /**
      * Gets the reduced row echelon form (RREF) of the matrix.
+     * <p>
+     * If every coefficient is a short decimal of moderate magnitude, the RREF is computed exactly by
+     * {@link ModularSolver}, so that pivots and zeroes are not affected by rounding. Otherwise Gaussian
+     * elimination in floating point is used.
      *
      * @return The RREF of the matrix.
      */
     public Matrix getRREF(){
+        return getRREF(CancellationToken.NONE);
+    }
+    /**
+     * Gets the reduced row echelon form (RREF) of the matrix, letting another thread cancel the reduction.
+     *
+     * @param token The token checked during the reduction, which also receives its progress.
+     * @return The RREF of the matrix.
+     * @throws java.util.concurrent.CancellationException If the token is cancelled before the reduction completes.
+     */
+    public Matrix getRREF(CancellationToken token){
         if (rref == null){
-            rref = reduceToRREF();
+            SolverMetrics.increment(SolverMetrics.Counter.RREF_CACHE_MISSES);
+            if (ModularSolver.isExactlyRepresentable(coefficients)) {
+                rref = recordElimination(SolverMetrics.Operation.RREF, "modular",
+                        () -> new Matrix(new ModularSolver(coefficients, token).toDoubleRREF()));
+            }
+            else {
+                rref = recordElimination(SolverMetrics.Operation.RREF, "gauss-jordan", () -> reduceToRREF(token));
+            }
+        }
+        else {
+            SolverMetrics.increment(SolverMetrics.Counter.RREF_CACHE_HITS);
         }
         return rref.clone();
     }
@@ -130,16 +180,15 @@ public class Matrix implements Cloneable{
      * @param scalar The scalar value.
      */
     public void scale(int row, double scalar){
-        for (int i = 0; i < getNumberOfColumns(); i++) {
-            setCoefficient(row, i, getCoefficient(row, i) * scalar);
-        }
+        ArrayKernel.getInstance().scale(coefficients[row], scalar);
     }
     /**
      * Reduces the matrix to its reduced row echelon form (RREF) using Gaussian elimination.
      *
+     * @param token The token checked for every pivot row.
      * @return The matrix in reduced row echelon form.
      */
-    private Matrix reduceToRREF() {
+    private Matrix reduceToRREF(CancellationToken token) {
         Matrix matrix = this.clone();
         int lead = 0;
         int rowCount = matrix.getNumberOfRows();
@@ -148,6 +197,7 @@ public class Matrix implements Cloneable{
             if (colCount <= lead) {
                 break;
             }
+            token.reportProgress((double) r / rowCount);
             int i = r;
             while (matrix.getCoefficient(i, lead) == 0) {
                 i++;
@@ -167,8 +217,9 @@ public class Matrix implements Cloneable{
             for (i = 0; i < rowCount; i++) {
                 if (i != r) {
                     double leadFactor = matrix.coefficients[i][lead];
-                    for (int j = 0; j < colCount; j++) {
-                        matrix.coefficients[i][j] -= leadFactor * matrix.coefficients[r][j];
+                    if (leadFactor != 0) {
+                        SolverMetrics.increment(SolverMetrics.Counter.ROW_ELIMINATIONS);
+                        ArrayKernel.getInstance().addMultiple(-leadFactor, matrix.coefficients[r], 0, matrix.coefficients[i], 0, colCount);
                     }
                 }
             }
@@ -238,6 +289,40 @@ public class Matrix implements Cloneable{
     public boolean isPivotVariable(int column){
         return !isFreeVariable(column);
     }
+    /**
+     * Solves the system of linear equations represented by the matrix.
+     *
+     * @param listOfVariables A list of variables used in the equations.
+     * @param token           The token checked while the matrix is reduced.
+     * @return An array of strings representing the solutions to the equations.
+     */
+    public String[] solve(ArrayList<Character> listOfVariables, CancellationToken token) {
+        getRREF(token);
+        return solve(listOfVariables);
+    }
+    /**
+     * Solves the system of linear equations represented by the matrix within the deadline of the specified options.
+     *
+     * @param listOfVariables A list of variables used in the equations.
+     * @param options         The deadline and cancellation token of the solve; the elimination is direct,
+     *                        so the tolerance and the iteration cap do not apply.
+     * @return The solutions, or {@code null} solutions with {@link SolveResult.Status#DEADLINE_EXCEEDED}
+     * if the deadline passed before the matrix was reduced.
+     * @throws java.util.concurrent.CancellationException If the token is cancelled before the solve completes.
+     */
+    public SolveResult<String[]> solve(ArrayList<Character> listOfVariables, SolveOptions options) {
+        SolveBudget budget = options.newBudget();
+        try {
+            getRREF(budget);
+        }
+        catch (CancellationException e) {
+            if (budget.getStatus() == SolveResult.Status.DEADLINE_EXCEEDED) {
+                return budget.finish(null);
+            }
+            throw e;
+        }
+        return budget.finish(solve(listOfVariables));
+    }
     /**
      * Solves the system of linear equations represented by the matrix.
      *
@@ -293,5 +378,322 @@ public class Matrix implements Cloneable{
         }
         return solutions;
     }
+    /**
+     * Solves the square system of linear equations represented by the augmented matrix
+     * using LU decomposition with partial pivoting.
+     *
+     * @return The values of the variables, in column order.
+     * @throws IllegalStateException If the matrix does not have one more column than rows.
+     * @throws ArithmeticException   If the system does not have a unique solution.
+     */
+    public double[] solveByLU() {
+        return recordElimination(SolverMetrics.Operation.LU_SOLVE, "lu", this::decomposeAndSolve);
+    }
+    /**
+     * Solves the square system of linear equations represented by the augmented matrix by iterative
+     * refinement of a factorization in single precision.
+     * <p>
+     * The coefficients are factored in {@code float}, which halves the memory traffic of the
+     * elimination and doubles its vector width. The solution is then refined: the residual
+     * {@code b - Ax} is computed in double precision, the correction is solved with the single
+     * precision factors, and the steps stop once the residual is as small as a factorization in double
+     * precision would leave it, {@code |r| <= |x| |A| eps sqrt(n)} in the maximum norm. For
+     * well-conditioned systems this takes a few steps. If the residual stops decreasing, after
+     * {@value #MAX_REFINEMENT_STEPS} steps, or if the matrix cannot be factored in single precision,
+     * the system is solved again with a factorization in double precision.
+     *
+     * @return The values of the variables in column order, with the norm of the residual and how they
+     * were obtained.
+     * @throws IllegalStateException If the matrix does not have one more column than rows.
+     * @throws ArithmeticException   If the system does not have a unique solution.
+     */
+    public LinearSolution solveByMixedPrecision() {
+        return recordElimination(SolverMetrics.Operation.LU_SOLVE, "mixed-precision-lu", this::refineMixedPrecision);
+    }
+    /**
+     * Solves the system by iterative refinement, as described in {@link #solveByMixedPrecision()}.
+     *
+     * @return The solution.
+     */
+    private LinearSolution refineMixedPrecision() {
+        int n = getNumberOfRows();
+        checkAugmentedSquare(n, getNumberOfColumns());
+        double[][] rows = new double[n][];
+        double[] b = new double[n];
+        double matrixNorm = 0;
+        for (int i = 0; i < n; i++) {
+            rows[i] = getRow(i);
+            b[i] = rows[i][n];
+            double rowSum = 0;
+            for (int j = 0; j < n; j++) {
+                rowSum += Math.abs(rows[i][j]);
+            }
+            matrixNorm = Math.max(matrixNorm, rowSum);
+        }
+        double[] x = new double[n];
+        double[] residual = b.clone();
+        double[] correction = new double[n];
+        double threshold = matrixNorm * Math.ulp(1.0) * Math.sqrt(n);
+        try {
+            FloatLUDecomposition factors = new FloatLUDecomposition(rows, n);
+            double previousNorm = Double.POSITIVE_INFINITY;
+            for (int step = 1; step <= MAX_REFINEMENT_STEPS; step++) {
+                SolverMetrics.increment(SolverMetrics.Counter.REFINEMENT_STEPS);
+                factors.solve(residual, correction);
+                for (int i = 0; i < n; i++) {
+                    x[i] += correction[i];
+                }
+                double residualNorm = residual(rows, b, x, residual);
+                if (maxNorm(residual) <= threshold * maxNorm(x)) {
+                    return new LinearSolution(x, residualNorm, step, true);
+                }
+                if (!(residualNorm < previousNorm / 2)) {
+                    break;
+                }
+                previousNorm = residualNorm;
+            }
+        }
+        catch (ArithmeticException e) {
+            // The single precision factorization failed; fall back to double precision.
+        }
+        SolverMetrics.increment(SolverMetrics.Counter.MIXED_PRECISION_FALLBACKS);
+        double[] solution = new LUDecomposition(rows, n).solve(b);
+        return new LinearSolution(solution, residual(rows, b, solution, residual), 0, false);
+    }
+    /**
+     * Computes the residual {@code b - Ax} in double precision.
+     *
+     * @param rows     The rows of {@code A}.
+     * @param b        The right-hand side.
+     * @param x        The solution.
+     * @param residual The array receiving the residual.
+     * @return The Euclidean norm of the residual.
+     */
+    private static double residual(double[][] rows, double[] b, double[] x, double[] residual) {
+        double sumOfSquares = 0;
+        for (int i = 0; i < b.length; i++) {
+            double[] row = rows[i];
+            double sum = b[i];
+            for (int j = 0; j < x.length; j++) {
+                sum -= row[j] * x[j];
+            }
+            residual[i] = sum;
+            sumOfSquares += sum * sum;
+        }
+        return Math.sqrt(sumOfSquares);
+    }
+    private static double maxNorm(double[] vector) {
+        double max = 0;
+        for (double value : vector) {
+            max = Math.max(max, Math.abs(value));
+        }
+        return max;
+    }
+    /**
+     * Solves the system of linear equations represented by the augmented matrix in the least-squares
+     * sense: finds the values {@code x} minimizing the Euclidean norm of the residual {@code b - Ax}, for
+     * systems with more equations than variables whose equations cannot all hold, such as fits to noisy
+     * measurements.
+     * <p>
+     * The augmented matrix {@code [A b]} is reduced to upper triangular form by blocked Householder QR,
+     * as described in {@link HouseholderQR}, which is stable without forming {@code A^T A}. The solution
+     * is then back substituted from the triangle of {@code A} and the last column, and the norm of the
+     * residual is the last diagonal element.
+     *
+     * @return The values of the variables in column order, with the norm of the residual.
+     * @throws IllegalStateException If the matrix has fewer rows than variables.
+     * @throws ArithmeticException   If the columns of coefficients are linearly dependent, so that the
+     *                               minimizer is not unique.
+     */
+    public LinearSolution solveByLeastSquares() {
+        return recordElimination(SolverMetrics.Operation.LEAST_SQUARES_SOLVE, "householder-qr", this::solveLeastSquares);
+    }
+    /**
+     * Solves the system in the least-squares sense, as described in {@link #solveByLeastSquares()}.
+     *
+     * @return The solution.
+     */
+    private LinearSolution solveLeastSquares() {
+        int rowCount = getNumberOfRows();
+        int n = getNumberOfColumns() - 1;
+        if (rowCount < n) {
+            throw new IllegalStateException("Expected at least " + n + " equations but got " + rowCount);
+        }
+        double[][] r = HouseholderQR.triangularize(rows(), n + 1);
+        double largest = 0;
+        for (int i = 0; i < n; i++) {
+            largest = Math.max(largest, Math.abs(r[i][i]));
+        }
+        double tolerance = largest * Math.ulp(1.0) * Math.max(rowCount, n);
+        double[] solution = new double[n];
+        for (int i = n - 1; i >= 0; i--) {
+            if (!(Math.abs(r[i][i]) > tolerance)) {
+                throw new ArithmeticException("Matrix is rank deficient");
+            }
+            solution[i] = backSubstitute(r[i], i, solution);
+        }
+        return new LinearSolution(solution, rowCount > n ? Math.abs(r[n][n]) : 0, 0, false);
+    }
+    /**
+     * Computes the LU decomposition with partial pivoting of the square matrix, which solves the systems
+     * with this matrix of coefficients and any right-hand side.
+     *
+     * @return The decomposition.
+     * @throws IllegalArgumentException If the matrix is not square.
+     * @throws ArithmeticException      If the matrix is singular.
+     */
+    public LUDecomposition decomposeLU() {
+        return recordElimination(SolverMetrics.Operation.LU_SOLVE, "lu-factor", () -> new LUDecomposition(this));
+    }
+    /**
+     * Computes the inverse of the square matrix from its LU decomposition, solving the systems whose
+     * right-hand sides are the columns of the identity.
+     *
+     * @return The inverse.
+     * @throws IllegalArgumentException If the matrix is not square.
+     * @throws ArithmeticException      If the matrix is singular.
+     */
+    public Matrix inverse() {
+        return recordElimination(SolverMetrics.Operation.LU_SOLVE, "lu-inverse", () -> new LUDecomposition(this).inverse());
+    }
+    /**
+     * Multiplies the matrix by another matrix.
+     * <p>
+     * The product is computed with cache blocking and register tiling, as described in
+     * {@link BlockedMultiplication}, and large products are split into tiles computed in parallel.
+     *
+     * @param other The matrix on the right of the product.
+     * @return The product, with the rows of this matrix and the columns of the other.
+     * @throws IllegalArgumentException If this matrix does not have as many columns as the other has rows.
+     */
+    public Matrix multiply(Matrix other) {
+        int depth = getNumberOfColumns();
+        if (other.getNumberOfRows() != depth) {
+            throw new IllegalArgumentException("Cannot multiply a " + getNumberOfRows() + " x " + depth
+                    + " matrix by a " + other.getNumberOfRows() + " x " + other.getNumberOfColumns() + " matrix");
+        }
+        long start = SolverMetrics.startTimer();
+        try {
+            return new Matrix(BlockedMultiplication.multiply(rows(), other.rows(), depth, other.getNumberOfColumns()));
+        }
+        finally {
+            SolverMetrics.stopTimer(SolverMetrics.Operation.MATRIX_MULTIPLY, start);
+        }
+    }
+    /**
+     * Computes the transpose of the matrix.
+     *
+     * @return The transpose, whose rows are the columns of this matrix.
+     */
+    public Matrix transpose() {
+        return new Matrix(transpose(rows(), getNumberOfRows(), getNumberOfColumns()));
+    }
+    /**
+     * Transposes a matrix in square blocks of {@value #TRANSPOSE_BLOCK} elements on a side, so that both
+     * the rows read and the rows written by a block stay in the cache.
+     *
+     * @param rows     The rows of the matrix.
+     * @param rowCount The number of rows.
+     * @param colCount The number of columns.
+     * @return The rows of the transpose.
+     */
+    static double[][] transpose(double[][] rows, int rowCount, int colCount) {
+        double[][] transpose = new double[colCount][rowCount];
+        for (int rowBlock = 0; rowBlock < rowCount; rowBlock += TRANSPOSE_BLOCK) {
+            int rowEnd = Math.min(rowCount, rowBlock + TRANSPOSE_BLOCK);
+            for (int colBlock = 0; colBlock < colCount; colBlock += TRANSPOSE_BLOCK) {
+                int colEnd = Math.min(colCount, colBlock + TRANSPOSE_BLOCK);
+                for (int i = rowBlock; i < rowEnd; i++) {
+                    double[] row = rows[i];
+                    for (int j = colBlock; j < colEnd; j++) {
+                        transpose[j][i] = row[j];
+                    }
+                }
+            }
+        }
+        return transpose;
+    }
+    /**
+     * Gets the rows of the matrix without copying them if they are stored on the heap.
+     *
+     * @return The rows, which must not be modified.
+     */
+    private double[][] rows() {
+        if (coefficients != null) {
+            return coefficients;
+        }
+        double[][] rows = new double[getNumberOfRows()][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = getRow(i);
+        }
+        return rows;
+    }
+    /**
+     * Solves the system by LU decomposition with partial pivoting, as described in {@link #solveByLU()}.
+     *
+     * @return The values of the variables, in column order.
+     */
+    private double[] decomposeAndSolve() {
+        int n = getNumberOfRows();
+        checkAugmentedSquare(n, getNumberOfColumns());
+        double[][] rows = rows();
+        double[] b = new double[n];
+        for (int i = 0; i < n; i++) {
+            b[i] = rows[i][n];
+        }
+        return new LUDecomposition(rows, n).solve(b);
+    }
+    /**
+     * Runs an elimination, recording its latency in the metrics and an {@link EliminationEvent}
+     * for the flight recorder.
+     *
+     * @param operation   The operation of the metrics.
+     * @param method      The method of the event.
+     * @param elimination The elimination.
+     * @param <T>         The type of the result of the elimination.
+     * @return The result of the elimination.
+     */
+    protected <T> T recordElimination(SolverMetrics.Operation operation, String method, Supplier<T> elimination) {
+        long start = SolverMetrics.startTimer();
+        EliminationEvent event = new EliminationEvent();
+        event.begin();
+        try {
+            T result = elimination.get();
+            event.outcome = SolverEvent.COMPLETED;
+            return result;
+        }
+        finally {
+            event.method = method;
+            event.rows = getNumberOfRows();
+            event.columns = getNumberOfColumns();
+            event.commit();
+            SolverMetrics.stopTimer(operation, start);
+        }
+    }
+    /**
+     * Checks that the matrix is the augmented matrix of a square system.
+     *
+     * @param rowCount The number of rows.
+     * @param colCount The number of columns.
+     */
+    protected static void checkAugmentedSquare(int rowCount, int colCount) {
+        if (colCount != rowCount + 1) {
+            throw new IllegalStateException("Expected an n x (n+1) augmented matrix but got " + rowCount + " x " + colCount);
+        }
+    }
+    /**
+     * Computes the value of a pivot variable from a row of an upper triangular augmented matrix.
+     *
+     * @param row      The row, including the constant term in the last column.
+     * @param pivot    The pivot column of the row.
+     * @param solution The solution, already computed for the variables after the pivot.
+     * @return The value of the pivot variable.
+     */
+    protected static double backSubstitute(double[] row, int pivot, double[] solution) {
+        double sum = row[row.length - 1];
+        for (int j = pivot + 1; j < solution.length; j++) {
+            sum -= row[j] * solution[j];
+        }
+        return sum / row[pivot];
+    }
 }
-
@@ -0,0 +1,601 @@
+package equationSolver.core.system;
+
+import equationSolver.core.metrics.SolverMetrics;
+import equationSolver.core.solver.CancellationToken;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Computes the exact reduced row echelon form (RREF) of a matrix with decimal coefficients.
+ * <p>
+ * Every row is first scaled to integers. The integer matrix is then reduced modulo several
+ * 62-bit primes in parallel using only primitive {@code long} arithmetic, and the rational entries
+ * of the RREF are recovered with the Chinese remainder theorem and rational reconstruction.
+ * The recovered RREF is checked against the original matrix modulo an independent prime, and more
+ * primes are added until the check succeeds. Rank, consistency and free variables are therefore
+ * exact, unlike the floating point elimination in {@link Matrix}.
+ */
+public class ModularSolver {
+    /**
+     * The largest number of decimal places a coefficient may have to be handled exactly.
+     */
+    public static final int MAX_EXACT_SCALE = 9;
+    /**
+     * The bound on the magnitude of a coefficient once its row is scaled to integers, {@code 2^53}.
+     */
+    public static final double MAX_EXACT_MAGNITUDE = 0x1p53;
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9};
+    private static final int INITIAL_NUMBER_OF_PRIMES = 2;
+    private static final BigInteger TWO_TO_THE_64 = BigInteger.ONE.shiftLeft(64);
+    private static final List<Long> PRIMES = new ArrayList<>();
+
+    private final BigInteger[][] integerMatrix;
+    private final int rowCount;
+    private final int colCount;
+    private final CancellationToken token;
+    private int[] pivotColumns;
+    private BigInteger[][] numerators;
+    private BigInteger[][] denominators;
+
+    /**
+     * Constructs a ModularSolver for the specified matrix and computes its exact RREF.
+     *
+     * @param matrix The 2D array representing the matrix.
+     * @throws IllegalArgumentException If a coefficient is not a finite decimal with at most
+     *                                  {@link #MAX_EXACT_SCALE} decimal places, or is too large once scaled.
+     */
+    public ModularSolver(double[][] matrix) {
+        this(matrix, CancellationToken.NONE);
+    }
+
+    /**
+     * Constructs a ModularSolver for the specified matrix and computes its exact RREF, letting another
+     * thread cancel the computation.
+     *
+     * @param matrix The 2D array representing the matrix.
+     * @param token  The token checked during the computation, which also receives its progress.
+     * @throws IllegalArgumentException If a coefficient is not a finite decimal with at most
+     *                                  {@link #MAX_EXACT_SCALE} decimal places, or is too large once scaled.
+     * @throws java.util.concurrent.CancellationException If the token is cancelled before the computation completes.
+     */
+    public ModularSolver(double[][] matrix, CancellationToken token) {
+        this.token = token;
+        if (!isExactlyRepresentable(matrix)) {
+            throw new IllegalArgumentException("Matrix coefficients are not short decimals of bounded magnitude");
+        }
+        rowCount = matrix.length;
+        colCount = rowCount == 0 ? 0 : matrix[0].length;
+        integerMatrix = new BigInteger[rowCount][];
+        for (int i = 0; i < rowCount; i++) {
+            integerMatrix[i] = toIntegerRow(matrix[i]);
+        }
+        reduce();
+    }
+
+    /**
+     * Checks whether every coefficient of the matrix is a finite decimal with at most
+     * {@link #MAX_EXACT_SCALE} decimal places, and whether every row scaled to integers stays below
+     * {@link #MAX_EXACT_MAGNITUDE}, so that it can be reduced exactly in reasonable time. The number of
+     * primes needed grows with the size of the integers, so larger entries are left to the floating
+     * point elimination.
+     *
+     * @param matrix The 2D array representing the matrix.
+     * @return {@code true} if the matrix can be handled by this solver, {@code false} otherwise.
+     */
+    public static boolean isExactlyRepresentable(double[][] matrix) {
+        for (double[] row : matrix) {
+            int scale = 0;
+            double largest = 0;
+            for (double value : row) {
+                if (!Double.isFinite(value)) {
+                    return false;
+                }
+                largest = Math.max(largest, Math.abs(value));
+                if (value != Math.rint(value)) {
+                    scale = Math.max(scale, BigDecimal.valueOf(value).stripTrailingZeros().scale());
+                    if (scale > MAX_EXACT_SCALE) {
+                        return false;
+                    }
+                }
+            }
+            if (!(largest * POWERS_OF_TEN[scale] < MAX_EXACT_MAGNITUDE)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Retrieves the rank of the matrix.
+     *
+     * @return The rank.
+     */
+    public int getRank() {
+        return pivotColumns.length;
+    }
+
+    /**
+     * Retrieves the pivot columns of the RREF in increasing order.
+     *
+     * @return A copy of the pivot column indices.
+     */
+    public int[] getPivotColumns() {
+        return pivotColumns.clone();
+    }
+
+    /**
+     * Checks if the system of equations represented by the augmented matrix is inconsistent,
+     * that is, whether the last column is a pivot column.
+     *
+     * @return {@code true} if the system is inconsistent, {@code false} otherwise.
+     */
+    public boolean isInconsistent() {
+        return pivotColumns.length > 0 && pivotColumns[pivotColumns.length - 1] == colCount - 1;
+    }
+
+    /**
+     * Checks if the variable at the specified column index is a free variable in the solution.
+     *
+     * @param column The column index representing the variable.
+     * @return {@code true} if the variable is free, {@code false} otherwise.
+     */
+    public boolean isFreeVariable(int column) {
+        return Arrays.binarySearch(pivotColumns, column) < 0;
+    }
+
+    /**
+     * Retrieves the exact entry of the RREF at the specified position as a reduced fraction.
+     *
+     * @param row    The row index.
+     * @param column The column index.
+     * @return The entry, formatted as {@code "p/q"} or {@code "p"} when the denominator is one.
+     */
+    public String getEntry(int row, int column) {
+        if (row >= pivotColumns.length) {
+            return "0";
+        }
+        if (denominators[row][column].equals(BigInteger.ONE)) {
+            return numerators[row][column].toString();
+        }
+        return numerators[row][column] + "/" + denominators[row][column];
+    }
+
+    /**
+     * Converts the exact RREF to doubles. Pivots are exactly {@code 1.0} and eliminated entries
+     * are exactly {@code 0.0}, so the result can be used by the comparisons in {@link Matrix}.
+     *
+     * @return The RREF, with the zero rows at the bottom.
+     */
+    public double[][] toDoubleRREF() {
+        double[][] result = new double[rowCount][colCount];
+        for (int i = 0; i < pivotColumns.length; i++) {
+            for (int j = 0; j < colCount; j++) {
+                if (numerators[i][j].signum() != 0) {
+                    result[i][j] = new BigDecimal(numerators[i][j])
+                            .divide(new BigDecimal(denominators[i][j]), MathContext.DECIMAL64)
+                            .doubleValue();
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Scales a row of decimal coefficients by a power of ten so that all of them become integers.
+     *
+     * @param row The row to scale.
+     * @return The scaled row.
+     */
+    private static BigInteger[] toIntegerRow(double[] row) {
+        BigDecimal[] decimals = new BigDecimal[row.length];
+        int scale = 0;
+        for (int j = 0; j < row.length; j++) {
+            decimals[j] = BigDecimal.valueOf(row[j]).stripTrailingZeros();
+            scale = Math.max(scale, decimals[j].scale());
+        }
+        BigInteger[] result = new BigInteger[row.length];
+        for (int j = 0; j < row.length; j++) {
+            result[j] = decimals[j].setScale(scale).unscaledValue();
+        }
+        return result;
+    }
+
+    /**
+     * Reduces the matrix modulo more and more primes until the reconstructed RREF passes verification.
+     */
+    private void reduce() {
+        if (rowCount == 0 || colCount == 0) {
+            pivotColumns = new int[0];
+            numerators = new BigInteger[0][];
+            denominators = new BigInteger[0][];
+            return;
+        }
+        List<ModularImage> images = new ArrayList<>();
+        int sufficientNumberOfPrimes = sufficientNumberOfPrimes();
+        int numberOfPrimes = Math.min(INITIAL_NUMBER_OF_PRIMES, sufficientNumberOfPrimes);
+        while (true) {
+            int from = images.size();
+            images.addAll(IntStream.range(from, numberOfPrimes).parallel()
+                    .mapToObj(i -> new ModularImage(integerMatrix, colCount, getPrime(i), token))
+                    .toList());
+            token.reportProgress(Math.min(0.9, 0.9 * numberOfPrimes / sufficientNumberOfPrimes));
+            if (reconstruct(images) && verify(getPrime(numberOfPrimes))) {
+                token.reportProgress(1);
+                return;
+            }
+            if (numberOfPrimes < sufficientNumberOfPrimes) {
+                numberOfPrimes = Math.min(2 * numberOfPrimes, sufficientNumberOfPrimes);
+            }
+            else {
+                numberOfPrimes *= 2;
+            }
+        }
+    }
+
+    /**
+     * Computes how many primes are enough to reconstruct any entry of the RREF. Every entry is a
+     * ratio of two minors of the integer matrix, and by Hadamard's inequality no minor exceeds the
+     * product of the largest row norms, so the product of the primes has to exceed twice its square.
+     * Small solutions usually need far fewer primes, which is why the search starts below this bound.
+     *
+     * @return The number of primes.
+     */
+    private int sufficientNumberOfPrimes() {
+        double[] logNorms = new double[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            BigInteger squaredNorm = BigInteger.ZERO;
+            for (BigInteger value : integerMatrix[i]) {
+                squaredNorm = squaredNorm.add(value.multiply(value));
+            }
+            logNorms[i] = squaredNorm.bitLength() / 2.0;
+        }
+        Arrays.sort(logNorms);
+        double logBound = 0;
+        for (int i = rowCount - 1; i >= Math.max(0, rowCount - colCount); i--) {
+            logBound += logNorms[i];
+        }
+        return (int) Math.ceil((2 * logBound + 2) / 61) + 1;
+    }
+
+    /**
+     * Combines the modular images that share the most likely pivot columns and reconstructs the
+     * rational RREF from them.
+     *
+     * @param images The modular images computed so far.
+     * @return {@code true} if every entry could be reconstructed, {@code false} if more primes are needed.
+     */
+    private boolean reconstruct(List<ModularImage> images) {
+        int[] pivots = null;
+        for (ModularImage image : images) {
+            if (pivots == null || isBetterProfile(image.pivotColumns, pivots)) {
+                pivots = image.pivotColumns;
+            }
+        }
+        List<ModularImage> lucky = new ArrayList<>();
+        for (ModularImage image : images) {
+            if (Arrays.equals(image.pivotColumns, pivots)) {
+                lucky.add(image);
+            }
+        }
+        BigInteger modulus = BigInteger.ONE;
+        for (ModularImage image : lucky) {
+            modulus = modulus.multiply(BigInteger.valueOf(image.prime));
+        }
+        BigInteger[] crtFactors = new BigInteger[lucky.size()];
+        for (int k = 0; k < lucky.size(); k++) {
+            BigInteger prime = BigInteger.valueOf(lucky.get(k).prime);
+            BigInteger cofactor = modulus.divide(prime);
+            crtFactors[k] = cofactor.multiply(cofactor.modInverse(prime)).mod(modulus);
+        }
+        BigInteger bound = modulus.shiftRight(1).sqrt();
+        int rank = pivots.length;
+        BigInteger[][] newNumerators = new BigInteger[rank][colCount];
+        BigInteger[][] newDenominators = new BigInteger[rank][colCount];
+        for (int i = 0; i < rank; i++) {
+            token.throwIfCancelled();
+            for (int j = 0; j < colCount; j++) {
+                BigInteger residue = BigInteger.ZERO;
+                for (int k = 0; k < lucky.size(); k++) {
+                    long value = lucky.get(k).rref[i][j];
+                    if (value != 0) {
+                        residue = residue.add(crtFactors[k].multiply(BigInteger.valueOf(value)));
+                    }
+                }
+                BigInteger[] fraction = rationalReconstruction(residue.mod(modulus), modulus, bound);
+                if (fraction == null) {
+                    return false;
+                }
+                newNumerators[i][j] = fraction[0];
+                newDenominators[i][j] = fraction[1];
+            }
+        }
+        pivotColumns = pivots;
+        numerators = newNumerators;
+        denominators = newDenominators;
+        return true;
+    }
+
+    /**
+     * Checks whether a pivot profile is more likely to be the true one than another. Unlucky primes
+     * can only lose pivots or move them to the right, so the higher rank wins, and for equal ranks
+     * the lexicographically smaller profile wins.
+     *
+     * @param candidate The candidate pivot columns.
+     * @param current   The best pivot columns so far.
+     * @return {@code true} if the candidate is better.
+     */
+    private static boolean isBetterProfile(int[] candidate, int[] current) {
+        if (candidate.length != current.length) {
+            return candidate.length > current.length;
+        }
+        return Arrays.compare(candidate, current) < 0;
+    }
+
+    /**
+     * Finds the fraction {@code p/q} with {@code |p|, q <= bound} congruent to the residue.
+     *
+     * @param residue The residue modulo the modulus.
+     * @param modulus The modulus.
+     * @param bound   The bound on numerator and denominator.
+     * @return The numerator and positive denominator, or {@code null} if no such fraction exists.
+     */
+    private static BigInteger[] rationalReconstruction(BigInteger residue, BigInteger modulus, BigInteger bound) {
+        if (residue.signum() == 0) {
+            return new BigInteger[]{BigInteger.ZERO, BigInteger.ONE};
+        }
+        BigInteger r0 = modulus;
+        BigInteger r1 = residue;
+        BigInteger t0 = BigInteger.ZERO;
+        BigInteger t1 = BigInteger.ONE;
+        while (r1.compareTo(bound) > 0) {
+            BigInteger[] quotientAndRemainder = r0.divideAndRemainder(r1);
+            r0 = r1;
+            r1 = quotientAndRemainder[1];
+            BigInteger temp = t0.subtract(quotientAndRemainder[0].multiply(t1));
+            t0 = t1;
+            t1 = temp;
+        }
+        if (t1.abs().compareTo(bound) > 0 || !r1.gcd(t1).equals(BigInteger.ONE)) {
+            return null;
+        }
+        if (t1.signum() < 0) {
+            return new BigInteger[]{r1.negate(), t1.negate()};
+        }
+        return new BigInteger[]{r1, t1};
+    }
+
+    /**
+     * Verifies the reconstructed RREF modulo a prime that was not used to compute it. Every row of
+     * the original matrix must be the combination of the RREF rows given by its pivot column entries.
+     * Since the rank of the original matrix is at least the rank of any of its modular images, this
+     * shows that both matrices have the same row space, up to a failure probability of about
+     * {@code 2^-62} per entry.
+     *
+     * @param prime The prime to verify with.
+     * @return {@code true} if the RREF is correct, {@code false} otherwise.
+     */
+    private boolean verify(long prime) {
+        Montgomery field = new Montgomery(prime);
+        BigInteger bigPrime = BigInteger.valueOf(prime);
+        int rank = pivotColumns.length;
+        long[][] rref = new long[rank][colCount];
+        for (int i = 0; i < rank; i++) {
+            for (int j = 0; j < colCount; j++) {
+                BigInteger denominator = denominators[i][j].mod(bigPrime);
+                if (denominator.signum() == 0) {
+                    return false;
+                }
+                long value = numerators[i][j].multiply(denominator.modInverse(bigPrime)).mod(bigPrime).longValue();
+                rref[i][j] = field.toMontgomery(value);
+            }
+        }
+        return IntStream.range(0, rowCount).parallel().allMatch(i -> {
+            long[] row = new long[colCount];
+            for (int j = 0; j < colCount; j++) {
+                row[j] = field.toMontgomery(ModularImage.reduce(integerMatrix[i][j], prime));
+            }
+            long[] combination = new long[colCount];
+            for (int k = 0; k < rank; k++) {
+                long factor = row[pivotColumns[k]];
+                if (factor == 0) {
+                    continue;
+                }
+                for (int j = 0; j < colCount; j++) {
+                    combination[j] = field.add(combination[j], field.multiply(factor, rref[k][j]));
+                }
+            }
+            return Arrays.equals(row, combination);
+        });
+    }
+
+    /**
+     * Retrieves the prime with the specified index, generating the list of primes on demand.
+     * The primes are the largest primes below {@code 2^62}, in decreasing order.
+     *
+     * @param index The index of the prime.
+     * @return The prime.
+     */
+    private static long getPrime(int index) {
+        synchronized (PRIMES) {
+            long candidate = PRIMES.isEmpty() ? (1L << 62) + 1 : PRIMES.get(PRIMES.size() - 1);
+            while (PRIMES.size() <= index) {
+                candidate -= 2;
+                if (BigInteger.valueOf(candidate).isProbablePrime(64)) {
+                    PRIMES.add(candidate);
+                }
+            }
+            return PRIMES.get(index);
+        }
+    }
+
+    /**
+     * The RREF of the integer matrix modulo a single prime.
+     */
+    private static class ModularImage {
+        private final long prime;
+        private final int[] pivotColumns;
+        private final long[][] rref;
+
+        /**
+         * Reduces the integer matrix modulo the prime and computes its RREF by Gauss-Jordan elimination.
+         *
+         * @param integerMatrix The integer matrix.
+         * @param colCount      The number of columns.
+         * @param prime         The prime.
+         * @param token         The token checked for every pivot column.
+         */
+        ModularImage(BigInteger[][] integerMatrix, int colCount, long prime, CancellationToken token) {
+            this.prime = prime;
+            Montgomery field = new Montgomery(prime);
+            int rowCount = integerMatrix.length;
+            long[][] rows = new long[rowCount][colCount];
+            for (int i = 0; i < rowCount; i++) {
+                for (int j = 0; j < colCount; j++) {
+                    rows[i][j] = field.toMontgomery(reduce(integerMatrix[i][j], prime));
+                }
+            }
+            int[] pivots = new int[Math.min(rowCount, colCount)];
+            int rank = 0;
+            for (int lead = 0; lead < colCount && rank < rowCount; lead++) {
+                token.throwIfCancelled();
+                int pivotRow = rank;
+                while (pivotRow < rowCount && rows[pivotRow][lead] == 0) {
+                    pivotRow++;
+                }
+                if (pivotRow == rowCount) {
+                    continue;
+                }
+                long[] temp = rows[pivotRow];
+                rows[pivotRow] = rows[rank];
+                rows[rank] = temp;
+                long[] pivot = rows[rank];
+                long inverse = field.inverse(pivot[lead]);
+                for (int j = lead; j < colCount; j++) {
+                    pivot[j] = field.multiply(pivot[j], inverse);
+                }
+                for (int i = 0; i < rowCount; i++) {
+                    long factor = rows[i][lead];
+                    if (i == rank || factor == 0) {
+                        continue;
+                    }
+                    long[] row = rows[i];
+                    for (int j = lead; j < colCount; j++) {
+                        row[j] = field.subtract(row[j], field.multiply(factor, pivot[j]));
+                    }
+                }
+                pivots[rank++] = lead;
+            }
+            SolverMetrics.increment(SolverMetrics.Counter.MODULAR_IMAGES);
+            pivotColumns = Arrays.copyOf(pivots, rank);
+            rref = new long[rank][];
+            for (int i = 0; i < rank; i++) {
+                rref[i] = rows[i];
+                for (int j = 0; j < colCount; j++) {
+                    rref[i][j] = field.fromMontgomery(rref[i][j]);
+                }
+            }
+        }
+
+        /**
+         * Reduces an integer modulo a prime.
+         *
+         * @param value The integer.
+         * @param prime The prime.
+         * @return The residue in {@code [0, prime)}.
+         */
+        static long reduce(BigInteger value, long prime) {
+            if (value.bitLength() < 64) {
+                return Math.floorMod(value.longValue(), prime);
+            }
+            return value.mod(BigInteger.valueOf(prime)).longValue();
+        }
+    }
+
+    /**
+     * Arithmetic modulo an odd prime below {@code 2^63} in Montgomery form, using
+     * {@link Math#multiplyHigh(long, long)} for the 128-bit products.
+     */
+    private static class Montgomery {
+        private final long prime;
+        private final long primeInverse;
+        private final long rSquared;
+
+        /**
+         * Constructs the Montgomery arithmetic for the specified prime.
+         *
+         * @param prime The odd prime.
+         */
+        Montgomery(long prime) {
+            this.prime = prime;
+            long inverse = prime;
+            for (int i = 0; i < 5; i++) {
+                inverse *= 2 - prime * inverse;
+            }
+            primeInverse = inverse;
+            rSquared = TWO_TO_THE_64.multiply(TWO_TO_THE_64).mod(BigInteger.valueOf(prime)).longValue();
+        }
+
+        /**
+         * Multiplies two numbers in Montgomery form.
+         *
+         * @param a The first factor.
+         * @param b The second factor.
+         * @return The product in Montgomery form.
+         */
+        long multiply(long a, long b) {
+            long high = Math.multiplyHigh(a, b);
+            long m = a * b * primeInverse;
+            long mpHigh = Math.multiplyHigh(m, prime) + ((m >> 63) & prime);
+            long result = high - mpHigh;
+            return result < 0 ? result + prime : result;
+        }
+
+        long add(long a, long b) {
+            long result = a + b - prime;
+            return result < 0 ? result + prime : result;
+        }
+
+        long subtract(long a, long b) {
+            long result = a - b;
+            return result < 0 ? result + prime : result;
+        }
+
+        long toMontgomery(long value) {
+            return multiply(value, rSquared);
+        }
+
+        long fromMontgomery(long value) {
+            return multiply(value, 1);
+        }
+
+        /**
+         * Computes the inverse of a nonzero number in Montgomery form using the extended Euclidean algorithm.
+         *
+         * @param value The number in Montgomery form.
+         * @return The inverse in Montgomery form.
+         */
+        long inverse(long value) {
+            long a = fromMontgomery(value);
+            long r0 = prime;
+            long r1 = a;
+            long t0 = 0;
+            long t1 = 1;
+            while (r1 != 0) {
+                long q = r0 / r1;
+                long temp = r0 - q * r1;
+                r0 = r1;
+                r1 = temp;
+                temp = t0 - q * t1;
+                t0 = t1;
+                t1 = temp;
+            }
+            return toMontgomery(t0 < 0 ? t0 + prime : t0);
+        }
+    }
+}
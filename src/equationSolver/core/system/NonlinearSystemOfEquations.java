@@ -0,0 +1,285 @@
+package equationSolver.core.system;
+
+import equationSolver.core.metrics.SolverMetrics;
+import equationSolver.core.solver.SolveBudget;
+import equationSolver.core.solver.SolveOptions;
+import equationSolver.core.solver.SolveResult;
+
+import java.util.stream.IntStream;
+
+/**
+ * Represents a square system of nonlinear equations {@code F(x) = 0}, given by its residuals, and solves
+ * it with Newton's method.
+ * <p>
+ * The Jacobian is factored by {@link LUDecomposition} and the factors are kept across several steps:
+ * between two factorizations, the steps are corrected by Broyden's rank-one updates of the inverse of
+ * the Jacobian, applied to the stored steps with the Sherman-Morrison formula, so that a step costs a
+ * pair of triangular solves and a few dot products instead of a Jacobian and a factorization. The
+ * Jacobian is evaluated and factored again only when the residual stops decreasing fast enough, or
+ * after {@link #MAX_BROYDEN_UPDATES} updates. A Newton step with a fresh Jacobian that does not decrease
+ * the residual is shortened by backtracking.
+ * <p>
+ * Subclasses compute the residuals, and may compute the Jacobian analytically; by default it is
+ * approximated by forward differences, optionally one column per task in parallel.
+ */
+public abstract class NonlinearSystemOfEquations {
+    /**
+     * The number of Broyden updates after which the Jacobian is evaluated and factored again.
+     */
+    public static final int MAX_BROYDEN_UPDATES = 20;
+    /**
+     * The factor by which a step with a reused factorization must decrease the residual norm; a slower
+     * decrease means the factorization is stale.
+     */
+    private static final double STALL_RATIO = 0.5;
+    /**
+     * The fraction of the decrease predicted by the linear model that a damped Newton step must achieve.
+     */
+    private static final double ARMIJO = 1e-4;
+    private static final int MAX_BACKTRACKS = 30;
+    private final int size;
+    private boolean parallelJacobian;
+
+    /**
+     * Constructs a system of the specified number of equations in as many variables.
+     *
+     * @param size The number of equations and variables.
+     * @throws IllegalArgumentException If the size is not positive.
+     */
+    protected NonlinearSystemOfEquations(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("The size must be positive but was " + size);
+        }
+        this.size = size;
+    }
+
+    /**
+     * Gets the number of equations, which is also the number of variables.
+     *
+     * @return The number of equations.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Computes the residuals of the equations at a point.
+     * <p>
+     * If the Jacobian is assembled in parallel, this method is called from several threads at once with
+     * different arrays, and must not modify shared state.
+     *
+     * @param x         The values of the variables, which must not be modified.
+     * @param residuals The array receiving the residual of every equation.
+     */
+    public abstract void residualsAt(double[] x, double[] residuals);
+
+    /**
+     * Computes the Jacobian of the residuals at a point. This implementation uses forward differences,
+     * with a step of the square root of the machine epsilon relative to every variable; subclasses that
+     * know the derivatives override it.
+     *
+     * @param x         The values of the variables, which must not be modified.
+     * @param residuals The residuals at {@code x}.
+     * @param jacobian  The array receiving the partial derivative of equation {@code i} with respect to
+     *                  variable {@code j} in {@code jacobian[i][j]}.
+     */
+    public void jacobianAt(double[] x, double[] residuals, double[][] jacobian) {
+        IntStream columns = IntStream.range(0, size);
+        if (parallelJacobian) {
+            columns = columns.parallel();
+        }
+        columns.forEach(j -> {
+            double[] shifted = x.clone();
+            double h = Math.sqrt(Math.ulp(1.0)) * Math.max(Math.abs(x[j]), 1);
+            shifted[j] += h;
+            h = shifted[j] - x[j];
+            double[] column = new double[size];
+            residualsAt(shifted, column);
+            for (int i = 0; i < size; i++) {
+                jacobian[i][j] = (column[i] - residuals[i]) / h;
+            }
+        });
+    }
+
+    /**
+     * Checks whether the default Jacobian is assembled in parallel.
+     *
+     * @return {@code true} if the columns are computed in parallel.
+     */
+    public boolean isParallelJacobian() {
+        return parallelJacobian;
+    }
+
+    /**
+     * Sets whether the default Jacobian is assembled in parallel, which pays off when the residuals are
+     * expensive or the system is large.
+     *
+     * @param parallelJacobian {@code true} to compute the columns of the Jacobian in parallel.
+     */
+    public void setParallelJacobian(boolean parallelJacobian) {
+        this.parallelJacobian = parallelJacobian;
+    }
+
+    /**
+     * Solves the system from an initial guess with the default options.
+     *
+     * @param initialGuess The initial values of the variables.
+     * @return The last approximation of the solution.
+     * @throws ArithmeticException If the Jacobian is singular at an iterate.
+     */
+    public double[] solve(double[] initialGuess) {
+        return solve(initialGuess, SolveOptions.DEFAULT).getValues();
+    }
+
+    /**
+     * Solves the system from an initial guess, within the budget of the specified options. Every step
+     * counts as one iteration. The solve converges when the largest residual, or the largest change of
+     * a variable relative to its magnitude, is under the tolerance.
+     *
+     * @param initialGuess The initial values of the variables.
+     * @param options      The tolerance, iteration cap, deadline and cancellation token of the solve.
+     * @return The last approximation of the solution, with the convergence status and the iterations used.
+     * @throws IllegalArgumentException If the guess does not have one value per variable.
+     * @throws ArithmeticException      If the Jacobian is singular at an iterate.
+     * @throws java.util.concurrent.CancellationException If the token is cancelled before the solve completes.
+     */
+    public SolveResult<double[]> solve(double[] initialGuess, SolveOptions options) {
+        if (initialGuess.length != size) {
+            throw new IllegalArgumentException("Expected " + size + " initial values but got " + initialGuess.length);
+        }
+        long start = SolverMetrics.startTimer();
+        SolveBudget budget = options.newBudget();
+        double tolerance = budget.getTolerance();
+        double[] x = initialGuess.clone();
+        double[] residuals = new double[size];
+        residualsAt(x, residuals);
+        double norm = norm(residuals);
+        double[] trial = new double[size];
+        double[] trialResiduals = new double[size];
+        double[][] steps = new double[MAX_BROYDEN_UPDATES + 1][];
+        int updates = 0;
+        LUDecomposition factors = null;
+        while (!(maxNorm(residuals) <= tolerance) && budget.tryStep()) {
+            boolean fresh = factors == null;
+            if (fresh) {
+                factors = factorJacobian(x, residuals);
+                updates = 0;
+            }
+            double[] step = factors.solve(residuals);
+            for (int i = 0; i < size; i++) {
+                step[i] = -step[i];
+            }
+            if (updates > 0) {
+                SolverMetrics.increment(SolverMetrics.Counter.BROYDEN_UPDATES);
+                broydenCorrection(steps, updates, step);
+            }
+            double trialNorm = tryStep(x, step, 1, trial, trialResiduals);
+            if (!fresh && !(trialNorm <= STALL_RATIO * norm)) {
+                factors = null;
+                continue;
+            }
+            if (fresh && !(trialNorm <= (1 - ARMIJO) * norm)) {
+                double lambda = 1;
+                for (int k = 0; k < MAX_BACKTRACKS && !(trialNorm <= (1 - ARMIJO * lambda) * norm); k++) {
+                    lambda /= 2;
+                    trialNorm = tryStep(x, step, lambda, trial, trialResiduals);
+                }
+                for (int i = 0; i < size; i++) {
+                    step[i] *= lambda;
+                }
+                factors = null;
+            }
+            else if (updates == MAX_BROYDEN_UPDATES) {
+                factors = null;
+            }
+            else {
+                steps[updates++] = step;
+            }
+            double[] swap = x;
+            x = trial;
+            trial = swap;
+            swap = residuals;
+            residuals = trialResiduals;
+            trialResiduals = swap;
+            norm = trialNorm;
+            if (maxNorm(step) <= tolerance * (1 + maxNorm(x))) {
+                break;
+            }
+        }
+        SolverMetrics.stopTimer(SolverMetrics.Operation.NONLINEAR_SOLVE, start);
+        return budget.finish(x);
+    }
+
+    /**
+     * Evaluates and factors the Jacobian at a point.
+     */
+    private LUDecomposition factorJacobian(double[] x, double[] residuals) {
+        SolverMetrics.increment(SolverMetrics.Counter.JACOBIAN_EVALUATIONS);
+        double[][] jacobian = new double[size][size];
+        jacobianAt(x, residuals, jacobian);
+        SolverMetrics.increment(SolverMetrics.Counter.JACOBIAN_FACTORIZATIONS);
+        return new Matrix(jacobian).decomposeLU();
+    }
+
+    /**
+     * Turns the step computed with the factored Jacobian into the step of Broyden's method, applying the
+     * rank-one updates made since the factorization.
+     * <p>
+     * With {@code H} the inverse of the factored Jacobian and {@code s_0 ... s_n} the steps taken since,
+     * the updated inverse applied to the residual is obtained from {@code z = -HF} by
+     * {@code z += s_{j+1} (s_j . z) / |s_j|^2} for {@code j < n}, and the step is
+     * {@code z / (1 - (s_n . z) / |s_n|^2)}, as in Kelley's formulation of the method.
+     *
+     * @param steps   The steps taken since the factorization.
+     * @param updates The number of steps.
+     * @param z       The step computed with the factored Jacobian, replaced by the step of Broyden's method.
+     */
+    private static void broydenCorrection(double[][] steps, int updates, double[] z) {
+        for (int j = 0; j < updates - 1; j++) {
+            double[] s = steps[j];
+            double factor = dot(s, z) / dot(s, s);
+            double[] next = steps[j + 1];
+            for (int i = 0; i < z.length; i++) {
+                z[i] += factor * next[i];
+            }
+        }
+        double[] last = steps[updates - 1];
+        double scale = 1 / (1 - dot(last, z) / dot(last, last));
+        for (int i = 0; i < z.length; i++) {
+            z[i] *= scale;
+        }
+    }
+
+    /**
+     * Computes the residuals at {@code x + lambda * step}.
+     *
+     * @return The norm of the residuals.
+     */
+    private double tryStep(double[] x, double[] step, double lambda, double[] trial, double[] trialResiduals) {
+        for (int i = 0; i < size; i++) {
+            trial[i] = x[i] + lambda * step[i];
+        }
+        residualsAt(trial, trialResiduals);
+        return norm(trialResiduals);
+    }
+
+    private static double dot(double[] a, double[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    private static double norm(double[] a) {
+        return Math.sqrt(dot(a, a));
+    }
+
+    private static double maxNorm(double[] a) {
+        double max = 0;
+        for (double value : a) {
+            max = Math.max(max, Math.abs(value));
+        }
+        return max;
+    }
+}
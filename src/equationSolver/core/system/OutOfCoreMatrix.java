@@ -0,0 +1,512 @@
+package equationSolver.core.system;
+
+import equationSolver.core.kernel.ArrayKernel;
+import equationSolver.core.metrics.SolverMetrics;
+import equationSolver.core.solver.CancellationToken;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Represents a matrix stored in a memory-mapped file instead of on the heap, for systems too large
+ * to fit in memory.
+ * <p>
+ * The matrix is split into square tiles. The tiles of one band of rows are stored next to each
+ * other, each tile in row-major order, and every band is mapped separately, so no single mapping
+ * exceeds the 2 GB limit of a {@link MappedByteBuffer}. {@link #solveByLU()} runs a tiled LU
+ * decomposition that only keeps two column panels of {@code rows x tileSize} coefficients on the heap,
+ * and {@link #getRREF(CancellationToken)} runs Gauss-Jordan elimination one row at a time, so the
+ * inherited {@link #solve(java.util.ArrayList)}, {@link #isInconsistent()} and
+ * {@link #isFreeVariable(int)} work as they do for a matrix on the heap.
+ * <p>
+ * Neither leaves its work in the file of the matrix: the RREF and the LU factors are computed in
+ * scratch files next to it, which are kept while the matrix is unchanged so that asking again only
+ * costs the back substitution, and are deleted when the matrix is modified or closed.
+ * <p>
+ * This class is the entry point for systems too large for the heap: {@link SystemOfEquations} parses
+ * equations over single-letter variables, so its systems always fit in memory. Build the matrix with
+ * a constructor and {@link #setRow(int, double[])}, or with {@link #copyOf(Path, Matrix)}, solve a
+ * square system with {@link #solveByLU()}, and close the matrix when it is no longer needed.
+ */
+public class OutOfCoreMatrix extends Matrix implements Closeable {
+    /**
+     * The default number of rows and columns of a tile.
+     */
+    public static final int DEFAULT_TILE_SIZE = 256;
+    private final Path file;
+    private final FileChannel channel;
+    private final int rowCount;
+    private final int colCount;
+    private final int tileSize;
+    private final int tileColumns;
+    private final DoubleBuffer[] bands;
+    private OutOfCoreMatrix rref;
+    private boolean[] pivotColumns;
+    private OutOfCoreMatrix factors;
+
+    /**
+     * Constructs an OutOfCoreMatrix backed by the specified file with the default tile size.
+     * The file is created if needed and resized to fit the matrix; new coefficients are zero.
+     *
+     * @param file     The file storing the coefficients.
+     * @param rowCount The number of rows.
+     * @param colCount The number of columns.
+     * @throws IOException If the file cannot be opened or resized.
+     */
+    public OutOfCoreMatrix(Path file, int rowCount, int colCount) throws IOException {
+        this(file, rowCount, colCount, DEFAULT_TILE_SIZE);
+    }
+
+    /**
+     * Constructs an OutOfCoreMatrix backed by the specified file.
+     * The file is created if needed and resized to fit the matrix; new coefficients are zero.
+     *
+     * @param file     The file storing the coefficients.
+     * @param rowCount The number of rows.
+     * @param colCount The number of columns.
+     * @param tileSize The number of rows and columns of a tile.
+     * @throws IOException If the file cannot be opened or resized.
+     */
+    public OutOfCoreMatrix(Path file, int rowCount, int colCount, int tileSize) throws IOException {
+        this(file, rowCount, colCount, tileSize, false);
+    }
+
+    /**
+     * Constructs an OutOfCoreMatrix backed by the specified file, which is deleted when the matrix is
+     * closed if it is a scratch file.
+     */
+    private OutOfCoreMatrix(Path file, int rowCount, int colCount, int tileSize, boolean scratch) throws IOException {
+        super();
+        if (rowCount <= 0 || colCount <= 0 || tileSize <= 0) {
+            throw new IllegalArgumentException("Dimensions and tile size must be positive");
+        }
+        this.rowCount = rowCount;
+        this.colCount = colCount;
+        this.tileSize = tileSize;
+        this.tileColumns = (colCount + tileSize - 1) / tileSize;
+        long bandBytes = (long) tileColumns * tileSize * tileSize * Double.BYTES;
+        if (bandBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Tile size too large for " + colCount + " columns");
+        }
+        int bandCount = (rowCount + tileSize - 1) / tileSize;
+        this.file = file;
+        OpenOption[] options = scratch
+                ? new OpenOption[] {StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE}
+                : new OpenOption[] {StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE};
+        channel = FileChannel.open(file, options);
+        bands = new DoubleBuffer[bandCount];
+        for (int band = 0; band < bandCount; band++) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, band * bandBytes, bandBytes);
+            bands[band] = buffer.order(ByteOrder.nativeOrder()).asDoubleBuffer();
+        }
+    }
+
+    /**
+     * Computes the position of a coefficient inside its band.
+     *
+     * @param row    The row index.
+     * @param column The column index.
+     * @return The index in the band's buffer.
+     */
+    private int indexInBand(int row, int column) {
+        return (column / tileSize) * tileSize * tileSize + (row % tileSize) * tileSize + column % tileSize;
+    }
+
+    @Override
+    public double getCoefficient(int row, int column) {
+        return bands[row / tileSize].get(indexInBand(row, column));
+    }
+
+    @Override
+    public void setCoefficient(int row, int column, double value) {
+        discardScratch();
+        bands[row / tileSize].put(indexInBand(row, column), value);
+    }
+
+    @Override
+    public double[] getRow(int row) {
+        double[] result = new double[colCount];
+        readRow(row, 0, tileColumns, result);
+        return result;
+    }
+
+    /**
+     * Sets the specified row of the matrix.
+     *
+     * @param row    The index of the row.
+     * @param values The new coefficients of the row.
+     */
+    public void setRow(int row, double[] values) {
+        discardScratch();
+        writeRow(row, 0, tileColumns, values);
+    }
+
+    @Override
+    public int getNumberOfRows() {
+        return rowCount;
+    }
+
+    @Override
+    public int getNumberOfColumns() {
+        return colCount;
+    }
+
+    @Override
+    public void swap(int i, int j) {
+        if (i == j) {
+            return;
+        }
+        double[] temp = getRow(i);
+        setRow(i, getRow(j));
+        setRow(j, temp);
+    }
+
+    @Override
+    public void scale(int row, double scalar) {
+        double[] values = getRow(row);
+        ArrayKernel.getInstance().scale(values, scalar);
+        setRow(row, values);
+    }
+
+    /**
+     * Gets the reduced row echelon form (RREF) of the matrix, computed by Gauss-Jordan elimination with
+     * partial pivoting in a scratch file. Pivots are set to exactly {@code 1.0} and eliminated entries to
+     * exactly {@code 0.0}, as the comparisons in {@link Matrix} expect.
+     * <p>
+     * Unlike {@link Matrix#getRREF(CancellationToken)}, the result is not a copy: it belongs to this
+     * matrix, must not be modified, and is closed when this matrix is modified or closed.
+     *
+     * @param token The token checked for every pivot row, which also receives the progress.
+     * @return The RREF of the matrix.
+     * @throws UncheckedIOException If the scratch file cannot be created.
+     * @throws java.util.concurrent.CancellationException If the token is cancelled before the reduction completes.
+     */
+    @Override
+    public Matrix getRREF(CancellationToken token) {
+        if (rref == null) {
+            SolverMetrics.increment(SolverMetrics.Counter.RREF_CACHE_MISSES);
+            rref = recordElimination(SolverMetrics.Operation.RREF, "out-of-core-gauss-jordan", () -> reduceToRREF(token));
+        } else {
+            SolverMetrics.increment(SolverMetrics.Counter.RREF_CACHE_HITS);
+        }
+        return rref;
+    }
+
+    @Override
+    public boolean isInconsistent() {
+        getRREF();
+        return pivotColumns[colCount - 1];
+    }
+
+    @Override
+    public boolean isFreeVariable(int column) {
+        getRREF();
+        return !pivotColumns[column];
+    }
+
+    /**
+     * Reduces a scratch copy of the matrix to its RREF one pivot row at a time, recording the pivot columns.
+     *
+     * @param token The token checked for every pivot row.
+     * @return The RREF.
+     */
+    private OutOfCoreMatrix reduceToRREF(CancellationToken token) {
+        OutOfCoreMatrix matrix = copyToScratch(".rref");
+        try {
+            ArrayKernel kernel = ArrayKernel.getInstance();
+            boolean[] pivots = new boolean[colCount];
+            int r = 0;
+            for (int lead = 0; lead < colCount && r < rowCount; lead++) {
+                token.reportProgress((double) r / rowCount);
+                int pivot = r;
+                for (int i = r + 1; i < rowCount; i++) {
+                    if (Math.abs(matrix.getCoefficient(i, lead)) > Math.abs(matrix.getCoefficient(pivot, lead))) {
+                        pivot = i;
+                    }
+                }
+                double pivotValue = matrix.getCoefficient(pivot, lead);
+                if (pivotValue == 0) {
+                    continue;
+                }
+                matrix.swap(pivot, r);
+                double[] pivotRow = matrix.getRow(r);
+                kernel.scale(pivotRow, 1.0 / pivotValue);
+                pivotRow[lead] = 1;
+                matrix.setRow(r, pivotRow);
+                for (int i = 0; i < rowCount; i++) {
+                    double factor = i == r ? 0 : matrix.getCoefficient(i, lead);
+                    if (factor != 0) {
+                        SolverMetrics.increment(SolverMetrics.Counter.ROW_ELIMINATIONS);
+                        double[] row = matrix.getRow(i);
+                        kernel.addMultiple(-factor, pivotRow, lead, row, lead, colCount - lead);
+                        row[lead] = 0;
+                        matrix.setRow(i, row);
+                    }
+                }
+                pivots[lead] = true;
+                r++;
+            }
+            pivotColumns = pivots;
+            return matrix;
+        } catch (RuntimeException e) {
+            discard(matrix);
+            throw e;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "OutOfCoreMatrix[" + rowCount + "x" + colCount + ", tiles of " + tileSize + "]";
+    }
+
+    /**
+     * Solves the square system of linear equations represented by the augmented matrix using a tiled
+     * LU decomposition with partial pivoting.
+     * <p>
+     * The matrix is copied to a scratch file and factored there: for each panel of pivot columns, the
+     * panel is loaded and factored, and then every column panel to its right is loaded, has the row
+     * swaps and eliminations applied, and is written back. Columns to the left are not touched, since
+     * the constant terms are eliminated together with the matrix and {@code L} is not needed for the
+     * back substitution. The coefficients of this matrix are left unchanged, and the factors are kept
+     * until it is modified or closed, so solving again only runs the back substitution.
+     *
+     * @return The values of the variables, in column order.
+     * @throws IllegalStateException If the matrix does not have one more column than rows.
+     * @throws ArithmeticException   If the system does not have a unique solution.
+     * @throws UncheckedIOException  If the scratch file cannot be created.
+     */
+    @Override
+    public double[] solveByLU() {
+        return recordElimination(SolverMetrics.Operation.LU_SOLVE, "out-of-core-lu", this::solveWithFactors);
+    }
+
+    /**
+     * Solves the system from the factors described in {@link #solveByLU()}, factoring a scratch copy of
+     * the matrix first if they are not kept from an earlier solve.
+     *
+     * @return The values of the variables, in column order.
+     */
+    private double[] solveWithFactors() {
+        int n = rowCount;
+        checkAugmentedSquare(n, colCount);
+        if (factors == null) {
+            OutOfCoreMatrix scratch = copyToScratch(".lu");
+            try {
+                scratch.decomposeTiles();
+            } catch (RuntimeException e) {
+                discard(scratch);
+                throw e;
+            }
+            factors = scratch;
+        }
+        double[] solution = new double[n];
+        for (int i = n - 1; i >= 0; i--) {
+            solution[i] = backSubstitute(factors.getRow(i), i, solution);
+        }
+        return solution;
+    }
+
+    /**
+     * Overwrites the matrix with its tiled LU decomposition, as described in {@link #solveByLU()}.
+     */
+    private void decomposeTiles() {
+        int n = rowCount;
+        ArrayKernel kernel = ArrayKernel.getInstance();
+        int pivotPanels = (n + tileSize - 1) / tileSize;
+        for (int k = 0; k < pivotPanels; k++) {
+            int top = k * tileSize;
+            int height = n - top;
+            int pivotCount = Math.min(tileSize, n - top);
+            double[][] panel = readPanel(top, k);
+            int[] pivots = new int[pivotCount];
+            for (int p = 0; p < pivotCount; p++) {
+                int pivot = p;
+                for (int i = p + 1; i < height; i++) {
+                    if (Math.abs(panel[i][p]) > Math.abs(panel[pivot][p])) {
+                        pivot = i;
+                    }
+                }
+                if (panel[pivot][p] == 0) {
+                    throw new ArithmeticException("Matrix is singular");
+                }
+                pivots[p] = pivot;
+                double[] temp = panel[pivot];
+                panel[pivot] = panel[p];
+                panel[p] = temp;
+                int width = panel[p].length;
+                for (int i = p + 1; i < height; i++) {
+                    double factor = panel[i][p] / panel[p][p];
+                    if (factor != 0) {
+                        kernel.addMultiple(-factor, panel[p], p + 1, panel[i], p + 1, width - p - 1);
+                    }
+                    panel[i][p] = factor;
+                }
+            }
+            writePanel(top, k, panel);
+            for (int j = k + 1; j < tileColumns; j++) {
+                double[][] block = readPanel(top, j);
+                int width = block[0].length;
+                for (int p = 0; p < pivotCount; p++) {
+                    double[] temp = block[pivots[p]];
+                    block[pivots[p]] = block[p];
+                    block[p] = temp;
+                }
+                for (int p = 0; p < pivotCount; p++) {
+                    for (int i = p + 1; i < height; i++) {
+                        double factor = panel[i][p];
+                        if (factor != 0) {
+                            kernel.addMultiple(-factor, block[p], 0, block[i], 0, width);
+                        }
+                    }
+                }
+                writePanel(top, j, block);
+            }
+        }
+    }
+
+    /**
+     * Copies the coefficients to a new scratch file next to the file of the matrix, with the same tiles.
+     *
+     * @param suffix The suffix of the name of the scratch file.
+     * @return The copy.
+     * @throws UncheckedIOException If the scratch file cannot be created.
+     */
+    private OutOfCoreMatrix copyToScratch(String suffix) {
+        OutOfCoreMatrix copy;
+        try {
+            Path scratchFile = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName() + ".", suffix);
+            copy = new OutOfCoreMatrix(scratchFile, rowCount, colCount, tileSize, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (int band = 0; band < bands.length; band++) {
+            copy.bands[band].duplicate().put(bands[band].duplicate().clear());
+        }
+        return copy;
+    }
+
+    /**
+     * Closes the scratch files of the RREF and the LU factors, which no longer match the coefficients.
+     */
+    private void discardScratch() {
+        if (rref != null) {
+            discard(rref);
+            rref = null;
+            pivotColumns = null;
+        }
+        if (factors != null) {
+            discard(factors);
+            factors = null;
+        }
+    }
+
+    private static void discard(OutOfCoreMatrix scratch) {
+        try {
+            scratch.close();
+        } catch (IOException e) {
+            // Closing releases the channel even when it fails.
+        }
+    }
+
+    /**
+     * Reads the part of a column of tiles from the specified row down to the bottom of the matrix.
+     *
+     * @param top        The first row.
+     * @param tileColumn The index of the tile column.
+     * @return The coefficients, one array per row.
+     */
+    private double[][] readPanel(int top, int tileColumn) {
+        int width = Math.min(tileSize, colCount - tileColumn * tileSize);
+        double[][] panel = new double[rowCount - top][width];
+        for (int i = 0; i < panel.length; i++) {
+            readRow(top + i, tileColumn, tileColumn + 1, panel[i]);
+        }
+        return panel;
+    }
+
+    /**
+     * Writes back a panel read by {@link #readPanel(int, int)}.
+     *
+     * @param top        The first row.
+     * @param tileColumn The index of the tile column.
+     * @param panel      The coefficients, one array per row.
+     */
+    private void writePanel(int top, int tileColumn, double[][] panel) {
+        for (int i = 0; i < panel.length; i++) {
+            writeRow(top + i, tileColumn, tileColumn + 1, panel[i]);
+        }
+    }
+
+    /**
+     * Copies the part of a row lying in a range of tile columns into an array.
+     *
+     * @param row       The row index.
+     * @param fromTile  The first tile column.
+     * @param toTile    The tile column after the last one.
+     * @param values    The destination, starting with the first column of the first tile.
+     */
+    private void readRow(int row, int fromTile, int toTile, double[] values) {
+        DoubleBuffer band = bands[row / tileSize].duplicate();
+        for (int tile = fromTile; tile < toTile; tile++) {
+            int start = tile * tileSize;
+            int length = Math.min(tileSize, colCount - start);
+            band.position(indexInBand(row, start));
+            band.get(values, start - fromTile * tileSize, length);
+        }
+    }
+
+    /**
+     * Copies an array into the part of a row lying in a range of tile columns.
+     *
+     * @param row      The row index.
+     * @param fromTile The first tile column.
+     * @param toTile   The tile column after the last one.
+     * @param values   The source, starting with the first column of the first tile.
+     */
+    private void writeRow(int row, int fromTile, int toTile, double[] values) {
+        DoubleBuffer band = bands[row / tileSize].duplicate();
+        for (int tile = fromTile; tile < toTile; tile++) {
+            int start = tile * tileSize;
+            int length = Math.min(tileSize, colCount - start);
+            band.position(indexInBand(row, start));
+            band.put(values, start - fromTile * tileSize, length);
+        }
+    }
+
+    /**
+     * Closes the file backing the matrix and deletes the scratch files. Changes already made to the
+     * mapped coefficients are kept.
+     *
+     * @throws IOException If the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        discardScratch();
+        channel.close();
+    }
+
+    /**
+     * Copies an in-memory matrix into a new OutOfCoreMatrix.
+     *
+     * @param file   The file storing the coefficients.
+     * @param matrix The matrix to copy.
+     * @return The new OutOfCoreMatrix.
+     * @throws IOException If the file cannot be opened or resized.
+     */
+    public static OutOfCoreMatrix copyOf(Path file, Matrix matrix) throws IOException {
+        OutOfCoreMatrix result = new OutOfCoreMatrix(file, matrix.getNumberOfRows(), matrix.getNumberOfColumns());
+        for (int i = 0; i < matrix.getNumberOfRows(); i++) {
+            result.setRow(i, matrix.getRow(i));
+        }
+        return result;
+    }
+}
@@ -1,6 +1,11 @@
 package equationSolver.core.system;
 
 import equationSolver.core.expression.LinearExpression;
+import equationSolver.core.metrics.SolverMetrics;
+import equationSolver.core.solver.CancellationToken;
+import equationSolver.core.solver.SolveOptions;
+import equationSolver.core.solver.SolveResult;
+import equationSolver.core.store.SolutionStore;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -97,7 +102,97 @@ public class SystemOfEquations {
         variablesList.addAll(set);
         return variablesList;
     }
+    /**
+     * Gets the solutions of the system, looked up in the {@linkplain SolutionStore#getInstance() solution
+     * store} before the system is solved, if there is one.
+     *
+     * @return The solutions, in the order of {@link #getListOfVariables()}.
+     */
     public String[] getSolutions(){
-        return matrix.solve(getListOfVariables());
+        return getSolutions(CancellationToken.NONE);
+    }
+    /**
+     * Gets the solutions of the system as {@link #getSolutions()} does, letting another thread cancel
+     * the reduction.
+     *
+     * @param token The token checked while the matrix is reduced.
+     * @return The solutions, in the order of {@link #getListOfVariables()}.
+     * @throws java.util.concurrent.CancellationException If the token is cancelled before the solve completes.
+     */
+    public String[] getSolutions(CancellationToken token){
+        return getSolutions(SolveOptions.DEFAULT.withToken(token)).getValues();
+    }
+    /**
+     * Gets the solutions of the system as {@link #getSolutions()} does, within the deadline of the
+     * specified options. The elimination is direct, so the tolerance and the iteration cap do not apply,
+     * and the solutions are looked up in and written to the solution store as they are without options.
+     *
+     * @param options The deadline and cancellation token of the solve.
+     * @return The solutions in the order of {@link #getListOfVariables()}, or {@code null} solutions with
+     * {@link SolveResult.Status#DEADLINE_EXCEEDED} if the deadline passed before the matrix was reduced.
+     * @throws java.util.concurrent.CancellationException If the token is cancelled before the solve completes.
+     */
+    public SolveResult<String[]> getSolutions(SolveOptions options){
+        long start = SolverMetrics.startTimer();
+        SolveResult<String[]> result = solveThroughStore(options);
+        SolverMetrics.stopTimer(SolverMetrics.Operation.SYSTEM_SOLVE, start);
+        return result;
+    }
+    /**
+     * Looks the solutions up in the solution store, and solves the system and stores its solutions if
+     * they are not there and the solve completed. This is the path of every {@code getSolutions} overload.
+     *
+     * @param options The options of the solve.
+     * @return The solutions, with the status of the solve.
+     */
+    private SolveResult<String[]> solveThroughStore(SolveOptions options){
+        SolutionStore store = SolutionStore.getInstance();
+        String[] stored = store == null ? null : store.getSolutions(getListOfVariables(), matrix);
+        if (stored != null){
+            return options.newBudget().finish(stored);
+        }
+        SolveResult<String[]> solved = matrix.solve(getListOfVariables(), options);
+        if (store != null && solved.isConverged()){
+            store.putSolutions(getListOfVariables(), matrix, solved.getValues());
+        }
+        return solved;
+    }
+    /**
+     * Solves the square system numerically, factoring it in single precision and refining the solution
+     * to double precision, as described in {@link Matrix#solveByMixedPrecision()}.
+     *
+     * @return The values of the variables in the order of {@link #getListOfVariables()}, with the norm
+     * of the residual.
+     * @throws IllegalStateException If the system does not have as many equations as variables.
+     * @throws ArithmeticException   If the system does not have a unique solution.
+     */
+    public LinearSolution getMixedPrecisionSolution(){
+        long start = SolverMetrics.startTimer();
+        LinearSolution solution = getMatrix().solveByMixedPrecision();
+        SolverMetrics.stopTimer(SolverMetrics.Operation.SYSTEM_SOLVE, start);
+        return solution;
+    }
+    /**
+     * Checks whether the system has more equations than variables, in which case it usually has no
+     * exact solution and is solved with {@link #getLeastSquaresSolution()}.
+     *
+     * @return {@code true} if there are more equations than variables.
+     */
+    public boolean isOverdetermined(){
+        return equations.length > getListOfVariables().size();
+    }
+    /**
+     * Solves the system in the least-squares sense, as described in {@link Matrix#solveByLeastSquares()}.
+     *
+     * @return The values of the variables in the order of {@link #getListOfVariables()} that minimize the
+     * norm of the residual, with that norm.
+     * @throws IllegalStateException If the system has fewer equations than variables.
+     * @throws ArithmeticException   If the least-squares solution is not unique.
+     */
+    public LinearSolution getLeastSquaresSolution(){
+        long start = SolverMetrics.startTimer();
+        LinearSolution solution = getMatrix().solveByLeastSquares();
+        SolverMetrics.stopTimer(SolverMetrics.Operation.SYSTEM_SOLVE, start);
+        return solution;
     }
 }
@@ -2,6 +2,8 @@ package equationSolver.ui;
 
 import java.awt.*;
 import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.event.MouseAdapter;
@@ -13,6 +15,7 @@ import equationSolver.core.expression.PolynomialExpression;
 import equationSolver.core.system.*;
 import equationSolver.core.exceptions.InvalidExpressionExceptions;
 import equationSolver.core.function.Polynomial;
+import equationSolver.core.solver.CancellationToken;
 
 /**
  * A graphical user interface for solving polynomial equations.
@@ -140,38 +143,7 @@ public class PolynomialSolverUI extends JFrame {
                     }
                 }
                 Polynomial interpolatingPolynomial = new Polynomial(new PolynomialExpression(""));
-                Polynomial interpolated = interpolatingPolynomial.interpolate(points);
-                boolean validInput2 = false;
-                int numInterpolatedValues = 0;
-
-                while (!validInput2) {
-                    try {
-                        numInterpolatedValues = Integer.parseInt(JOptionPane.showInputDialog("How many interpolated values you'd like to know?"));
-                        validInput2 = true;
-                    } catch (NumberFormatException ex) {
-                        JOptionPane.showMessageDialog(null, "Please enter a valid numeric value for the number of interpolated values.", "Invalid Input", JOptionPane.ERROR_MESSAGE);
-                    }
-                }
-
-                StringBuilder result = new StringBuilder();
-                result.append("Interpolating polynomial: ").append(interpolated).append("\n");
-
-                for (int i = 0; i < numInterpolatedValues; i++) {
-                    validInput = false;
-                    while (!validInput) {
-                        try {
-                            double xValue = Double.parseDouble(JOptionPane.showInputDialog("Enter x value for interpolation " + (i + 1) + ":"));
-                            double interpolatedValue = interpolatingPolynomial.interpolateValue(xValue, points);
-                            result.append("Interpolated value at x = ").append(xValue).append(": ").append(interpolatedValue).append("\n");
-                            validInput = true;
-                        } catch (NumberFormatException ex) {
-                            JOptionPane.showMessageDialog(null, "Please enter valid numeric x value for interpolation.", "Invalid Input", JOptionPane.ERROR_MESSAGE);
-                        }
-                    }
-                }
-
-                JOptionPane.showMessageDialog(null, result.toString(), "Interpolation Result", JOptionPane.INFORMATION_MESSAGE);
-
+                solveInBackground(token -> interpolatingPolynomial.interpolate(points, token), this::showInterpolationResult);
             } else if (text.equals("Solve by Newton's method")) {
                 boolean validExpression = false;
                 Expression polynomialExpression = null;
@@ -201,16 +173,18 @@ public class PolynomialSolverUI extends JFrame {
                 }
 
                 Polynomial polynomial = new Polynomial((PolynomialExpression) polynomialExpression);
-                double[] solutions = polynomial.getSolutions();
-                StringBuilder solutionText = new StringBuilder();
-                solutionText.append("Solutions for ").append(polynomialExpression).append(" are:\n");
-                for (int i = 0; i < solutions.length; i++) {
-                    solutionText.append("x").append(i + 1).append(" = ").append(solutions[i]);
-                    if (i < solutions.length - 1) {
-                        solutionText.append("\n");
+                Expression solvedExpression = polynomialExpression;
+                solveInBackground(polynomial::getSolutions, solutions -> {
+                    StringBuilder solutionText = new StringBuilder();
+                    solutionText.append("Solutions for ").append(solvedExpression).append(" are:\n");
+                    for (int i = 0; i < solutions.length; i++) {
+                        solutionText.append("x").append(i + 1).append(" = ").append(solutions[i]);
+                        if (i < solutions.length - 1) {
+                            solutionText.append("\n");
+                        }
                     }
-                }
-                JOptionPane.showMessageDialog(null, solutionText.toString(), "Newton's Method Result", JOptionPane.INFORMATION_MESSAGE);
+                    JOptionPane.showMessageDialog(null, solutionText.toString(), "Newton's Method Result", JOptionPane.INFORMATION_MESSAGE);
+                });
             } else if (text.equals("Linear system of equations")) {
                 boolean validInput = false;
                 int numEquations = 0;
@@ -249,18 +223,117 @@ public class PolynomialSolverUI extends JFrame {
                 }
 
                 SystemOfEquations system = new SystemOfEquations((LinearExpression[]) equations);
-                String[] solutions = system.getSolutions();
-                StringBuilder solutionText = new StringBuilder();
-                solutionText.append("Solutions:\n");
-                for (String solution : solutions) {
-                    solutionText.append(solution).append("\n");
-                }
-                JOptionPane.showMessageDialog(null, solutionText.toString(), "Linear Equations Result", JOptionPane.INFORMATION_MESSAGE);
+                solveInBackground(system::getSolutions, solutions -> {
+                    StringBuilder solutionText = new StringBuilder();
+                    solutionText.append("Solutions:\n");
+                    for (String solution : solutions) {
+                        solutionText.append(solution).append("\n");
+                    }
+                    JOptionPane.showMessageDialog(null, solutionText.toString(), "Linear Equations Result", JOptionPane.INFORMATION_MESSAGE);
+                });
             } else {
                 JOptionPane.showMessageDialog(null, "This feature is not yet implemented.", "Feature Not Implemented", JOptionPane.WARNING_MESSAGE);
             }
         });
         return menuItem;
     }
-}
 
+    /**
+     * Asks for the points to evaluate the interpolating polynomial at, and shows the results.
+     *
+     * @param interpolated The interpolating polynomial.
+     */
+    private void showInterpolationResult(Polynomial interpolated) {
+        boolean validInput;
+        boolean validInput2 = false;
+        int numInterpolatedValues = 0;
+
+        while (!validInput2) {
+            try {
+                numInterpolatedValues = Integer.parseInt(JOptionPane.showInputDialog("How many interpolated values you'd like to know?"));
+                validInput2 = true;
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(null, "Please enter a valid numeric value for the number of interpolated values.", "Invalid Input", JOptionPane.ERROR_MESSAGE);
+            }
+        }
+
+        StringBuilder result = new StringBuilder();
+        result.append("Interpolating polynomial: ").append(interpolated).append("\n");
+
+        for (int i = 0; i < numInterpolatedValues; i++) {
+            validInput = false;
+            while (!validInput) {
+                try {
+                    double xValue = Double.parseDouble(JOptionPane.showInputDialog("Enter x value for interpolation " + (i + 1) + ":"));
+                    double interpolatedValue = interpolated.valueAt(xValue);
+                    result.append("Interpolated value at x = ").append(xValue).append(": ").append(interpolatedValue).append("\n");
+                    validInput = true;
+                } catch (NumberFormatException ex) {
+                    JOptionPane.showMessageDialog(null, "Please enter valid numeric x value for interpolation.", "Invalid Input", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }
+
+        JOptionPane.showMessageDialog(null, result.toString(), "Interpolation Result", JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    /**
+     * Runs a solve on a background worker while a dialog shows its progress and lets the user cancel it,
+     * so that the window stays responsive. The result is handed to the callback on the Event Dispatch Thread.
+     *
+     * @param solver   The solve, checking the token it receives.
+     * @param onResult The callback receiving the result.
+     * @param <T>      The type of the result.
+     */
+    private <T> void solveInBackground(java.util.function.Function<CancellationToken, T> solver, Consumer<T> onResult) {
+        CancellationToken token = new CancellationToken();
+        JDialog dialog = new JDialog(this, "Solving", false);
+        JProgressBar progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        JButton cancelButton = new JButton("Cancel");
+        JPanel panel = new JPanel(new BorderLayout(10, 10));
+        panel.setBorder(new EmptyBorder(10, 10, 10, 10));
+        panel.add(new JLabel("Solving, please wait..."), BorderLayout.NORTH);
+        panel.add(progressBar, BorderLayout.CENTER);
+        panel.add(cancelButton, BorderLayout.SOUTH);
+        dialog.setContentPane(panel);
+        dialog.setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
+        dialog.pack();
+        dialog.setLocationRelativeTo(this);
+
+        SwingWorker<T, Void> worker = new SwingWorker<>() {
+            @Override
+            protected T doInBackground() {
+                token.onProgress(fraction -> setProgress((int) Math.round(100 * Math.max(0, Math.min(1, fraction)))));
+                return solver.apply(token);
+            }
+
+            @Override
+            protected void done() {
+                dialog.dispose();
+                if (token.isCancelled()) {
+                    JOptionPane.showMessageDialog(null, "The solve was cancelled.", "Cancelled", JOptionPane.INFORMATION_MESSAGE);
+                    return;
+                }
+                try {
+                    onResult.accept(get());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException ex) {
+                    JOptionPane.showMessageDialog(null, "The solve failed: " + ex.getCause(), "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        worker.addPropertyChangeListener(event -> {
+            if ("progress".equals(event.getPropertyName())) {
+                progressBar.setValue((Integer) event.getNewValue());
+            }
+        });
+        cancelButton.addActionListener(event -> {
+            token.cancel();
+            cancelButton.setEnabled(false);
+        });
+        worker.execute();
+        dialog.setVisible(true);
+    }
+}
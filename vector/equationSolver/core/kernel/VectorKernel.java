@@ -0,0 +1,259 @@
+package equationSolver.core.kernel;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The {@link ArrayKernel} implemented with the {@code jdk.incubator.vector} API on the preferred species.
+ * <p>
+ * This class is only loaded by {@link ArrayKernel} after checking that the vector module is present.
+ */
+class VectorKernel extends ArrayKernel {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    /**
+     * The masks of the lanes whose index has bit {@code b} set, which build the powers of a point
+     * by repeated squaring in {@link #evaluate(double[], double)}.
+     */
+    private static final VectorMask<Double>[] POWER_MASKS = powerMasks();
+
+    public int getLaneCount() {
+        return SPECIES.length();
+    }
+
+    /**
+     * Adds with the scalar loop, which the JIT compiler already vectorizes and unrolls; the explicit
+     * vector loop measured slower in {@code KernelBenchmark} on both AVX2 and AVX-512.
+     */
+    public void addMultiple(double factor, double[] source, int sourceOffset, double[] target, int targetOffset, int length) {
+        ScalarKernel.INSTANCE.addMultiple(factor, source, sourceOffset, target, targetOffset, length);
+    }
+
+    /**
+     * Scales with the scalar loop, which the JIT compiler already vectorizes and unrolls; the explicit
+     * vector loop measured about half as fast in {@code KernelBenchmark}.
+     */
+    public void scale(double[] array, double scalar) {
+        ScalarKernel.INSTANCE.scale(array, scalar);
+    }
+
+    /**
+     * Evaluates the polynomial by running Horner's scheme on blocks of one vector length, so that
+     * every lane accumulates the coefficients of one residue class of the degree. The lanes are
+     * then combined with the powers {@code 1, x, ..., x^(L-1)}, built in a register by repeated
+     * squaring. The coefficients above the last full block are evaluated with scalar Horner.
+     * <p>
+     * If {@code x^L} overflows, or the combination of the lanes does, the blocked sum would give NaN
+     * where Horner's scheme gives an infinity, so the polynomial is evaluated with scalar Horner.
+     */
+    public double evaluate(double[] coefficients, double x) {
+        int lanes = SPECIES.length();
+        int blocks = coefficients.length / lanes;
+        if (blocks < 2) {
+            return ScalarKernel.INSTANCE.evaluate(coefficients, x);
+        }
+        DoubleVector powers = DoubleVector.broadcast(SPECIES, 1);
+        double blockPower = x;
+        for (VectorMask<Double> mask : POWER_MASKS) {
+            powers = powers.mul(blockPower, mask);
+            blockPower *= blockPower;
+        }
+        if (!Double.isFinite(blockPower)) {
+            return ScalarKernel.INSTANCE.evaluate(coefficients, x);
+        }
+        int fullEnd = blocks * lanes;
+        double tail = 0;
+        for (int i = coefficients.length - 1; i >= fullEnd; i--) {
+            tail = tail * x + coefficients[i];
+        }
+        DoubleVector blockPowerVector = DoubleVector.broadcast(SPECIES, blockPower);
+        DoubleVector accumulator = DoubleVector.zero(SPECIES);
+        for (int start = fullEnd - lanes; start >= 0; start -= lanes) {
+            accumulator = accumulator.fma(blockPowerVector, DoubleVector.fromArray(SPECIES, coefficients, start));
+            tail *= blockPower;
+        }
+        double value = accumulator.mul(powers).reduceLanes(VectorOperators.ADD) + tail;
+        if (Double.isNaN(value) && !Double.isNaN(x)) {
+            return ScalarKernel.INSTANCE.evaluate(coefficients, x);
+        }
+        return value;
+    }
+
+    /**
+     * Evaluates four vectors of points per pass over the coefficients, every lane running Horner's scheme
+     * for one point, so that four independent fused multiply-adds are in flight. The points beyond the
+     * last group of four vectors are evaluated one vector, then one point, at a time.
+     */
+    public void evaluate(double[] coefficients, double[] points, double[] values) {
+        int lanes = SPECIES.length();
+        int i = 0;
+        for (; i + 4 * lanes <= points.length; i += 4 * lanes) {
+            DoubleVector x0 = DoubleVector.fromArray(SPECIES, points, i);
+            DoubleVector x1 = DoubleVector.fromArray(SPECIES, points, i + lanes);
+            DoubleVector x2 = DoubleVector.fromArray(SPECIES, points, i + 2 * lanes);
+            DoubleVector x3 = DoubleVector.fromArray(SPECIES, points, i + 3 * lanes);
+            DoubleVector r0 = DoubleVector.zero(SPECIES);
+            DoubleVector r1 = DoubleVector.zero(SPECIES);
+            DoubleVector r2 = DoubleVector.zero(SPECIES);
+            DoubleVector r3 = DoubleVector.zero(SPECIES);
+            for (int k = coefficients.length - 1; k >= 0; k--) {
+                DoubleVector c = DoubleVector.broadcast(SPECIES, coefficients[k]);
+                r0 = r0.fma(x0, c);
+                r1 = r1.fma(x1, c);
+                r2 = r2.fma(x2, c);
+                r3 = r3.fma(x3, c);
+            }
+            r0.intoArray(values, i);
+            r1.intoArray(values, i + lanes);
+            r2.intoArray(values, i + 2 * lanes);
+            r3.intoArray(values, i + 3 * lanes);
+        }
+        for (; i + lanes <= points.length; i += lanes) {
+            DoubleVector x = DoubleVector.fromArray(SPECIES, points, i);
+            DoubleVector r = DoubleVector.zero(SPECIES);
+            for (int k = coefficients.length - 1; k >= 0; k--) {
+                r = r.fma(x, DoubleVector.broadcast(SPECIES, coefficients[k]));
+            }
+            r.intoArray(values, i);
+        }
+        for (; i < points.length; i++) {
+            values[i] = evaluate(coefficients, points[i]);
+        }
+    }
+
+    /**
+     * Solves one vector of equations per step, without branches: the lanes where the discriminant is
+     * negative get NaN from the square root, and the lanes where {@code a = 0} are blended with the
+     * root of the linear equation. The counts are derived from the roots by a scalar loop, and the
+     * equations beyond the last full vector are solved by the scalar kernel.
+     */
+    public void solveQuadratics(double[] a, double[] b, double[] c, int from, int to,
+                                double[] smaller, double[] larger, int[] counts) {
+        int lanes = SPECIES.length();
+        int i = from;
+        for (; i + lanes <= to; i += lanes) {
+            DoubleVector va = DoubleVector.fromArray(SPECIES, a, i);
+            DoubleVector vb = DoubleVector.fromArray(SPECIES, b, i);
+            DoubleVector vc = DoubleVector.fromArray(SPECIES, c, i);
+            DoubleVector square = vb.mul(vb);
+            DoubleVector fourA = va.mul(4);
+            DoubleVector product = fourA.mul(vc);
+            DoubleVector error = vb.fma(vb, square.neg()).sub(fourA.fma(vc, product.neg()));
+            DoubleVector root = square.sub(product).add(error).sqrt();
+            DoubleVector q = vb.add(root.blend(root.neg(), vb.lt(0))).mul(-0.5);
+            DoubleVector root1 = q.div(va);
+            DoubleVector root2 = vc.div(q).blend(root1, q.eq(0));
+            VectorMask<Double> linear = va.eq(0);
+            if (linear.anyTrue()) {
+                DoubleVector linearRoot = vc.div(vb).neg().blend(Double.NaN, vb.eq(0));
+                root1 = root1.blend(linearRoot, linear);
+                root2 = root2.blend(linearRoot, linear);
+            }
+            root1.min(root2).intoArray(smaller, i);
+            root1.max(root2).intoArray(larger, i);
+            for (int k = i; k < i + lanes; k++) {
+                double low = smaller[k];
+                counts[k] = low != low ? 0 : low == larger[k] ? 1 : 2;
+            }
+        }
+        ScalarKernel.INSTANCE.solveQuadratics(a, b, c, i, to, smaller, larger, counts);
+    }
+
+    /**
+     * Two vectors, so that four rows make eight independent chains of fused multiply-adds, enough to
+     * hide their latency.
+     */
+    public int getPanelWidth() {
+        return 2 * SPECIES.length();
+    }
+
+    /**
+     * Accumulates blocks of four rows by the two vectors of the panel in eight vector registers, each
+     * element of {@code A} broadcast once per block, and the rows beyond the last block of four one at
+     * a time. Partial panels are added to {@code C} through a temporary array.
+     */
+    public void multiplyPanel(double[][] a, int rowFrom, int rowTo, int kFrom, int kTo,
+                              double[] panel, double[][] c, int column, int columns) {
+        int lanes = SPECIES.length();
+        int width = 2 * lanes;
+        int i = rowFrom;
+        for (; i + 4 <= rowTo; i += 4) {
+            double[] a0 = a[i];
+            double[] a1 = a[i + 1];
+            double[] a2 = a[i + 2];
+            double[] a3 = a[i + 3];
+            DoubleVector c00 = DoubleVector.zero(SPECIES);
+            DoubleVector c01 = DoubleVector.zero(SPECIES);
+            DoubleVector c10 = DoubleVector.zero(SPECIES);
+            DoubleVector c11 = DoubleVector.zero(SPECIES);
+            DoubleVector c20 = DoubleVector.zero(SPECIES);
+            DoubleVector c21 = DoubleVector.zero(SPECIES);
+            DoubleVector c30 = DoubleVector.zero(SPECIES);
+            DoubleVector c31 = DoubleVector.zero(SPECIES);
+            for (int k = kFrom; k < kTo; k++) {
+                DoubleVector b0 = DoubleVector.fromArray(SPECIES, panel, k * width);
+                DoubleVector b1 = DoubleVector.fromArray(SPECIES, panel, k * width + lanes);
+                DoubleVector x = DoubleVector.broadcast(SPECIES, a0[k]);
+                c00 = b0.fma(x, c00);
+                c01 = b1.fma(x, c01);
+                x = DoubleVector.broadcast(SPECIES, a1[k]);
+                c10 = b0.fma(x, c10);
+                c11 = b1.fma(x, c11);
+                x = DoubleVector.broadcast(SPECIES, a2[k]);
+                c20 = b0.fma(x, c20);
+                c21 = b1.fma(x, c21);
+                x = DoubleVector.broadcast(SPECIES, a3[k]);
+                c30 = b0.fma(x, c30);
+                c31 = b1.fma(x, c31);
+            }
+            addRow(c[i], column, columns, c00, c01);
+            addRow(c[i + 1], column, columns, c10, c11);
+            addRow(c[i + 2], column, columns, c20, c21);
+            addRow(c[i + 3], column, columns, c30, c31);
+        }
+        for (; i < rowTo; i++) {
+            double[] row = a[i];
+            DoubleVector c0 = DoubleVector.zero(SPECIES);
+            DoubleVector c1 = DoubleVector.zero(SPECIES);
+            for (int k = kFrom; k < kTo; k++) {
+                DoubleVector x = DoubleVector.broadcast(SPECIES, row[k]);
+                c0 = DoubleVector.fromArray(SPECIES, panel, k * width).fma(x, c0);
+                c1 = DoubleVector.fromArray(SPECIES, panel, k * width + lanes).fma(x, c1);
+            }
+            addRow(c[i], column, columns, c0, c1);
+        }
+    }
+
+    private static void addRow(double[] row, int column, int columns, DoubleVector first, DoubleVector second) {
+        int lanes = SPECIES.length();
+        if (columns == 2 * lanes) {
+            first.add(DoubleVector.fromArray(SPECIES, row, column)).intoArray(row, column);
+            second.add(DoubleVector.fromArray(SPECIES, row, column + lanes)).intoArray(row, column + lanes);
+            return;
+        }
+        double[] sums = new double[2 * lanes];
+        first.intoArray(sums, 0);
+        second.intoArray(sums, lanes);
+        for (int j = 0; j < columns; j++) {
+            row[column + j] += sums[j];
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static VectorMask<Double>[] powerMasks() {
+        int lanes = SPECIES.length();
+        int bits = Integer.numberOfTrailingZeros(lanes);
+        VectorMask<Double>[] masks = new VectorMask[bits];
+        for (int b = 0; b < bits; b++) {
+            long lanesWithBit = 0;
+            for (int lane = 0; lane < lanes; lane++) {
+                if ((lane & (1 << b)) != 0) {
+                    lanesWithBit |= 1L << lane;
+                }
+            }
+            masks[b] = VectorMask.fromLong(SPECIES, lanesWithBit);
+        }
+        return masks;
+    }
+}